@@ -31,6 +31,7 @@ import de.uni_koblenz.aggrimm.icp.facades.local.resultRetrieval.IBingRetrieverLo
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.ejb.Stateless;
+import de.uni_koblenz.aggrimm.icp.interfaceAgents.ParsedQuery;
 import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.IResult;
 import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.IResultsContainer;
 import java.io.Serializable;
@@ -72,17 +73,50 @@ public class Dispatcher implements Serializable, IDispatcherLocal {
 	 */
 	@Override
 	public IResultsContainer<IResult> doSearch(String encodedSearchTerm, String source, String market, int top, int skip) throws Exception {
+		return doSearch(parseQuery(encodedSearchTerm, market), source, top, skip);
+	}
+
+	/**
+	 * <p>Same as {@link #doSearch(String, String, String, int, int)} but for a
+	 * search term that has already been analysed by {@link #parseQuery}.
+	 *
+	 * @param parsedQuery the analysed search term including the market.
+	 * @param source      the source to search.
+	 * @param top         the amount of results to return.
+	 * @param skip        the amount of results to skip.
+	 *
+	 * @return {@code IWebResult} if {@code market} is "web"
+	 *          and {@code IImageResult} if market is "image".
+	 * @throws Exception
+	 */
+	@Override
+	public IResultsContainer<IResult> doSearch(ParsedQuery parsedQuery, String source, int top, int skip) throws Exception {
 		IResultsContainer<IResult> result;
 
 		assert (SEARCH_ENGINE != null);
 		switch (SEARCH_ENGINE) {
 			case ("bing"):
-				result = bingRetriever.doSearch(encodedSearchTerm, source, market, top, skip);
+				result = bingRetriever.doSearch(parsedQuery, source, top, skip);
 				break;
 			default:
-				result = bingRetriever.doSearch(encodedSearchTerm, source, market, top, skip);
+				result = bingRetriever.doSearch(parsedQuery, source, top, skip);
 				LOGGER.log(Level.WARNING, "Please specify an implemented search engine in web.xml. Falling back to bing.");
 		}
 		return result;
 	}
+
+	/**
+	 * <p>Analyses {@code searchTerm} once with the currently used search
+	 * engine's known file types and markets. Falls back to Bing like
+	 * {@link #doSearch(ParsedQuery, String, int, int)}.
+	 *
+	 * @param searchTerm the search term.
+	 * @param market     the requested market, may be {@code null}.
+	 *
+	 * @return the analysed search term.
+	 */
+	@Override
+	public ParsedQuery parseQuery(String searchTerm, String market) {
+		return bingRetriever.parseQuery(searchTerm, market);
+	}
 }
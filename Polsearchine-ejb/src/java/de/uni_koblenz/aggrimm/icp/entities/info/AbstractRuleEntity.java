@@ -25,9 +25,9 @@ import java.util.List;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.ManyToMany;
+import javax.persistence.ManyToOne;
 import javax.persistence.MappedSuperclass;
-import javax.persistence.OneToMany;
-import javax.persistence.OneToOne;
 
 /**
  *
@@ -40,11 +40,15 @@ public abstract class AbstractRuleEntity implements Serializable {
 	@Id
 	@GeneratedValue(strategy = GenerationType.AUTO)
 	private Long id;
-	@OneToOne
+	/**
+	 * <p>Policies and meta information are shared between rules. Every URI is
+	 * only stored once.
+	 */
+	@ManyToOne
 	private PolicyEntity policy;
-	@OneToOne
+	@ManyToOne
 	private RuleDataProviderEntity ruleDataProvider;
-	@OneToMany
+	@ManyToMany
 	private List<ControlledTopicEntity> controlledTopics;
 	private boolean isInformationFlowAllowed;
 	/**
@@ -53,6 +57,15 @@ public abstract class AbstractRuleEntity implements Serializable {
 	 */
 	private String contentURI;
 	private int priority;
+	/**
+	 * <p>Number of the {@code PolicyGeneration} this rule has been written for.
+	 */
+	private long generation;
+	/**
+	 * <p>Number of the first {@code PolicyGeneration} this rule is not part of
+	 * anymore. {@code null} as long as it has not been retired.
+	 */
+	private Long retiredInGeneration;
 
 	public String getContentURI() {
 		return contentURI;
@@ -74,6 +87,22 @@ public abstract class AbstractRuleEntity implements Serializable {
 		this.priority = priority;
 	}
 
+	public long getGeneration() {
+		return generation;
+	}
+
+	public void setGeneration(long generation) {
+		this.generation = generation;
+	}
+
+	public Long getRetiredInGeneration() {
+		return retiredInGeneration;
+	}
+
+	public void setRetiredInGeneration(Long retiredInGeneration) {
+		this.retiredInGeneration = retiredInGeneration;
+	}
+
 	public RuleDataProviderEntity getRuleDataProvider() {
 		return ruleDataProvider;
 	}
@@ -18,6 +18,7 @@
 package de.uni_koblenz.aggrimm.icp.entities.info;
 
 import java.io.Serializable;
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
@@ -29,6 +30,7 @@ import javax.persistence.Table;
  * @author mruster
  */
 @Entity
+@Cacheable
 @Table(name = "DefaultRule")
 public class DefaultRuleEntity implements Serializable {
 
@@ -37,6 +39,11 @@ public class DefaultRuleEntity implements Serializable {
 	@GeneratedValue(strategy = GenerationType.AUTO)
 	private Long id;
 	private boolean isAllowingDefaultRule;
+	/**
+	 * <p>Number of the {@code PolicyGeneration} this default rule has been
+	 * written for.
+	 */
+	private long generation;
 
 	public Long getId() {
 		return id;
@@ -46,6 +53,14 @@ public class DefaultRuleEntity implements Serializable {
 		this.id = id;
 	}
 
+	public long getGeneration() {
+		return generation;
+	}
+
+	public void setGeneration(long generation) {
+		this.generation = generation;
+	}
+
 	public boolean isIsAllowingDefaultRule() {
 		return isAllowingDefaultRule;
 	}
@@ -22,11 +22,12 @@ import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.OrganizationalMo
 import java.io.Serializable;
 import java.util.LinkedList;
 import java.util.List;
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
-import javax.persistence.OneToMany;
+import javax.persistence.ManyToMany;
 import javax.persistence.Table;
 
 /**
@@ -34,6 +35,7 @@ import javax.persistence.Table;
  * @author mruster
  */
 @Entity
+@Cacheable
 @Table(name = "Policy")
 public class PolicyEntity implements Serializable {
 
@@ -41,9 +43,9 @@ public class PolicyEntity implements Serializable {
 	@Id
 	@GeneratedValue(strategy = GenerationType.AUTO)
 	private Long id;
-	@OneToMany
+	@ManyToMany
 	private List<LegalAuthorizationEntity> legalAuthorizations;
-	@OneToMany
+	@ManyToMany
 	private List<OrganizationalMotivationEntity> organizationalMotivations;
 
 	public PolicyEntity() {
@@ -18,15 +18,88 @@
 package de.uni_koblenz.aggrimm.icp.entities.info;
 
 import java.net.URI;
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.QueryHint;
 
 /**
+ * <p>Rules do not change between two reloads. Therefore, they are kept in the
+ * shared cache and the queries for regulating rules cache their results. The
+ * results of these queries are read-only; they must not be modified.
  *
  * @author mruster
  */
 @Entity
+@Cacheable
+@NamedQueries({
+	@NamedQuery(name = URLRuleEntity.FIND_WEB_PAGE_RULE,
+							query = "SELECT ure FROM URLRuleEntity ure"
+							+ " WHERE ure.contentURI = :contentType AND  ure.regionURL = :url"
+							+ " AND " + URLRuleEntity.GENERATION_CONDITION,
+							hints = {
+		@QueryHint(name = URLRuleEntity.QUERY_RESULTS_CACHE_HINT, value = "true"),
+		@QueryHint(name = URLRuleEntity.QUERY_RESULTS_CACHE_SIZE_HINT, value = URLRuleEntity.QUERY_RESULTS_CACHE_SIZE),
+		@QueryHint(name = URLRuleEntity.READ_ONLY_HINT, value = "true"),
+		@QueryHint(name = URLRuleEntity.LEFT_JOIN_FETCH_HINT, value = "ure.ruleDataProvider"),
+		@QueryHint(name = URLRuleEntity.LEFT_JOIN_FETCH_HINT, value = "ure.controlledTopics"),
+		@QueryHint(name = URLRuleEntity.LEFT_JOIN_FETCH_HINT, value = "ure.policy"),
+		@QueryHint(name = URLRuleEntity.LEFT_JOIN_FETCH_HINT, value = "ure.policy.legalAuthorizations"),
+		@QueryHint(name = URLRuleEntity.LEFT_JOIN_FETCH_HINT, value = "ure.policy.organizationalMotivations")}),
+	@NamedQuery(name = URLRuleEntity.FIND_WEB_SITE_RULE_ID,
+							query = "SELECT ure.id FROM URLRuleEntity ure"
+							+ " WHERE ure.contentURI = :contentType AND  :currentURL LIKE CONCAT(ure.regionURL, '%')"
+							+ " AND LENGTH(ure.regionURL) <= LENGTH(:currentURL)"
+							+ " AND " + URLRuleEntity.GENERATION_CONDITION
+							+ " ORDER BY ure.priority DESC",
+							hints = {
+		@QueryHint(name = URLRuleEntity.QUERY_RESULTS_CACHE_HINT, value = "true"),
+		@QueryHint(name = URLRuleEntity.QUERY_RESULTS_CACHE_SIZE_HINT, value = URLRuleEntity.QUERY_RESULTS_CACHE_SIZE)}),
+	@NamedQuery(name = URLRuleEntity.FIND_RULE,
+							query = "SELECT ure FROM URLRuleEntity ure WHERE ure.id = :id",
+							hints = {
+		@QueryHint(name = URLRuleEntity.QUERY_RESULTS_CACHE_HINT, value = "true"),
+		@QueryHint(name = URLRuleEntity.QUERY_RESULTS_CACHE_SIZE_HINT, value = URLRuleEntity.QUERY_RESULTS_CACHE_SIZE),
+		@QueryHint(name = URLRuleEntity.READ_ONLY_HINT, value = "true"),
+		@QueryHint(name = URLRuleEntity.LEFT_JOIN_FETCH_HINT, value = "ure.ruleDataProvider"),
+		@QueryHint(name = URLRuleEntity.LEFT_JOIN_FETCH_HINT, value = "ure.controlledTopics"),
+		@QueryHint(name = URLRuleEntity.LEFT_JOIN_FETCH_HINT, value = "ure.policy"),
+		@QueryHint(name = URLRuleEntity.LEFT_JOIN_FETCH_HINT, value = "ure.policy.legalAuthorizations"),
+		@QueryHint(name = URLRuleEntity.LEFT_JOIN_FETCH_HINT, value = "ure.policy.organizationalMotivations")})
+})
 public class URLRuleEntity extends AbstractRuleEntity {
 
+	/**
+	 * <p>Parameters: {@code contentType}, {@code url}, {@code baseGeneration}
+	 * and {@code generation}. Fetches policy and meta information as well.
+	 */
+	public static final String FIND_WEB_PAGE_RULE = "URLRuleEntity.findWebPageRule";
+	/**
+	 * <p>Parameters: {@code contentType}, {@code currentURL},
+	 * {@code baseGeneration} and {@code generation}. Returns the ids ordered by
+	 * priority.
+	 */
+	public static final String FIND_WEB_SITE_RULE_ID = "URLRuleEntity.findWebSiteRuleId";
+	/**
+	 * <p>Parameter: {@code id}. Fetches policy and meta information as well.
+	 */
+	public static final String FIND_RULE = "URLRuleEntity.findRule";
+	/**
+	 * <p>Restricts URL rules ({@code ure}) to the generation given by the
+	 * parameters {@code baseGeneration} and {@code generation}.
+	 */
+	public static final String GENERATION_CONDITION = "ure.generation BETWEEN :baseGeneration AND :generation"
+					+ " AND (ure.retiredInGeneration IS NULL OR ure.retiredInGeneration > :generation)";
+	/**
+	 * <p>EclipseLink query hint to fetch relationships with the queried entity
+	 * by an outer join instead of a query per relationship and entity.
+	 */
+	private static final String LEFT_JOIN_FETCH_HINT = "eclipselink.left-join-fetch";
+	private static final String QUERY_RESULTS_CACHE_HINT = "eclipselink.query-results-cache";
+	private static final String QUERY_RESULTS_CACHE_SIZE_HINT = "eclipselink.query-results-cache.size";
+	private static final String QUERY_RESULTS_CACHE_SIZE = "1000";
+	private static final String READ_ONLY_HINT = "eclipselink.read-only";
 	private static final long serialVersionUID = 1079157990301982855L;
 	private String regionURL;
 
@@ -21,6 +21,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.persistence.Column;
 import javax.persistence.MappedSuperclass;
 
 /**
@@ -30,11 +31,14 @@ import javax.persistence.MappedSuperclass;
  * TODO: create DTO classes for extending classes WHEN InFO implements precise
  * attributes!
  *
+ * <p>Entities are interned by their URI, which is therefore unique per table.
+ *
  * @author mruster
  */
 @MappedSuperclass
 public abstract class AbstractMetaInformationEntity {
 
+	@Column(unique = true)
 	private String uri;
 
 	public URI getUri() {
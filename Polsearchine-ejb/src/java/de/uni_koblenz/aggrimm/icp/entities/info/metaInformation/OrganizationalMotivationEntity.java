@@ -18,6 +18,7 @@
 package de.uni_koblenz.aggrimm.icp.entities.info.metaInformation;
 
 import java.io.Serializable;
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
@@ -29,6 +30,7 @@ import javax.persistence.Table;
  * @author mruster
  */
 @Entity
+@Cacheable
 @Table(name = "OrganizationalMotivation")
 public class OrganizationalMotivationEntity extends AbstractMetaInformationEntity implements Serializable {
 
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.facades.local;
+
+import de.uni_koblenz.aggrimm.icp.policyProcessing.inFOParser.SEFCOParser;
+import de.uni_koblenz.aggrimm.icp.policyProcessing.validators.PolicyFileValidator;
+import java.util.concurrent.Future;
+import javax.ejb.Local;
+
+/**
+ *
+ * @author mruster
+ */
+@Local
+public interface IPolicyFileParserLocal {
+
+	/**
+	 * <p>Asynchronously parses a single policy file on a thread managed by the
+	 * container.
+	 *
+	 * @see SEFCOParser#parseFile(java.lang.String)
+	 * @param fileLocation as URI or with prefix 'file://'
+	 *
+	 * @return the unlinked meta policies, policies and rules of the file.
+	 */
+	Future<SEFCOParser.ParsedControls> parseFile(String fileLocation);
+
+	/**
+	 * <p>Asynchronously validates a single policy file on a thread managed by
+	 * the container.
+	 *
+	 * @see PolicyFileValidator#validate(java.lang.String)
+	 * @param fileLocation as URI or with prefix 'file://'
+	 *
+	 * @return why the file is invalid or {@code null} if it is valid.
+	 */
+	Future<String> validateFile(String fileLocation);
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.facades.local;
+
+import de.uni_koblenz.aggrimm.icp.policyProcessing.PolicyGeneration;
+import javax.ejb.Local;
+
+/**
+ *
+ * @author mruster
+ */
+@Local
+public interface IPolicyGenerationLocal {
+
+	/**
+	 * @return the {@code PolicyGeneration} of the policies currently persisted.
+	 *          Never {@code null}.
+	 */
+	PolicyGeneration getCurrentGeneration();
+
+	/**
+	 * <p>Replaces the current generation by {@code generation} as soon as the
+	 * active transaction has been committed, or immediately if there is none.
+	 * This must be called after the processed policies have been persisted
+	 * with {@code generation}'s number so that everything derived from the
+	 * former policies gets invalidated. If the transaction is rolled back, the
+	 * current generation stays in use.
+	 *
+	 * @param generation a successor of the current generation.
+	 */
+	void publishGeneration(PolicyGeneration generation);
+}
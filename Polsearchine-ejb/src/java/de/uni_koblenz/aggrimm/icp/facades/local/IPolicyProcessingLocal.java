@@ -27,4 +27,44 @@ import javax.ejb.Local;
 public interface IPolicyProcessingLocal {
 
 	void processOwlFiles();
+
+	/**
+	 * <p>Processes the policy files again if any of them has been added, changed
+	 * or removed since they have been processed the last time. Only rules that
+	 * changed are written.
+	 *
+	 * @return {@code true} if the policies were processed again; {@code false}
+	 *          if no policy file had changed.
+	 */
+	boolean reloadChangedPolicies();
+
+	/**
+	 * <p>Same as {@link #reloadChangedPolicies()} unless reloads have been
+	 * paused. The reload is run on {@link #resumeReloads()} then.
+	 *
+	 * @return {@code true} if the policies were processed again; {@code false}
+	 *          if no policy file had changed or reloads are paused.
+	 */
+	boolean reloadChangedPoliciesUnlessPaused();
+
+	/**
+	 * <p>Pauses reloads requested by
+	 * {@link #reloadChangedPoliciesUnlessPaused()} until
+	 * {@link #resumeReloads()} has been called as often as this method. A
+	 * reload that is running already is finished first.
+	 */
+	void pauseReloads();
+
+	/**
+	 * <p>Resumes reloads. If a reload has been requested while paused, it is
+	 * run now.
+	 */
+	void resumeReloads();
+
+	/**
+	 * <p>Asynchronously deletes the rules of generations before the published
+	 * one as well as policies and meta information that are not referenced
+	 * anymore. This never runs concurrently to a reload.
+	 */
+	void deleteOutdatedGenerations();
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.facades.local;
+
+import de.uni_koblenz.aggrimm.icp.policyProcessing.DirectoryWatcher;
+import javax.ejb.Local;
+
+/**
+ *
+ * @author mruster
+ */
+@Local
+public interface IPolicyWatcherLocal {
+
+	/**
+	 * <p>Registers {@code listener} to be notified whenever files within
+	 * {@code OWL_PATH} have been created, modified or deleted. Listeners are
+	 * notified one after another on a thread of the container's polling timer.
+	 * Changes are not polled while a listener is running.
+	 *
+	 * @param listener to notify.
+	 */
+	void addListener(DirectoryWatcher.Listener listener);
+
+	/**
+	 * @param listener to not notify anymore.
+	 */
+	void removeListener(DirectoryWatcher.Listener listener);
+}
@@ -24,6 +24,7 @@ import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.ControlledTopicE
 import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.LegalAuthorizationEntity;
 import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.RuleDataProviderEntity;
 import de.uni_koblenz.aggrimm.icp.info.model.technical.control.entity.OrganizationalMotivation;
+import de.uni_koblenz.aggrimm.icp.policyProcessing.PolicyGeneration;
 import java.util.List;
 import javax.ejb.Local;
 
@@ -103,6 +104,22 @@ public interface IDatabasePersistenceLocal {
 	 */
 	int deleteURLRules();
 
+	/**
+	 * <p>Deletes controlled topics and rule data providers that are not
+	 * referenced by any rule anymore as well as legal authorizations and
+	 * organizational motivations that are not referenced by any policy anymore.
+	 *
+	 * @return amount of deleted entries.
+	 */
+	int deleteUnreferencedMetaInformation();
+
+	/**
+	 * <p>Deletes policies that are not referenced by any rule anymore.
+	 *
+	 * @return amount of deleted entries.
+	 */
+	int deleteUnreferencedPolicies();
+
 	/**
 	 * <p>This method merges a policy and returns it.
 	 *
@@ -120,6 +137,20 @@ public interface IDatabasePersistenceLocal {
 	 */
 	void persistPolicies(List<PolicyEntity> policies);
 
+	/**
+	 * <p>Persists {@code rules} together with their policies and meta
+	 * information in chunks using JDBC batches. Every policy is persisted once,
+	 * no matter how many rules reference it. Rules of the same policy must
+	 * therefore reference the same {@code PolicyEntity} object.
+	 *
+	 * <p>All entities are detached afterwards.
+	 *
+	 * @param rules with their policies set.
+	 *
+	 * @return amount of inserted rows (without join table rows).
+	 */
+	int persistRulesInBatches(List<AbstractRuleEntity> rules);
+
 	/**
 	 * <p>Persist a {@code rule}. If you have set all relations set before calling
 	 * this method and are using cascade-persist as persistence strategy, you
@@ -167,4 +198,32 @@ public interface IDatabasePersistenceLocal {
 	 * @param ruleDataProvider {@code Entity} that should be persisted.
 	 */
 	void persistsRuleDataProvider(RuleDataProviderEntity ruleDataProvider);
+
+	/**
+	 * <p>Removes a single rule. Its policy and meta information are kept.
+	 *
+	 * @param rule the rule to remove.
+	 */
+	void removeRule(AbstractRuleEntity rule);
+
+	/**
+	 * <p>Marks a single rule as not being part of {@code generation} and its
+	 * successors anymore. Its policy and meta information are kept.
+	 *
+	 * @param rule       the rule to retire.
+	 * @param generation number of the first generation without {@code rule}.
+	 */
+	void retireRule(AbstractRuleEntity rule, long generation);
+
+	/**
+	 * <p>Deletes all rules and default rules that are not part of
+	 * {@code generation} or of a later one as well as policies and meta
+	 * information that are not referenced anymore. It must never run
+	 * concurrently to a reload.
+	 *
+	 * @param generation the generation that has been published last.
+	 *
+	 * @return amount of deleted entries.
+	 */
+	int deleteOutdatedGenerations(PolicyGeneration generation);
 }
@@ -18,6 +18,13 @@
 package de.uni_koblenz.aggrimm.icp.facades.local.database;
 
 import de.uni_koblenz.aggrimm.icp.entities.info.AbstractRuleEntity;
+import de.uni_koblenz.aggrimm.icp.entities.info.URLRuleEntity;
+import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.ControlledTopicEntity;
+import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.LegalAuthorizationEntity;
+import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.OrganizationalMotivationEntity;
+import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.RuleDataProviderEntity;
+import de.uni_koblenz.aggrimm.icp.policyProcessing.PolicyGeneration;
+import java.util.List;
 import javax.ejb.Local;
 import javax.persistence.NoResultException;
 
@@ -28,12 +35,6 @@ import javax.persistence.NoResultException;
 @Local
 public interface IDatabaseQueryLocal {
 
-	/**
-	 * @return {@code true} if default rule allows informations flows;
-	 *          {@code false else}.
-	 */
-	boolean doesDefaultRuleAllowInformationFlows();
-
 	/**
 	 * <p>If a {@code WEB_PAGE} is an exact match to the {@code url} then it must
 	 * be the most concrete (and highest prioritised) matching rule. There also
@@ -47,4 +48,47 @@ public interface IDatabaseQueryLocal {
 	 * @throws NoResultException is thrown if there is no matching rule.
 	 */
 	AbstractRuleEntity getRegulatingRule(String url) throws NoResultException;
+
+	/**
+	 * @see #getRegulatingRule(java.lang.String)
+	 * @param url        which is used to find a matching regulating rule.
+	 * @param generation to read the rules from.
+	 *
+	 * @return matching regulating rule of {@code generation}. If none is found,
+	 *          {@code null} is returned.
+	 */
+	AbstractRuleEntity getRegulatingRule(String url, PolicyGeneration generation);
+
+	/**
+	 * @return all URL rules of the current generation.
+	 */
+	List<URLRuleEntity> getURLRules();
+
+	/**
+	 * <p>This includes generations that have not been published yet.
+	 *
+	 * @return highest generation number any persisted rule or default rule
+	 *          refers to; 0 if there are none.
+	 */
+	long getLatestPersistedGeneration();
+
+	/**
+	 * @return all persisted controlled topics.
+	 */
+	List<ControlledTopicEntity> getControlledTopics();
+
+	/**
+	 * @return all persisted rule data providers.
+	 */
+	List<RuleDataProviderEntity> getRuleDataProviders();
+
+	/**
+	 * @return all persisted legal authorizations.
+	 */
+	List<LegalAuthorizationEntity> getLegalAuthorizations();
+
+	/**
+	 * @return all persisted organizational motivations.
+	 */
+	List<OrganizationalMotivationEntity> getOrganizationalMotivations();
 }
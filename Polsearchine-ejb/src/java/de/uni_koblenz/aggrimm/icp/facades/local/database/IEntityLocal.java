@@ -30,6 +30,7 @@ import de.uni_koblenz.aggrimm.icp.info.model.technical.control.entity.RuleDataPr
 import de.uni_koblenz.aggrimm.icp.info.model.technical.flow.define.FlowControlPolicyMethod;
 import de.uni_koblenz.aggrimm.icp.info.model.technical.flow.define.FlowControlRuleMethod;
 import de.uni_koblenz.aggrimm.icp.info.model.technical.flow.entity.ControlledTopic;
+import de.uni_koblenz.aggrimm.icp.policyProcessing.MetaInformationRegistry;
 import de.uni_koblenz.aggrimm.icp.policyProcessing.algorithmProcessors.prioritisation.wrappers.PrioritisedRule;
 import java.util.List;
 import javax.ejb.Local;
@@ -82,6 +83,16 @@ public interface IEntityLocal {
 	 */
 	PolicyEntity createPolicyEntityFromControlMethod(FlowControlPolicyMethod policyMethod);
 
+	/**
+	 * @param policyMethod to turn into an entity.
+	 * @param registry     to intern the meta information with.
+	 *
+	 * @return {@code PolicyEntity} with {@code LegalAuthorizationEntity} and
+	 *          {@code OrganizationalMotivationEntity} taken from
+	 *          {@code registry}.
+	 */
+	PolicyEntity createPolicyEntityFromControlMethod(FlowControlPolicyMethod policyMethod, MetaInformationRegistry registry);
+
 	/**
 	 * @param ruleDataProvider InFO-parser-class.
 	 *
@@ -109,6 +120,18 @@ public interface IEntityLocal {
 	 */
 	AbstractRuleEntity createRuleEntityFromControlMethod(FlowControlRuleMethod ruleMethod);
 
+	/**
+	 * @see
+	 * #createRuleEntityFromControlMethod(de.uni_koblenz.aggrimm.icp.info.model.technical.flow.define.FlowControlRuleMethod)
+	 * @param ruleMethod to turn into an entity.
+	 * @param registry   to intern the meta information with.
+	 *
+	 * @return {@code AbstractRuleEntity} with {@code ControlledTopicEntity} and
+	 *          {@code RuleDataProviderEntity} taken from {@code registry},
+	 *          contentType and URLRegion.
+	 */
+	AbstractRuleEntity createRuleEntityFromControlMethod(FlowControlRuleMethod ruleMethod, MetaInformationRegistry registry);
+
 	/**
 	 *
 	 * @see
@@ -121,4 +144,16 @@ public interface IEntityLocal {
 	 *          {@code RuleDataProviderEntity}, contentType, URLRegion and priority.
 	 */
 	AbstractRuleEntity createRuleEntityFromPrioritisedRule(PrioritisedRule prioritisedRule);
+
+	/**
+	 * @see
+	 * #createRuleEntityFromPrioritisedRule(de.uni_koblenz.aggrimm.icp.policyProcessing.algorithmProcessors.prioritisation.wrappers.PrioritisedRule)
+	 * @param prioritisedRule to turn into an entity.
+	 * @param registry        to intern the meta information with.
+	 *
+	 * @return {@code AbstractRuleEntity} with {@code ControlledTopicEntity} and
+	 *          {@code RuleDataProviderEntity} taken from {@code registry},
+	 *          contentType, URLRegion and priority.
+	 */
+	AbstractRuleEntity createRuleEntityFromPrioritisedRule(PrioritisedRule prioritisedRule, MetaInformationRegistry registry);
 }
@@ -19,6 +19,7 @@ package de.uni_koblenz.aggrimm.icp.facades.local.resultRetrieval;
 
 import de.uni_koblenz.aggrimm.icp.interfaceAgents.bing.results.BingResultsContainer;
 import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.unfiltered.IUnfilteredResult;
+import de.uni_koblenz.aggrimm.icp.policyProcessing.PolicyGeneration;
 import javax.ejb.Local;
 import org.json.simple.JSONObject;
 
@@ -30,15 +31,16 @@ import org.json.simple.JSONObject;
 public interface IBingResultParserLocal {
 
 	/**
-	 * @param o      a parsed Bing bingResult string parsed to a JSONObject.
-	 * @param source from where the results are ("web" or "image").
-	 * @param skip   integer of manually skipped values - needed
-	 *                for {@code isEmpty()}.
+	 * @param o          a parsed Bing bingResult string parsed to a JSONObject.
+	 * @param source     from where the results are ("web" or "image").
+	 * @param skip       integer of manually skipped values - needed
+	 *                    for {@code isEmpty()}.
+	 * @param generation of the policies to regulate the results with.
 	 *
 	 * @return {@code BingResultsContainer} with all extracted BingResults and
 	 *          set {@code resultsTotal} and {@code offset}.
 	 *
 	 * @throws IllegalArgumentException when {@code source>} is unknown.
 	 */
-	BingResultsContainer<IUnfilteredResult> convertToResultContainer(JSONObject o, String source, int skip);
+	BingResultsContainer<IUnfilteredResult> convertToResultContainer(JSONObject o, String source, int skip, PolicyGeneration generation);
 }
@@ -17,6 +17,7 @@
  */
 package de.uni_koblenz.aggrimm.icp.facades.local.resultRetrieval;
 
+import de.uni_koblenz.aggrimm.icp.interfaceAgents.ParsedQuery;
 import de.uni_koblenz.aggrimm.icp.interfaceAgents.bing.results.BingResultsContainer;
 import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.IResult;
 import java.io.IOException;
@@ -44,8 +45,8 @@ public interface IBingRetrieverLocal {
 	 *
 	 * For more details on the parameters, please have a look at:
 	 *
-	 * @see #createBasicQueryString(java.lang.String, java.lang.String,
-	 * java.lang.String, int, int)
+	 * @see BingRetriever#createBasicQueryString(ParsedQuery, java.lang.String,
+	 * int, int)
 	 *
 	 * @return {@code IWebResult} if {@code market} is "web"
 	 *          and {@code IImageResult} if market is "image" in an
@@ -62,6 +63,31 @@ public interface IBingRetrieverLocal {
 	 */
 	BingResultsContainer<IResult> doSearch(String encodedSearchTerm, String source, String market, int top, int skip) throws MalformedURLException, URISyntaxException, IOException, ParseException;
 
+	/**
+	 *
+	 * <p>Returns the results queried for an already analysed search term.
+	 *
+	 * @param parsedQuery the analysed search term including the market.
+	 * @param source      where to search.
+	 * @param top         number of results.
+	 * @param skip        offset for the starting point of results returned.
+	 *
+	 * @see #doSearch(java.lang.String, java.lang.String, java.lang.String, int,
+	 * int)
+	 */
+	BingResultsContainer<IResult> doSearch(ParsedQuery parsedQuery, String source, int top, int skip) throws MalformedURLException, URISyntaxException, IOException, ParseException;
+
+	/**
+	 * <p>Analyses {@code encodedSearchTerm} once for file types and validates
+	 * {@code market}.
+	 *
+	 * @param encodedSearchTerm the term to analyse.
+	 * @param market            the requested market.
+	 *
+	 * @return the analysed search term.
+	 */
+	ParsedQuery parseQuery(String encodedSearchTerm, String market);
+
 	/**
 	 * @return file types that Bing supports
 	 */
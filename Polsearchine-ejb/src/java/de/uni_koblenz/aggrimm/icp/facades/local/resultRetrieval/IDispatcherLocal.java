@@ -17,6 +17,7 @@
  */
 package de.uni_koblenz.aggrimm.icp.facades.local.resultRetrieval;
 
+import de.uni_koblenz.aggrimm.icp.interfaceAgents.ParsedQuery;
 import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.IResult;
 import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.IResultsContainer;
 import javax.ejb.Local;
@@ -52,4 +53,30 @@ public interface IDispatcherLocal {
 	 * @throws Exception
 	 */
 	IResultsContainer<IResult> doSearch(String encodedSearchTerm, String source, String market, int top, int skip) throws Exception;
+
+	/**
+	 * <p>Same as {@link #doSearch(String, String, String, int, int)} but for a
+	 * search term that has already been analysed by {@link #parseQuery}.
+	 *
+	 * @param parsedQuery the analysed search term including the market.
+	 * @param source      the source to search.
+	 * @param top         the amount of results to return.
+	 * @param skip        the amount of results to skip.
+	 *
+	 * @return {@code IWebResult} if {@code market} is "web"
+	 *          and {@code IImageResult} if market is "image".
+	 * @throws Exception
+	 */
+	IResultsContainer<IResult> doSearch(ParsedQuery parsedQuery, String source, int top, int skip) throws Exception;
+
+	/**
+	 * <p>Analyses {@code searchTerm} once with the currently used search
+	 * engine's known file types and markets.
+	 *
+	 * @param searchTerm the search term.
+	 * @param market     the requested market, may be {@code null}.
+	 *
+	 * @return the analysed search term.
+	 */
+	ParsedQuery parseQuery(String searchTerm, String market);
 }
@@ -32,7 +32,9 @@ import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.IResultsContainer;
 import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.filtered.FilteredImageResult;
 import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.filtered.FilteredWebResult;
 import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.filtered.AbstractFilteredResult;
+import de.uni_koblenz.aggrimm.icp.facades.local.IPolicyGenerationLocal;
 import de.uni_koblenz.aggrimm.icp.facades.local.database.IDatabaseQueryLocal;
+import de.uni_koblenz.aggrimm.icp.policyProcessing.PolicyGeneration;
 import java.util.List;
 import javax.annotation.Resource;
 import javax.ejb.EJB;
@@ -45,6 +47,9 @@ import javax.persistence.NoResultException;
  * method but must be delegated to an implementation of this method for a
  * specific search engine.
  * <p>It also hosts shared methods for constructing filtered results.
+ * <p>As implementations are pooled beans, no state of a parse must be kept in
+ * fields. The {@code PolicyGeneration} a parse works with is passed along
+ * instead.
  *
  * @author mruster
  */
@@ -52,9 +57,10 @@ public abstract class AbstractResultParser {
 
 	@Resource(name = "SEARCH_ENGINE_URI")
 	protected String SEARCH_ENGINE_URI;
-	protected boolean areInformationFlowsAllowed;
 	@EJB
 	protected IDatabaseQueryLocal databaseQueryHelper;
+	@EJB
+	protected IPolicyGenerationLocal policyGenerationHelper;
 
 	/**
 	 * @param resultJSONString result String that has yet to be parsed to JSON.
@@ -75,7 +81,9 @@ public abstract class AbstractResultParser {
 		JSONParser parser = new JSONParser();
 		JSONObject parsedString = (JSONObject) (parser.parse(resultJSONString));
 
-		return convertToResultContainer(parsedString, source, skip);
+		// all results of a page are regulated by the same generation:
+		PolicyGeneration generation = policyGenerationHelper.getCurrentGeneration();
+		return convertToResultContainer(parsedString, source, skip, generation);
 	}
 
 	/**
@@ -101,7 +109,7 @@ public abstract class AbstractResultParser {
 		return (obj == null) ? 0 : Integer.parseInt(obj.toString());
 	}
 
-	protected abstract IResultsContainer<IResult> convertToResultContainer(JSONObject parsedString, String source, int skip);
+	protected abstract IResultsContainer<IResult> convertToResultContainer(JSONObject parsedString, String source, int skip, PolicyGeneration generation);
 
 	/**
 	 *
@@ -139,6 +147,7 @@ public abstract class AbstractResultParser {
 	private AbstractFilteredResult createFilteredResultFromRule(AbstractRuleEntity regulatingRule, boolean isImage) {
 		AbstractFilteredResult filteredResult = chooseFilterResultClass(isImage);
 		PolicyEntity policyEntity = regulatingRule.getPolicy();
+		filteredResult.setRegulatingRuleId(regulatingRule.getId());
 
 		List<ControlledTopicEntity> controlledTopics = regulatingRule.getControlledTopics();
 		filteredResult.setControlledTopics(controlledTopics);
@@ -180,17 +189,18 @@ public abstract class AbstractResultParser {
 	 * {@code FilteredImageResult} or {@code FilteredWebResult} else (depending on
 	 * the value of {@code isImage}).
 	 *
-	 * @param resultURL result that should be displayed or regulated.
-	 * @param isImage   {@code true} if {@code FilteredImageResult} should be
-	 *                   returned, {@code FilteredWebResult} else.
+	 * @param resultURL  result that should be displayed or regulated.
+	 * @param isImage    {@code true} if {@code FilteredImageResult} should be
+	 *                    returned, {@code FilteredWebResult} else.
+	 * @param generation of the policies to regulate with.
 	 *
 	 * @return {@code null} if result must not be filtered;
 	 *          {@code AbstractFilteredResult} with values set else.
 	 */
-	protected AbstractFilteredResult createFilteredResultIfNeeded(String resultURL, boolean isImage) {
+	protected AbstractFilteredResult createFilteredResultIfNeeded(String resultURL, boolean isImage, PolicyGeneration generation) {
 		AbstractFilteredResult result = null;
 		try {
-			AbstractRuleEntity regulatingRule = databaseQueryHelper.getRegulatingRule(resultURL);
+			AbstractRuleEntity regulatingRule = databaseQueryHelper.getRegulatingRule(resultURL, generation);
 			if (regulatingRule == null) {
 				throw new NoResultException();
 			}
@@ -199,7 +209,7 @@ public abstract class AbstractResultParser {
 				result = createFilteredResultFromRule(regulatingRule, isImage);
 			}
 		} catch (NoResultException e) {
-			if (!areInformationFlowsAllowed) {
+			if (!generation.isAllowingDefaultRule()) {
 				result = createFilterResultForDefaultRule(isImage);
 			}
 		}
@@ -26,7 +26,8 @@ import org.json.simple.parser.ParseException;
 
 /**
  * <p>This is the interface for all interface agents. They must implement a
- * {@code doSearch}-method for searching as well as {@code getKNOWN_FILE_TYPES}
+ * {@code doSearch}-method for searching, {@code parseQuery} for analysing
+ * search terms as well as {@code getKNOWN_FILE_TYPES}
  * and {@code getKNOWN_MARKETS} for supported file types and markets.
  *
  * @author mruster
@@ -59,6 +60,33 @@ public interface IRetriever {
 	 */
 	IResultsContainer<IResult> doSearch(String encodedSearchTerm, String source, String market, int top, int skip) throws MalformedURLException, URISyntaxException, IOException, ParseException;
 
+	/**
+	 *
+	 * <p>Returns the results queried for an already analysed search term.
+	 *
+	 * @param parsedQuery the analysed search term including the market, as
+	 *                     returned by {@link #parseQuery(String, String)}.
+	 * @param source      what to search ('image' or 'web').
+	 * @param top         amount of results.
+	 * @param skip        offset for the starting point of results returned.
+	 *
+	 * @see #doSearch(java.lang.String, java.lang.String, java.lang.String, int,
+	 * int)
+	 */
+	IResultsContainer<IResult> doSearch(ParsedQuery parsedQuery, String source, int top, int skip) throws MalformedURLException, URISyntaxException, IOException, ParseException;
+
+	/**
+	 * <p>Analyses the search term once so that neither the file type detection
+	 * nor the query building have to scan it again.
+	 *
+	 * @param encodedSearchTerm the term to analyse.
+	 * @param market            the requested market. Unknown markets are
+	 *                           replaced by the search engine's default.
+	 *
+	 * @return the analysed search term.
+	 */
+	ParsedQuery parseQuery(String encodedSearchTerm, String market);
+
 	/**
 	 * @return file types that the backend search engine supports. If none is
 	 *          supported, an empty array must be returned.
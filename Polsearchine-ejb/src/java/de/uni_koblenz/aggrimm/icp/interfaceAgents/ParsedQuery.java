@@ -0,0 +1,132 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.interfaceAgents;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>Immutable result of analysing a search term once. It contains the single
+ * terms, the file type operator ("filetype:" encoded in RFC 3986) if any, a
+ * bare file type mentioned as a term if any, and the market to search.
+ *
+ * <p>Both the file type detection for the user interface and the interface
+ * agents building the backend query consume this object so that the search
+ * term does not have to be split and scanned repeatedly.
+ *
+ * @see QueryTokenizer
+ *
+ * @author mruster
+ */
+public final class ParsedQuery implements Serializable {
+
+	private static final long serialVersionUID = 6087516873457032846L;
+	private final String query;
+	private final List<String> terms;
+	private final String operatorFileType;
+	private final String backendQuery;
+	private final String bareFileType;
+	private final String bareFileTypeRest;
+	private final String market;
+
+	ParsedQuery(String query, List<String> terms, String operatorFileType, String backendQuery, String bareFileType, String bareFileTypeRest, String market) {
+		this.query = query;
+		this.terms = Collections.unmodifiableList(terms);
+		this.operatorFileType = operatorFileType;
+		this.backendQuery = backendQuery;
+		this.bareFileType = bareFileType;
+		this.bareFileTypeRest = bareFileTypeRest;
+		this.market = market;
+	}
+
+	/**
+	 * @return the search term as it was passed in.
+	 */
+	public String getQuery() {
+		return query;
+	}
+
+	/**
+	 * @return the search term split at every space. Consecutive spaces result
+	 *          in empty terms so that the original can be reassembled.
+	 */
+	public List<String> getTerms() {
+		return terms;
+	}
+
+	/**
+	 * @return {@code true} if the search term contained a known file type after
+	 *          a "filetype:" operator.
+	 */
+	public boolean hasOperatorFileType() {
+		return operatorFileType != null;
+	}
+
+	/**
+	 * @return the known file type following the "filetype:" operator or
+	 *          {@code null} if there was none.
+	 */
+	public String getOperatorFileType() {
+		return operatorFileType;
+	}
+
+	/**
+	 * @return the search term without the "filetype:" operator and its file
+	 *          type. Equal to {@link #getQuery()} if there was no such operator.
+	 */
+	public String getBackendQuery() {
+		return backendQuery;
+	}
+
+	/**
+	 * @return {@code true} if one of the terms was a known file type without
+	 *          being an operator.
+	 */
+	public boolean hasBareFileType() {
+		return bareFileType != null;
+	}
+
+	/**
+	 * @return the known file type used as a term or {@code null} if there was
+	 *          none.
+	 */
+	public String getBareFileType() {
+		return bareFileType;
+	}
+
+	/**
+	 * @return the search term without the bare file type or {@code null} if
+	 *          there was none.
+	 */
+	public String getBareFileTypeRest() {
+		return bareFileTypeRest;
+	}
+
+	/**
+	 * @return a market known to the search engine.
+	 */
+	public String getMarket() {
+		return market;
+	}
+
+	@Override
+	public String toString() {
+		return "ParsedQuery{" + "query=" + query + ", operatorFileType=" + operatorFileType + ", backendQuery=" + backendQuery + ", bareFileType=" + bareFileType + ", market=" + market + '}';
+	}
+}
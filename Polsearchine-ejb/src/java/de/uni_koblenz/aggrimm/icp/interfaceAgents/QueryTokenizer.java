@@ -0,0 +1,171 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.interfaceAgents;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>Analyses search terms in a single pass and creates {@link ParsedQuery}
+ * objects. The known file types and markets of a search engine are turned
+ * into hash lookups once, when the tokenizer is created.
+ *
+ * <p>Instances are immutable and can be shared between threads.
+ *
+ * @author mruster
+ */
+public final class QueryTokenizer {
+
+	/**
+	 * <p>The file type operator as encoded in RFC 3986.
+	 */
+	public static final String FILE_TYPE_OPERATOR = "filetype%3A";
+	/**
+	 * <p>Maps every known file type to its position in the list of known file
+	 * types. Lower positions take precedence when several bare file types are
+	 * found.
+	 */
+	private final Map<String, Integer> fileTypeOrder;
+	private final Set<String> knownMarkets;
+	private final String defaultMarket;
+
+	/**
+	 * @param knownFileTypes upper case file types supported by the backend in
+	 *                        order of precedence.
+	 * @param knownMarkets   markets supported by the backend.
+	 * @param defaultMarket  market to use if an unknown one was requested.
+	 */
+	public QueryTokenizer(String[] knownFileTypes, String[] knownMarkets, String defaultMarket) {
+		fileTypeOrder = new HashMap<>(knownFileTypes.length * 2);
+		for (int i = 0; i < knownFileTypes.length; i++) {
+			if (!fileTypeOrder.containsKey(knownFileTypes[i])) {
+				fileTypeOrder.put(knownFileTypes[i], i);
+			}
+		}
+		this.knownMarkets = new HashSet<>(Arrays.asList(knownMarkets));
+		this.defaultMarket = defaultMarket;
+	}
+
+	/**
+	 * <p>Splits {@code searchTerm} at every space and inspects every term once
+	 * for both the "filetype:" operator and bare file types.
+	 *
+	 * <p>Only the first occurrence of the operator is considered. It is removed
+	 * together with its file type if the file type is known; the text in front
+	 * of the operator and the remaining terms are kept.
+	 *
+	 * <p>A bare file type is only recognised if the search term consists of
+	 * more than one term. If several known file types are used, the one listed
+	 * first in the known file types wins. If it appears multiple times, an
+	 * occurrence at the beginning is preferred over one at the end, which is
+	 * preferred over the first one in between.
+	 *
+	 * @param searchTerm the search term to analyse.
+	 * @param market     the requested market, may be {@code null}.
+	 *
+	 * @return the analysed search term.
+	 */
+	public ParsedQuery parse(String searchTerm, String market) {
+		if (searchTerm == null) {
+			searchTerm = "";
+		}
+		String[] tokens = searchTerm.split(" ", -1);
+		int operatorIndex = -1;
+		int bestOrder = Integer.MAX_VALUE;
+		int firstIndexOfBest = -1;
+		int lastIndexOfBest = -1;
+
+		for (int i = 0; i < tokens.length; i++) {
+			String token = tokens[i];
+			if (operatorIndex == -1 && token.contains(FILE_TYPE_OPERATOR)) {
+				operatorIndex = i;
+			}
+			Integer order = fileTypeOrder.get(token.toUpperCase(Locale.ENGLISH));
+			if (order != null) {
+				if (order < bestOrder) {
+					bestOrder = order;
+					firstIndexOfBest = i;
+					lastIndexOfBest = i;
+				} else if (order == bestOrder) {
+					lastIndexOfBest = i;
+				}
+			}
+		}
+
+		String operatorFileType = null;
+		String backendQuery = searchTerm;
+		if (operatorIndex != -1) {
+			String token = tokens[operatorIndex];
+			int markerPosition = token.indexOf(FILE_TYPE_OPERATOR);
+			String candidate = token.substring(markerPosition + FILE_TYPE_OPERATOR.length()).toUpperCase(Locale.ENGLISH);
+			if (fileTypeOrder.containsKey(candidate)) {
+				operatorFileType = candidate;
+				StringBuilder builder = new StringBuilder(searchTerm.length());
+				appendJoined(builder, tokens, 0, operatorIndex);
+				if (operatorIndex > 0) {
+					builder.append(' ');
+				}
+				builder.append(token, 0, markerPosition);
+				appendJoined(builder, tokens, operatorIndex + 1, tokens.length);
+				backendQuery = builder.toString();
+			}
+		}
+
+		String bareFileType = null;
+		String bareFileTypeRest = null;
+		if (firstIndexOfBest != -1 && tokens.length > 1) {
+			int index;
+			if (firstIndexOfBest == 0) {
+				index = 0;
+			} else if (lastIndexOfBest == tokens.length - 1) {
+				index = lastIndexOfBest;
+			} else {
+				index = firstIndexOfBest;
+			}
+			bareFileType = tokens[index].toUpperCase(Locale.ENGLISH);
+			StringBuilder builder = new StringBuilder(searchTerm.length());
+			appendJoined(builder, tokens, 0, index);
+			if (index > 0 && index < tokens.length - 1) {
+				builder.append(' ');
+			}
+			appendJoined(builder, tokens, index + 1, tokens.length);
+			bareFileTypeRest = builder.toString();
+		}
+
+		List<String> terms = new ArrayList<>(Arrays.asList(tokens));
+		if (market == null || !knownMarkets.contains(market)) {
+			market = defaultMarket;
+		}
+		return new ParsedQuery(searchTerm, terms, operatorFileType, backendQuery, bareFileType, bareFileTypeRest, market);
+	}
+
+	private static void appendJoined(StringBuilder builder, String[] tokens, int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (i > from) {
+				builder.append(' ');
+			}
+			builder.append(tokens[i]);
+		}
+	}
+}
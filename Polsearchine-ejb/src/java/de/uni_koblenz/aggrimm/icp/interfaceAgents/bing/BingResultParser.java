@@ -27,6 +27,7 @@ import de.uni_koblenz.aggrimm.icp.interfaceAgents.bing.results.BingResultsContai
 import de.uni_koblenz.aggrimm.icp.interfaceAgents.bing.results.BingThumbnail;
 import de.uni_koblenz.aggrimm.icp.interfaceAgents.bing.results.BingWebResult;
 import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.IResult;
+import de.uni_koblenz.aggrimm.icp.policyProcessing.PolicyGeneration;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
 
@@ -42,10 +43,11 @@ public class BingResultParser extends AbstractResultParser implements IBingResul
 	}
 
 	/**
-	 * @param o      a parsed Bing bingResult string parsed to a JSONObject.
-	 * @param source from where the results are ("web" or "image").
-	 * @param skip   integer of manually skipped values - needed
-	 *                for {@code isEmpty()}.
+	 * @param o          a parsed Bing bingResult string parsed to a JSONObject.
+	 * @param source     from where the results are ("web" or "image").
+	 * @param skip       integer of manually skipped values - needed
+	 *                    for {@code isEmpty()}.
+	 * @param generation of the policies to regulate the results with.
 	 *
 	 * @return {@code BingResultsContainer} with all extracted BingResults and
 	 *          set {@code resultsTotal} and {@code offset}.
@@ -53,7 +55,7 @@ public class BingResultParser extends AbstractResultParser implements IBingResul
 	 * @throws IllegalArgumentException when {@code source>} is unknown.
 	 */
 	@Override
-	public BingResultsContainer<IUnfilteredResult> convertToResultContainer(JSONObject o, String source, int skip) {
+	public BingResultsContainer<IUnfilteredResult> convertToResultContainer(JSONObject o, String source, int skip, PolicyGeneration generation) {
 		source = Character.toUpperCase(source.charAt(0)) + source.substring(1);
 		o = (JSONObject) o.get("d");
 		JSONArray unwrappedJSONArray = (JSONArray) o.get("results");
@@ -61,19 +63,18 @@ public class BingResultParser extends AbstractResultParser implements IBingResul
 		JSONArray a = (JSONArray) o.get(source);
 
 		BingResultsContainer<IUnfilteredResult> l = new BingResultsContainer<>();
-		areInformationFlowsAllowed = databaseQueryHelper.doesDefaultRuleAllowInformationFlows();
 		switch (source) {
 			case "Web": {
 				for (Object resultObject : a) {
 					JSONObject result = (JSONObject) resultObject;
-					l.add(extractBingWebResult(result));
+					l.add(extractBingWebResult(result, generation));
 				}
 				break;
 			}
 			case "Image": {
 				for (Object resultObject : a) {
 					JSONObject result = (JSONObject) resultObject;
-					l.add(extractBingImageResult(result));
+					l.add(extractBingImageResult(result, generation));
 				}
 				break;
 			}
@@ -90,15 +91,16 @@ public class BingResultParser extends AbstractResultParser implements IBingResul
 	}
 
 	/**
-	 * @param o {@code JSONObject} which contains a JSON encoded
-	 *           {@code BingWebResult}.
+	 * @param o          {@code JSONObject} which contains a JSON encoded
+	 *                    {@code BingWebResult}.
+	 * @param generation of the policies to regulate the result with.
 	 *
 	 * @return {@code BingWebResult} from {@code o}; values can be empty Strings
 	 *          or {@code FilteredWebResult}.
 	 */
-	private IResult extractBingWebResult(JSONObject o) {
+	private IResult extractBingWebResult(JSONObject o, PolicyGeneration generation) {
 		String url = getValue(o, "Url");
-		IResult result = createFilteredResultIfNeeded(url, false);
+		IResult result = createFilteredResultIfNeeded(url, false, generation);
 
 		if (result == null) {
 			BingWebResult bingResult = new BingWebResult();
@@ -113,15 +115,16 @@ public class BingResultParser extends AbstractResultParser implements IBingResul
 	}
 
 	/**
-	 * @param o {@code JSONObject} which contains a JSON encoded
-	 *           {@code BingImageResult}.
+	 * @param o          {@code JSONObject} which contains a JSON encoded
+	 *                    {@code BingImageResult}.
+	 * @param generation of the policies to regulate the result with.
 	 *
 	 * @return {@code BingImageResult} from {@code o}; values can be empty Strings
 	 *          or {@code FilteredImageResult}
 	 */
-	private IResult extractBingImageResult(JSONObject o) {
+	private IResult extractBingImageResult(JSONObject o, PolicyGeneration generation) {
 		String mediaURL = getValue(o, "MediaUrl");
-		IResult result = createFilteredResultIfNeeded(mediaURL, true);
+		IResult result = createFilteredResultIfNeeded(mediaURL, true, generation);
 
 		if (result == null) {
 			BingImageResult bingResult = new BingImageResult();
@@ -18,6 +18,8 @@
 package de.uni_koblenz.aggrimm.icp.interfaceAgents.bing;
 
 import de.uni_koblenz.aggrimm.icp.interfaceAgents.IRetriever;
+import de.uni_koblenz.aggrimm.icp.interfaceAgents.ParsedQuery;
+import de.uni_koblenz.aggrimm.icp.interfaceAgents.QueryTokenizer;
 import de.uni_koblenz.aggrimm.icp.facades.local.resultRetrieval.IBingRetrieverLocal;
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -27,7 +29,6 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
-import java.util.Arrays;
 import java.util.Locale;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -70,7 +71,11 @@ public class BingRetriever implements IBingRetrieverLocal, IRetriever {
 	 * {@link https://skydrive.live.com/view.aspx?resid=9C9479871FBFA822!109&app=Word}
 	 * pages 18-19, on the 14th of April 2013:
 	 */
-	final private String[] KNOWN_FILE_TYPES = {"DOC", "DWF", "FEED", "HTM", "HTML", "PDF", "PPT", "RTF", "TEXT", "TXT", "XLS"};
+	final static private String[] KNOWN_FILE_TYPES = {"DOC", "DWF", "FEED", "HTM", "HTML", "PDF", "PPT", "RTF", "TEXT", "TXT", "XLS"};
+	/**
+	 * <p>Analyses search terms against Bing's known file types and markets.
+	 */
+	final static private QueryTokenizer QUERY_TOKENIZER = new QueryTokenizer(KNOWN_FILE_TYPES, KNOWN_MARKETS, "en-US");
 	private final Logger LOGGER = Logger.getLogger(BingRetriever.class.getCanonicalName());
 
 	/**
@@ -93,6 +98,20 @@ public class BingRetriever implements IBingRetrieverLocal, IRetriever {
 		return result;
 	}
 
+	/**
+	 * <p>Analyses {@code encodedSearchTerm} once for file types and validates
+	 * {@code market}. Unknown markets are replaced by en-US.
+	 *
+	 * @param encodedSearchTerm the term to analyse.
+	 * @param market            the requested market.
+	 *
+	 * @return the analysed search term.
+	 */
+	@Override
+	public ParsedQuery parseQuery(String encodedSearchTerm, String market) {
+		return QUERY_TOKENIZER.parse(encodedSearchTerm, market);
+	}
+
 	/**
 	 *
 	 * <p>Returns the results queried for.
@@ -105,8 +124,7 @@ public class BingRetriever implements IBingRetrieverLocal, IRetriever {
 	 *
 	 * For more details on the parameters, please have a look at:
 	 *
-	 * @see #createBasicQueryString(java.lang.String, java.lang.String,
-	 * java.lang.String, int, int)
+	 * @see #createBasicQueryString(ParsedQuery, java.lang.String, int, int)
 	 *
 	 * @return {@code IWebResult} if {@code market} is "web"
 	 *          and {@code IImageResult} if market is "image" in an
@@ -123,7 +141,24 @@ public class BingRetriever implements IBingRetrieverLocal, IRetriever {
 	 */
 	@Override
 	public BingResultsContainer<IResult> doSearch(String encodedSearchTerm, String source, String market, int top, int skip) throws MalformedURLException, URISyntaxException, IOException, ParseException {
-		String queryString = createBasicQueryString(encodedSearchTerm, source, market, top, skip);
+		return doSearch(parseQuery(encodedSearchTerm, market), source, top, skip);
+	}
+
+	/**
+	 *
+	 * <p>Returns the results queried for.
+	 *
+	 * @param parsedQuery the already analysed search term including the market.
+	 * @param source      where to search.
+	 * @param top         number of results.
+	 * @param skip        offset for the starting point of results returned.
+	 *
+	 * @see #doSearch(java.lang.String, java.lang.String, java.lang.String, int,
+	 * int)
+	 */
+	@Override
+	public BingResultsContainer<IResult> doSearch(ParsedQuery parsedQuery, String source, int top, int skip) throws MalformedURLException, URISyntaxException, IOException, ParseException {
+		String queryString = createBasicQueryString(parsedQuery, source, top, skip);
 		URL query = new URL(queryString);
 		URLConnection queryURLConnection = query.openConnection();
 
@@ -148,7 +183,7 @@ public class BingRetriever implements IBingRetrieverLocal, IRetriever {
 	}
 
 	/**
-	 * <p>Returns the URL for a basic query with {@code input} searching on
+	 * <p>Returns the URL for a basic query with {@code parsedQuery} searching on
 	 * {@code source}.
 	 *
 	 * <p>This methods does not add any further parameters like file type or
@@ -171,23 +206,23 @@ public class BingRetriever implements IBingRetrieverLocal, IRetriever {
 	 * <li>$format=JSON for JSON output instead of Atom for XML output.
 	 * </ul>
 	 *
-	 * @param input  search query that should be processed - must be escaped
-	 *                according to RFC 3986!
-	 * @param source to search, currently only 'image' and 'web' supported.
-	 * @param market to search (bing default is determined by IP, cookies etc.)
-	 * @param skip   amount of results to skip (bing default=0).
-	 * @param top    amount of results to fetch (bing default=50).
+	 * @param parsedQuery the analysed search query - its search term must be
+	 *                     escaped according to RFC 3986! A known file type
+	 *                     following "filetype:" is passed as WebFileType.
+	 * @param source      to search, currently only 'image' and 'web' supported.
+	 * @param skip        amount of results to skip (bing default=0).
+	 * @param top         amount of results to fetch (bing default=50).
 	 *
-	 * @throws MalformedURLException    if {@code input} couldn't be used for a
+	 * @throws MalformedURLException    if the search term couldn't be used for a
 	 *                                   correct URI.
-	 * @throws URISyntaxException       if {@code input} couldn't be used for a
+	 * @throws URISyntaxException       if the search term couldn't be used for a
 	 *                                   correct URI.
 	 * @throws IllegalArgumentException if {@code source} was unknown or
 	 *                                   {@code top} or {@code skip} were out of a
 	 *                                   logical range.
 	 * @return the most basic Bing query URL without any further parameters.
 	 */
-	private String createBasicQueryString(String input, String source, String market, int top, int skip) throws MalformedURLException, URISyntaxException {
+	private String createBasicQueryString(ParsedQuery parsedQuery, String source, int top, int skip) throws MalformedURLException, URISyntaxException {
 		source = source.toLowerCase(Locale.ENGLISH);
 		switch (source) {
 			case "web":
@@ -200,40 +235,18 @@ public class BingRetriever implements IBingRetrieverLocal, IRetriever {
 			throw new IllegalArgumentException("top, skip or both were outside of a logical range: top=" + top + ", skip=" + skip);
 		}
 
-		String webFileType = "";
-		String[] fileTypeInputSplit = input.split("filetype%3A", 2); // split at first found filetype
-		if (fileTypeInputSplit.length == 2) { // contains "filetype:" encoded in RFC 3986
-			String inputBeforeFiletype = fileTypeInputSplit[0];
-			// The second array element will contain the trailing string, which might
-			// start with a file type. Therefore, it is being split at the first space:
-			fileTypeInputSplit = fileTypeInputSplit[1].split(" ", 2);
-			// The first array element will now contain either a possible file type
-			// or the whole trailing string (which can still be a file type):
-			fileTypeInputSplit[0] = fileTypeInputSplit[0].toUpperCase(Locale.ENGLISH);
-			if (Arrays.asList(KNOWN_FILE_TYPES).contains(fileTypeInputSplit[0])) { // is known file type
-				webFileType = fileTypeInputSplit[0];
-				input = inputBeforeFiletype;
-				if (fileTypeInputSplit.length == 2) {
-					input += fileTypeInputSplit[1]; // add trailing search input if any
-				}
-				System.err.println(webFileType + "\n" + input);
-			}
-		}
-		URI uri = new URI("https", "api.datamarket.azure.com", "/Bing/Search/v1/Composite", "Query='" + input, null);
+		URI uri = new URI("https", "api.datamarket.azure.com", "/Bing/Search/v1/Composite", "Query='" + parsedQuery.getBackendQuery(), null);
 		// add the Apostrophes as RFC 3986 encoded Strings manually because
 		// otherwise the URI creation would have handled them wrong.
 		String encodedStringURI = uri.toASCIIString().replaceFirst("'", "%27") + "%27";
 		// now we add our options:
-		if (!"".equals(webFileType)) {
-			encodedStringURI += createParameter("WebFileType", webFileType, true);
-		}
-		if (!Arrays.asList(KNOWN_MARKETS).contains(market)) {
-			market = "en-US"; //set default market if parameter value is unknown
+		if (parsedQuery.hasOperatorFileType()) {
+			encodedStringURI += createParameter("WebFileType", parsedQuery.getOperatorFileType(), true);
 		}
 		encodedStringURI += createParameter("Sources", source, true);
 		encodedStringURI += createParameter("WebSearchOptions", "DisableQueryAlterations%2BDisableHostCollapsing", true);
 		encodedStringURI += createParameter("Adult", "Off", true);
-		encodedStringURI += createParameter("Market", market, true);
+		encodedStringURI += createParameter("Market", parsedQuery.getMarket(), true);
 		encodedStringURI += createParameter("top", top, false);
 		encodedStringURI += createParameter("skip", skip, false);
 		encodedStringURI += createParameter("format", "JSON", false);
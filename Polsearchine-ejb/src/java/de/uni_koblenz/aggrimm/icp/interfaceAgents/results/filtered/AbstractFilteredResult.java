@@ -37,6 +37,7 @@ public abstract class AbstractFilteredResult implements IResult, Serializable {
 	private List<OrganizationalMotivationEntity> organizationalMotivations;
 	private RuleDataProviderEntity ruleDataProvider;
 	private List<ControlledTopicEntity> controlledTopics;
+	private Long regulatingRuleId;
 
 	public List<LegalAuthorizationEntity> getLegalAuthorizations() {
 		return legalAuthorizations;
@@ -69,4 +70,16 @@ public abstract class AbstractFilteredResult implements IResult, Serializable {
 	public void setControlledTopics(List<ControlledTopicEntity> controlledTopics) {
 		this.controlledTopics = controlledTopics;
 	}
+
+	/**
+	 * @return identifier of the rule that caused this result to be filtered or
+	 *          {@code null} if it was filtered by the default rule.
+	 */
+	public Long getRegulatingRuleId() {
+		return regulatingRuleId;
+	}
+
+	public void setRegulatingRuleId(Long regulatingRuleId) {
+		this.regulatingRuleId = regulatingRuleId;
+	}
 }
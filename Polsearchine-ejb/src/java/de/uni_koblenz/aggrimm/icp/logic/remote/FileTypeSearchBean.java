@@ -17,10 +17,10 @@
  */
 package de.uni_koblenz.aggrimm.icp.logic.remote;
 
-import de.uni_koblenz.aggrimm.icp.facades.remote.ISearchEngineVariablesRemote;
+import de.uni_koblenz.aggrimm.icp.facades.local.resultRetrieval.IDispatcherLocal;
 import de.uni_koblenz.aggrimm.icp.facades.remote.IFileTypeSearchBeanRemote;
+import de.uni_koblenz.aggrimm.icp.interfaceAgents.ParsedQuery;
 import de.uni_koblenz.aggrimm.icp.logic.resultClasses.FileTypeResult;
-import java.util.Locale;
 import javax.ejb.EJB;
 import javax.ejb.Stateless;
 
@@ -34,7 +34,7 @@ import javax.ejb.Stateless;
 public class FileTypeSearchBean implements IFileTypeSearchBeanRemote {
 
 	@EJB
-	private ISearchEngineVariablesRemote searchEngineVariablesRemote;
+	private IDispatcherLocal dispatcher;
 
 	/**
 	 * <p>Checks if there is a known file type in the search query. If so,
@@ -48,30 +48,9 @@ public class FileTypeSearchBean implements IFileTypeSearchBeanRemote {
 	 */
 	@Override
 	public FileTypeResult findKnownFileTypeIfAny(String searchTerm) {
-		String searchTermUpper = searchTerm.toUpperCase(Locale.ENGLISH);
-		String searchTermRest = "";
-		boolean found = false;
-
-		for (String fileType : searchEngineVariablesRemote.getKnownFileTypes()) {
-			if (searchTermUpper.startsWith(fileType + ' ')) { // beginning
-				found = true;
-				searchTermRest = searchTerm.substring(fileType.length() + 1);
-			} else if (searchTermUpper.endsWith(' ' + fileType)) { // end
-				found = true;
-				int fileTypeStartPosition = searchTerm.length() - fileType.length() - 1;
-				searchTermRest = searchTerm.substring(0, fileTypeStartPosition);
-			} else {
-				String fileTypeWithSpaces = ' ' + fileType + ' ';
-				if (searchTermUpper.contains(fileTypeWithSpaces)) { // in between
-					found = true;
-					int fileTypePosition = searchTermUpper.indexOf(fileTypeWithSpaces);
-					int fileTypeEndPosition = fileTypePosition + fileTypeWithSpaces.length(); // fileTypePosition + 4
-					searchTermRest = searchTerm.substring(0, fileTypePosition) + ' ' + searchTerm.substring(fileTypeEndPosition);
-				}
-			}
-			if (found) {
-				return new FileTypeResult(fileType, searchTermRest);
-			}
+		ParsedQuery parsedQuery = dispatcher.parseQuery(searchTerm, null);
+		if (parsedQuery.hasBareFileType()) {
+			return new FileTypeResult(parsedQuery.getBareFileType(), parsedQuery.getBareFileTypeRest());
 		}
 
 		return new FileTypeResult();
@@ -18,22 +18,30 @@
 package de.uni_koblenz.aggrimm.icp.logic.remote;
 
 import de.uni_koblenz.aggrimm.icp.facades.remote.IPolicyIOBeanRemote;
+import de.uni_koblenz.aggrimm.icp.policyProcessing.PolicyFileHashes;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Resource;
 import javax.ejb.ConcurrencyManagement;
 import javax.ejb.ConcurrencyManagementType;
-import javax.ejb.Lock;
-import javax.ejb.LockType;
 import javax.ejb.Singleton;
 import javax.faces.bean.ManagedProperty;
 
@@ -44,10 +52,15 @@ import javax.faces.bean.ManagedProperty;
  * disk. It is declared Singleton to prevent race conditions which would end up
  * in nasty misbehaviour with IO-actions.
  *
+ * <p>The stored policies are kept in an index which is replaced as a whole
+ * whenever {@code OWL_PATH} has been rescanned. Thus, listing them neither
+ * touches the disk nor waits for a lock. Methods that modify files or the
+ * index are synchronized instead.
+ *
  * @author mruster
  */
 @Singleton
-@ConcurrencyManagement(ConcurrencyManagementType.CONTAINER)
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
 public class PolicyIOBean implements IPolicyIOBeanRemote, Serializable {
 
 	private static final long serialVersionUID = 6598040698839924489L;
@@ -57,6 +70,12 @@ public class PolicyIOBean implements IPolicyIOBeanRemote, Serializable {
 	private String POLICY_FILE_EXTENSION;
 	@ManagedProperty(value = "#{param.fileName}")
 	private final static Logger LOGGER = Logger.getLogger(PolicyIOBean.class.getCanonicalName());
+	private final PolicyFileHashes policyFileHashes = new PolicyFileHashes();
+	/**
+	 * <p>Stored policies as of the last rescan. {@code null} until
+	 * {@code OWL_PATH} has been scanned for the first time.
+	 */
+	private volatile PolicyIndex policyIndex;
 
 	/**
 	 * <p>Obtains a file and creates it if possible under {@code OWL_PATH}.
@@ -78,8 +97,7 @@ public class PolicyIOBean implements IPolicyIOBeanRemote, Serializable {
 	 * @throws IOException if there was a problem while trying to write the file.
 	 */
 	@Override
-	@Lock(LockType.WRITE)
-	public byte uploadFile(String fileContent, String fileName) throws IOException {
+	public synchronized byte uploadFile(String fileContent, String fileName) throws IOException {
 		OutputStream persistentContent = null;
 		try {
 			String[] uploadFileName = splitAtExtension(fileName);
@@ -100,6 +118,9 @@ public class PolicyIOBean implements IPolicyIOBeanRemote, Serializable {
 				 }
 				 */
 				LOGGER.log(Level.INFO, "{0} uploaded.", persistentFileName);
+				persistentContent.close();
+				persistentContent = null;
+				rescanQuietly();
 				return (byte) 201; // Created - successfully created.
 			}
 		} catch (FileNotFoundException fne) {
@@ -117,22 +138,122 @@ public class PolicyIOBean implements IPolicyIOBeanRemote, Serializable {
 		}
 	}
 
+	/**
+	 * <p>Moves a temporary file that has been uploaded into {@code OWL_PATH}
+	 * to a policy file name. The move is atomic, so a policy file is either
+	 * complete or does not exist at all. Neither the file's content nor its
+	 * size affect the memory used.
+	 *
+	 * <p>If a stored policy has the same SHA-256, the temporary file is deleted
+	 * instead, so that the same policy is not stored twice.
+	 *
+	 * @see #uploadFile(java.lang.String, java.lang.String)
+	 * @param temporaryFileName name of the temporary file within
+	 *                           {@code OWL_PATH}. It must start with
+	 *                           {@code UPLOAD_FILE_PREFIX} and end with
+	 *                           {@code UPLOAD_FILE_SUFFIX}.
+	 * @param fileName          the name the file SHOULD have.
+	 * @param checksum          hex encoded SHA-256 of the file's content
+	 *                           computed while uploading. May be {@code null}
+	 *                           to store the file in any case.
+	 *
+	 * @return byte values that represent HTTP status codes. 201 if created
+	 *          successfully, 200 if an identical policy is stored already, 400
+	 *          if a file name could not be read and 404 if the temporary file
+	 *          was not found.
+	 * @throws IOException if the file could not be moved or deleted.
+	 */
+	@Override
+	public synchronized byte storeUploadedFile(String temporaryFileName, String fileName, String checksum) throws IOException {
+		String[] uploadFileName = splitAtExtension(fileName);
+		if (uploadFileName.length != 2
+				|| temporaryFileName.contains(File.separator)
+				|| !temporaryFileName.startsWith(UPLOAD_FILE_PREFIX)
+				|| !temporaryFileName.endsWith(UPLOAD_FILE_SUFFIX)) {
+			return (byte) 400; // Bad request - file name could not be read
+		}
+		Path temporaryFile = Paths.get(OWL_PATH, temporaryFileName);
+		String storedPolicy = findStoredPolicy(checksum);
+		if (storedPolicy != null) {
+			if (!Files.deleteIfExists(temporaryFile)) {
+				LOGGER.log(Level.INFO, "Uploaded file not found: {0}", temporaryFileName);
+				return (byte) 404; // File not found - maybe hacking, maybe just an error
+			}
+			LOGGER.log(Level.INFO, "{0} not stored because {1} has the same content.", new Object[]{fileName, storedPolicy});
+			return (byte) 200; // OK - nothing to create
+		}
+		String persistentFileName = getAvailableFileName(uploadFileName[0]) + '.' + POLICY_FILE_EXTENSION;
+		try {
+			Files.move(temporaryFile, Paths.get(OWL_PATH, persistentFileName), StandardCopyOption.ATOMIC_MOVE);
+		} catch (NoSuchFileException nsfe) {
+			LOGGER.log(Level.INFO, "Uploaded file not found: {0}", temporaryFileName);
+			return (byte) 404; // File not found - maybe hacking, maybe just an error
+		}
+		LOGGER.log(Level.INFO, "{0} uploaded (SHA-256: {1}).", new Object[]{persistentFileName, checksum});
+		rescanQuietly();
+		return (byte) 201; // Created - successfully created.
+	}
+
+	/**
+	 * @param checksum hex encoded SHA-256 or {@code null}.
+	 *
+	 * @return path of a stored policy with {@code checksum} as SHA-256 or
+	 *          {@code null} if there is none.
+	 */
+	private String findStoredPolicy(String checksum) {
+		if (checksum == null) {
+			return null;
+		}
+		PolicyIndex index = policyIndex;
+		if (index == null) {
+			index = rescanQuietly();
+		}
+		for (Map.Entry<String, String> storedPolicy : index.hashes.entrySet()) {
+			if (checksum.equalsIgnoreCase(storedPolicy.getValue())) {
+				return storedPolicy.getKey();
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * <p>This method returns policies that are stored within {@code OWL_PATH},
 	 * have {@code POLICY_FILE_EXTENSION} as extension, are all lower case and
 	 * don't contain any spaces.
 	 *
+	 * <p>The policies are taken from the index. Files that have been modified
+	 * by others than this bean are listed once {@code OWL_PATH} has been
+	 * rescanned.
+	 *
+	 * @see #rescanStoredPolicies()
 	 * @return {@code ArrayList} of {@code File}s which match the formerly
 	 *         mentioned conditions.The files are alphabetically sorted by file
 	 *         name.
 	 */
 	@Override
-	@Lock(LockType.READ)
 	public ArrayList<File> getStoredPolicies() {
+		PolicyIndex index = policyIndex;
+		if (index == null) {
+			index = rescanQuietly();
+		}
+		return new ArrayList<>(index.files);
+	}
+
+	/**
+	 * <p>Scans {@code OWL_PATH} for policies as described in
+	 * {@link #getStoredPolicies()} and updates the index. Only files whose size
+	 * or last modification time changed are hashed again.
+	 *
+	 * @return unmodifiable map of the policies' absolute paths to their SHA-256
+	 *          hashes. It iterates in the order of {@link #getStoredPolicies()}.
+	 * @throws IOException if a policy could not be read.
+	 */
+	@Override
+	public synchronized Map<String, String> rescanStoredPolicies() throws IOException {
 		File dir = new File(OWL_PATH);
 		assert (dir.isDirectory());
 
-		ArrayList<File> result = new ArrayList<>();
+		ArrayList<File> files = new ArrayList<>();
 		File[] content = dir.listFiles();
 		Arrays.sort(content);
 		for (final File file : content) {
@@ -141,12 +262,37 @@ public class PolicyIOBean implements IPolicyIOBeanRemote, Serializable {
 				if (!fileName.contains(" ")) {
 					String fileNameLowerCase = fileName.toLowerCase(Locale.ENGLISH);
 					if (fileName.equals(fileNameLowerCase)) {
-						result.add(file);
+						files.add(file);
 					}
 				}
 			}
 		}
-		return result;
+		Map<String, String> hashes = policyFileHashes.update(files);
+		Map<String, String> sortedHashes = new LinkedHashMap<>(files.size() * 2);
+		for (File file : files) {
+			sortedHashes.put(file.getAbsolutePath(), hashes.get(file.getAbsolutePath()));
+		}
+		PolicyIndex index = new PolicyIndex(files, sortedHashes);
+		policyIndex = index;
+		return index.hashes;
+	}
+
+	/**
+	 * <p>Same as {@link #rescanStoredPolicies()} but keeps the former index if
+	 * a policy could not be read.
+	 *
+	 * @return the current index.
+	 */
+	private synchronized PolicyIndex rescanQuietly() {
+		try {
+			rescanStoredPolicies();
+		} catch (IOException ex) {
+			LOGGER.log(Level.WARNING, "The stored policies could not be rescanned.", ex);
+			if (policyIndex == null) {
+				return new PolicyIndex(new ArrayList<File>(0), new LinkedHashMap<String, String>(0));
+			}
+		}
+		return policyIndex;
 	}
 
 	/**
@@ -159,14 +305,14 @@ public class PolicyIOBean implements IPolicyIOBeanRemote, Serializable {
 	 *          invalid.
 	 */
 	@Override
-	@Lock(LockType.WRITE)
-	public boolean deletePolicy(String policyFileName) {
+	public synchronized boolean deletePolicy(String policyFileName) {
 		if (!policyFileName.contains(File.separator)) {
 			if (hasExtension(new File(policyFileName), POLICY_FILE_EXTENSION)) {
 				File f = new File(OWL_PATH + File.separator + policyFileName);
 				boolean isDeleted = f.delete();
 				if (isDeleted) {
 					LOGGER.log(Level.INFO, "{0} deleted.", policyFileName);
+					rescanQuietly();
 				} else {
 					LOGGER.log(Level.WARNING, "{0} could not be deleted", policyFileName);
 				}
@@ -244,4 +390,18 @@ public class PolicyIOBean implements IPolicyIOBeanRemote, Serializable {
 		}
 		return (fileName + i);
 	}
+
+	/**
+	 * <p>Immutable snapshot of the stored policies.
+	 */
+	private static final class PolicyIndex {
+
+		private final List<File> files;
+		private final Map<String, String> hashes;
+
+		PolicyIndex(List<File> files, Map<String, String> hashes) {
+			this.files = Collections.unmodifiableList(files);
+			this.hashes = Collections.unmodifiableMap(hashes);
+		}
+	}
 }
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.logic.remote;
+
+import de.uni_koblenz.aggrimm.icp.facades.local.IPolicyFileParserLocal;
+import de.uni_koblenz.aggrimm.icp.facades.local.IPolicyProcessingLocal;
+import de.uni_koblenz.aggrimm.icp.facades.remote.IPolicyIOBeanRemote;
+import de.uni_koblenz.aggrimm.icp.facades.remote.IPolicyImportBeanRemote;
+import de.uni_koblenz.aggrimm.icp.logic.resultClasses.PolicyImportResult;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.EJB;
+import javax.ejb.Lock;
+import javax.ejb.LockType;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.xml.bind.DatatypeConverter;
+
+/**
+ * <p>Bean for importing archives of policy files.
+ *
+ * <p>Entries are streamed one after another into temporary files within
+ * {@code OWL_PATH}. Each of them is validated asynchronously as soon as it has
+ * been extracted. Valid files are stored by {@code PolicyIOBean} and the
+ * policies are processed once after all files have been stored. Automatic
+ * reloads are paused meanwhile. It is declared Singleton so that imports never
+ * overlap.
+ *
+ * @author mruster
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.CONTAINER)
+public class PolicyImportBean implements IPolicyImportBeanRemote, Serializable {
+
+	private static final long serialVersionUID = -5160737432466391851L;
+	private static final int EXTRACT_BUFFER_SIZE = 8192;
+	private final static Logger LOGGER = Logger.getLogger(PolicyImportBean.class.getCanonicalName());
+	@Resource(name = "OWL_PATH")
+	private String OWL_PATH;
+	@Resource(name = "POLICY_FILE_EXTENSION")
+	private String POLICY_FILE_EXTENSION;
+	@Resource(name = "POLICY_IMPORT_MAX_ENTRIES")
+	private Integer POLICY_IMPORT_MAX_ENTRIES;
+	@Resource(name = "POLICY_IMPORT_MAX_ENTRY_BYTES")
+	private Long POLICY_IMPORT_MAX_ENTRY_BYTES;
+	@Resource(name = "POLICY_IMPORT_MAX_TOTAL_BYTES")
+	private Long POLICY_IMPORT_MAX_TOTAL_BYTES;
+	@EJB
+	private IPolicyIOBeanRemote policyIOBeanFacade;
+	@EJB
+	private IPolicyProcessingLocal policyProcessingHelper;
+	@EJB
+	private IPolicyFileParserLocal policyFileParser;
+
+	/**
+	 * <p>Imports all policy files of a zip archive that has been uploaded into
+	 * {@code OWL_PATH}. Entries without {@code POLICY_FILE_EXTENSION} are
+	 * rejected. Directories within the archive are ignored, so that only the
+	 * entries' file names are used.
+	 *
+	 * <p>The whole archive is rejected if it has more entries than
+	 * {@code POLICY_IMPORT_MAX_ENTRIES} or if it extracts to more bytes than
+	 * {@code POLICY_IMPORT_MAX_ENTRY_BYTES} for one entry or
+	 * {@code POLICY_IMPORT_MAX_TOTAL_BYTES} for all entries. The bytes are
+	 * counted while extracting, so the sizes stated by the archive do not
+	 * matter.
+	 *
+	 * <p>No transaction is used here, because extracting and validating many
+	 * files may take longer than a transaction is allowed to. The reload at the
+	 * end uses its own transaction.
+	 *
+	 * @param temporaryFileName name of the uploaded archive within
+	 *                           {@code OWL_PATH}. It is deleted afterwards.
+	 *
+	 * @return per-file outcome and timing of the import.
+	 * @throws ZipException if the archive exceeds a limit. Nothing has been
+	 *                      stored then.
+	 * @throws IOException  if the archive could not be read.
+	 */
+	@Override
+	@Lock(LockType.WRITE)
+	@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+	public PolicyImportResult importPolicyArchive(String temporaryFileName) throws IOException {
+		if (temporaryFileName.contains(File.separator)
+				|| !temporaryFileName.startsWith(IPolicyIOBeanRemote.UPLOAD_FILE_PREFIX)
+				|| !temporaryFileName.endsWith(IPolicyIOBeanRemote.UPLOAD_FILE_SUFFIX)) {
+			throw new IllegalArgumentException("Not an uploaded archive: " + temporaryFileName);
+		}
+		long start = System.currentTimeMillis();
+		Path archive = Paths.get(OWL_PATH, temporaryFileName);
+		PolicyImportResult result = new PolicyImportResult();
+		List<ExtractedFile> extractedFiles = new ArrayList<>();
+
+		policyProcessingHelper.pauseReloads();
+		try {
+			try {
+				extractAll(archive, result, extractedFiles);
+				for (ExtractedFile extractedFile : extractedFiles) {
+					result.addFileResult(store(extractedFile));
+				}
+			} finally { // remove everything that has not been stored:
+				for (ExtractedFile extractedFile : extractedFiles) {
+					if (extractedFile.validation != null) {
+						extractedFile.validation.cancel(true);
+					}
+					deleteQuietly(extractedFile.temporaryFile);
+				}
+				deleteQuietly(archive);
+			}
+
+			if (result.getImportedCount() > 0) {
+				result.setReloaded(policyProcessingHelper.reloadChangedPolicies());
+			}
+		} finally {
+			policyProcessingHelper.resumeReloads();
+		}
+		result.setDurationMillis(System.currentTimeMillis() - start);
+		LOGGER.log(Level.INFO, "Imported {0} of {1} policy files in {2} ms.",
+							 new Object[]{result.getImportedCount(), result.getFileResults().size(), result.getDurationMillis()});
+		return result;
+	}
+
+	/**
+	 * <p>Extracts every policy file of {@code archive} and starts validating
+	 * it. Rejected entries are added to {@code result}.
+	 *
+	 * @param extractedFiles receives the extracted files, even if a limit is
+	 *                       exceeded, so that they can be deleted.
+	 *
+	 * @throws ZipException if the archive exceeds a limit.
+	 * @throws IOException  if the archive could not be read.
+	 */
+	private void extractAll(Path archive, PolicyImportResult result, List<ExtractedFile> extractedFiles) throws IOException {
+		int maxEntries = POLICY_IMPORT_MAX_ENTRIES == null ? Integer.MAX_VALUE : POLICY_IMPORT_MAX_ENTRIES;
+		long maxEntryBytes = POLICY_IMPORT_MAX_ENTRY_BYTES == null ? Long.MAX_VALUE : POLICY_IMPORT_MAX_ENTRY_BYTES;
+		long remainingBytes = POLICY_IMPORT_MAX_TOTAL_BYTES == null ? Long.MAX_VALUE : POLICY_IMPORT_MAX_TOTAL_BYTES;
+		int entryCount = 0;
+
+		try (ZipInputStream entries = new ZipInputStream(Files.newInputStream(archive))) {
+			ZipEntry entry;
+			while ((entry = entries.getNextEntry()) != null) {
+				if (++entryCount > maxEntries) {
+					throw new ZipException("The archive contains more than " + maxEntries + " entries.");
+				}
+				if (entry.isDirectory()) {
+					continue;
+				}
+				long entryStart = System.currentTimeMillis();
+				String entryName = getFileName(entry.getName());
+				if (!hasPolicyFileExtension(entryName)) {
+					result.addFileResult(new PolicyImportResult.FileResult(entryName, 0, "Not a ." + POLICY_FILE_EXTENSION + " file."));
+					continue;
+				}
+				ExtractedFile extractedFile = new ExtractedFile(entryName);
+				extractedFiles.add(extractedFile);
+				long maxBytes = Math.min(maxEntryBytes, remainingBytes);
+				long extractedBytes = extractedFile.extract(entries, maxBytes);
+				if (extractedBytes > maxBytes) {
+					throw new ZipException(maxBytes == maxEntryBytes
+									? entryName + " extracts to more than " + maxEntryBytes + " bytes."
+									: "The archive extracts to more than " + POLICY_IMPORT_MAX_TOTAL_BYTES + " bytes.");
+				}
+				remainingBytes -= extractedBytes;
+				extractedFile.extractMillis = System.currentTimeMillis() - entryStart;
+				extractedFile.validationStart = System.currentTimeMillis();
+				extractedFile.validation = policyFileParser.validateFile(extractedFile.temporaryFile.toUri().toASCIIString());
+			}
+		}
+	}
+
+	/**
+	 * <p>Waits for {@code extractedFile}'s validation and stores it if it is
+	 * valid.
+	 *
+	 * @return outcome of {@code extractedFile}. Validating or storing it failed
+	 *          if it states a failure.
+	 */
+	private PolicyImportResult.FileResult store(ExtractedFile extractedFile) {
+		String failure;
+		try {
+			failure = extractedFile.validation.get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			failure = "Interrupted while validating.";
+		} catch (ExecutionException ex) {
+			failure = "Validation failed: " + ex.getCause();
+		}
+		long storeStart = System.currentTimeMillis();
+		long validationMillis = storeStart - extractedFile.validationStart;
+		if (failure == null) {
+			try {
+				byte httpStatusCode = policyIOBeanFacade.storeUploadedFile(extractedFile.temporaryFile.getFileName().toString(), extractedFile.entryName, extractedFile.checksum);
+				if (httpStatusCode == (byte) 200) {
+					failure = "A stored policy has the same content.";
+				} else if (httpStatusCode != (byte) 201) {
+					failure = "File could not be stored (" + (httpStatusCode & 0xFF) + ").";
+				}
+			} catch (IOException ex) {
+				LOGGER.log(Level.WARNING, "Could not store " + extractedFile.entryName, ex);
+				failure = "File could not be stored: " + ex.getMessage();
+			}
+		}
+		long durationMillis = extractedFile.extractMillis + validationMillis + System.currentTimeMillis() - storeStart;
+		if (failure != null) {
+			LOGGER.log(Level.INFO, "{0} was not imported: {1}", new Object[]{extractedFile.entryName, failure});
+		}
+		return new PolicyImportResult.FileResult(extractedFile.entryName, durationMillis, failure);
+	}
+
+	/**
+	 * @param entryName path of an archive entry.
+	 *
+	 * @return the entry's name without any directories.
+	 */
+	private static String getFileName(String entryName) {
+		return entryName.substring(Math.max(entryName.lastIndexOf('/'), entryName.lastIndexOf('\\')) + 1);
+	}
+
+	private boolean hasPolicyFileExtension(String fileName) {
+		int dotPosition = fileName.lastIndexOf('.');
+		return dotPosition > 0
+					 && POLICY_FILE_EXTENSION.equals(fileName.substring(dotPosition + 1).toLowerCase(Locale.ENGLISH));
+	}
+
+	/**
+	 * @param file to delete if it still exists. May be {@code null}.
+	 */
+	private static void deleteQuietly(Path file) {
+		if (file == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException ioe) {
+			LOGGER.log(Level.WARNING, "Temporary import file could not be deleted: {0}", file);
+		}
+	}
+
+	/**
+	 * <p>An archive entry that has been extracted into a temporary file.
+	 */
+	private class ExtractedFile {
+
+		private final String entryName;
+		private Path temporaryFile;
+		private String checksum;
+		private long extractMillis;
+		private long validationStart;
+		private Future<String> validation;
+
+		ExtractedFile(String entryName) {
+			this.entryName = entryName;
+		}
+
+		/**
+		 * <p>Copies the current entry of {@code entries} in chunks into a new
+		 * temporary file and computes its SHA-256 on the fly. Copying stops as
+		 * soon as more than {@code maxBytes} have been read.
+		 *
+		 * @return amount of bytes copied. It exceeds {@code maxBytes} if the
+		 *          entry is too large. The file is incomplete then.
+		 */
+		long extract(ZipInputStream entries, long maxBytes) throws IOException {
+			MessageDigest digest;
+			try {
+				digest = MessageDigest.getInstance("SHA-256");
+			} catch (NoSuchAlgorithmException ex) {
+				throw new IllegalStateException("SHA-256 is not supported by this JVM.", ex);
+			}
+			temporaryFile = Files.createTempFile(Paths.get(OWL_PATH), IPolicyIOBeanRemote.UPLOAD_FILE_PREFIX, IPolicyIOBeanRemote.UPLOAD_FILE_SUFFIX);
+			long copiedBytes = 0;
+			// the entry must not be closed as this would close the whole archive:
+			InputStream in = new DigestInputStream(entries, digest);
+			try (OutputStream out = Files.newOutputStream(temporaryFile)) {
+				final byte[] buffer = new byte[EXTRACT_BUFFER_SIZE];
+				int read;
+				while (copiedBytes <= maxBytes && (read = in.read(buffer)) != -1) {
+					out.write(buffer, 0, read);
+					copiedBytes += read;
+				}
+			}
+			checksum = DatatypeConverter.printHexBinary(digest.digest());
+			return copiedBytes;
+		}
+	}
+}
@@ -20,9 +20,9 @@ package de.uni_koblenz.aggrimm.icp.policyProcessing;
 import de.uni_koblenz.aggrimm.icp.facades.local.ICleanupLocal;
 import de.uni_koblenz.aggrimm.icp.policyProcessing.algorithmProcessors.prioritisation.wrappers.PrioritisedRule;
 import de.uni_koblenz.aggrimm.icp.policyProcessing.inFOParser.SharedMethods;
-import de.uni_koblenz.aggrimm.icp.policyProcessing.inFOParser.externTypes.SEFCOURLContentType;
-import de.uni_koblenz.aggrimm.icp.info.parser.utils.IExternType;
 import java.io.Serializable;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.logging.Logger;
@@ -45,6 +45,13 @@ public class CleanupBean implements Serializable, ICleanupLocal {
 	 * flow the same way are being detected and removed by this method. The list
 	 * <b>must be</b> free of conflicts. Only the most general rules will be kept.
 	 *
+	 * <p>Rules are visited in list order. Every rule removes the following rules
+	 * that it contains and is removed itself if a following {@code WEB_SITE}
+	 * rule contains it. The following rules are kept in a {@code RegionTrie} so
+	 * that every rule is only compared to the rules along its region's path.
+	 *
+	 * @see CompiledRuleTable
+	 *
 	 * <p>Only the first region will be used!
 	 *
 	 * @see
@@ -56,44 +63,58 @@ public class CleanupBean implements Serializable, ICleanupLocal {
 	 *          general ones).
 	 */
 	public static List<PrioritisedRule> getOverlappingFreeRules(List<PrioritisedRule> ruleGroup) {
-		for (int i = 0; i < ruleGroup.size(); i++) {
-			PrioritisedRule referenceRule = ruleGroup.get(i);
-			String referenceURI = SharedMethods.getFlowControlRuleMethodRegion(referenceRule);
-			IExternType referenceContent = referenceRule.getContent().getInformationObject().getExternType();
-			boolean shouldReferenceRuleBeAdded = true;
-
-			for (int j = i + 1; j < ruleGroup.size(); j++) {
-				PrioritisedRule currentRule = ruleGroup.get(j);
-				String currentURI = SharedMethods.getFlowControlRuleMethodRegion(currentRule);
-				IExternType currentContent = currentRule.getContent().getInformationObject().getExternType();
-				boolean shouldCurrentRuleBeAdded = true;
-
-				if (referenceContent.equals(SEFCOURLContentType.WEB_SITE)) {
-					if (currentURI.startsWith(referenceURI)) {
-						shouldCurrentRuleBeAdded = false;
-					}
-				}
-				if (shouldCurrentRuleBeAdded) {
-					if (currentContent.equals(SEFCOURLContentType.WEB_SITE)) {
-						if (referenceURI.startsWith(currentURI)) {
-							shouldReferenceRuleBeAdded = false;
-						}
-					} else {
-						if (referenceURI.equals(currentURI)) {
-							shouldCurrentRuleBeAdded = false;
-						}
-					}
-				}
-				if (!shouldCurrentRuleBeAdded) {
-					ruleGroup.remove(j--);
-				}
+		CompiledRuleTable table = new CompiledRuleTable(Collections.singletonList(ruleGroup));
+		RegionTrie followingRules = new RegionTrie();
+		for (int id = 0; id < table.size(); id++) {
+			followingRules.put(table.getRegion(id), id);
+		}
+
+		BitSet removedRules = new BitSet(table.size());
+		for (int referenceRule = 0; referenceRule < table.size(); referenceRule++) {
+			if (removedRules.get(referenceRule)) {
+				continue;
 			}
-			if (!shouldReferenceRuleBeAdded) {
-				ruleGroup.remove(i--);
+			String referenceURI = table.getRegion(referenceRule);
+			followingRules.remove(referenceURI, referenceRule);
+			removeContainedRules(table, followingRules, referenceRule, removedRules);
+
+			for (int currentRule : followingRules.getPrefixesOf(referenceURI)) {
+				if (table.isWebSite(currentRule)) { // current rule contains reference rule
+					removedRules.set(referenceRule);
+					break;
+				}
 			}
 		}
+
+		table.removeRules(0, ruleGroup, removedRules);
 		return ruleGroup;
 	}
+
+	/**
+	 * <p>Removes all rules from {@code rules} that are contained in
+	 * {@code referenceRule}: if {@code referenceRule} is a {@code WEB_SITE},
+	 * these are all rules whose region starts with its region. Otherwise, only
+	 * non-{@code WEB_SITE} rules that regulate over the same region are
+	 * contained.
+	 *
+	 * @param table         the rules were compiled to.
+	 * @param rules         to remove contained rules from.
+	 * @param referenceRule possibly containing rules from {@code rules}.
+	 * @param removedRules  will have the removed rules set.
+	 */
+	private static void removeContainedRules(CompiledRuleTable table, RegionTrie rules, int referenceRule, BitSet removedRules) {
+		String referenceURI = table.getRegion(referenceRule);
+		if (table.isWebSite(referenceRule)) { // reference rule contains current rules
+			rules.removeStartingWith(referenceURI, removedRules);
+		} else {
+			for (int currentRule : rules.get(referenceURI)) {
+				if (!table.isWebSite(currentRule)) { // both rules regulate over the same region
+					rules.remove(referenceURI, currentRule);
+					removedRules.set(currentRule);
+				}
+			}
+		}
+	}
 	private List<List<PrioritisedRule>> prioritisedRuleGroups;
 
 	public CleanupBean() {
@@ -133,61 +154,48 @@ public class CleanupBean implements Serializable, ICleanupLocal {
 	 * SharedMethods#getFlowControlRuleMethodRegion(de.uni_koblenz.aggrimm.icp.info.model.technical.flow.define.FlowControlRuleMethod)
 	 */
 	private void removeRedundantRulesByPrioritisation() {
-		for (int i = 0; i < prioritisedRuleGroups.size() - 1; i++) { // iterate over rule groups
-			List<PrioritisedRule> referenceRuleGroup = prioritisedRuleGroups.get(i);
+		CompiledRuleTable table = new CompiledRuleTable(prioritisedRuleGroups);
+		int lastGroup = table.getGroupCount() - 1;
+		// rules of lower prioritised groups than the currently visited one:
+		RegionTrie lowerRules = new RegionTrie();
+		for (int id = table.getGroupStart(Math.min(1, table.getGroupCount())); id < table.size(); id++) {
+			lowerRules.put(table.getRegion(id), id);
+		}
 
-			for (int j = 0; j < referenceRuleGroup.size(); j++) { // iterate over rule groups' rules
-				boolean isReferenceRuleUnneeded = false;
-				// rule with higher priority:
-				PrioritisedRule referenceRule = referenceRuleGroup.get(j);
-				String referenceURI = SharedMethods.getFlowControlRuleMethodRegion(referenceRule);
-				IExternType referenceContent = referenceRule.getContent().getInformationObject().getExternType();
-				IExternType referenceExternType = referenceRule.getExternType();
-
-				for (int k = i + 1; k < prioritisedRuleGroups.size(); k++) { // iterate over lower rule groups
-					// lower priotised group than referenceRuleGroup:
-					List<PrioritisedRule> currentRuleGroup = prioritisedRuleGroups.get(k);
-
-					for (int l = 0; l < currentRuleGroup.size(); l++) { // iterate over lower rule groups' rules
-						boolean isCurrentRuleUnneeded = false;
-						PrioritisedRule currentRule = currentRuleGroup.get(l);
-						String currentURI = SharedMethods.getFlowControlRuleMethodRegion(currentRule);
-						IExternType currentContent = currentRule.getContent().getInformationObject().getExternType();
-
-						if (referenceContent.equals(SEFCOURLContentType.WEB_SITE)) {
-							if (currentURI.startsWith(referenceURI)) { // reference rule contains current rule
-								isCurrentRuleUnneeded = true;
-							}
-						}
-						if (!isCurrentRuleUnneeded) {
-							if (currentContent.equals(SEFCOURLContentType.WEB_SITE)) {
-								if (referenceURI.startsWith(currentURI)) { // current rule contains reference rule
-									IExternType currentExternType = referenceRule.getExternType();
-									if (currentExternType.equals(referenceExternType)) { // if of same type, the lower prioritised rule may be used
-										isReferenceRuleUnneeded = true;
-									} // else both rules are important and must be kept!
-								}
-							} else {
-								if (referenceURI.equals(currentURI)) { // both rules regulate over the same region
-									isCurrentRuleUnneeded = true;
-								}
-							}
-						}
-						if (isCurrentRuleUnneeded) {
-							// removes currentRule and modifies counter (to prevent duplicates):
-							currentRuleGroup.remove(l--);
-							// i does not need to be modified as i < j
-						}
+		BitSet removedRules = new BitSet(table.size());
+		for (int i = 0; i < lastGroup; i++) { // iterate over rule groups
+			if (i > 0) {
+				// this group's rules are no longer lower prioritised:
+				for (int id = table.getGroupStart(i); id < table.getGroupEnd(i); id++) {
+					if (!removedRules.get(id)) {
+						lowerRules.remove(table.getRegion(id), id);
 					}
-					// update changes in the list (no matter if there were any, simply merge):
-					prioritisedRuleGroups.set(k, currentRuleGroup);
 				}
-				if (isReferenceRuleUnneeded) {
-					referenceRuleGroup.remove(j--);
-					prioritisedRuleGroups.set(i, referenceRuleGroup);
+			}
+
+			for (int referenceRule = table.getGroupStart(i); referenceRule < table.getGroupEnd(i); referenceRule++) { // iterate over rule groups' rules
+				if (removedRules.get(referenceRule)) {
+					continue;
+				}
+				// rule with higher priority:
+				String referenceURI = table.getRegion(referenceRule);
+				removeContainedRules(table, lowerRules, referenceRule, removedRules);
+
+				for (int currentRule : lowerRules.getPrefixesOf(referenceURI)) {
+					if (table.isWebSite(currentRule)) { // current rule contains reference rule
+						if (table.getExternType(currentRule) == table.getExternType(referenceRule)) { // if of same type, the lower prioritised rule may be used
+							removedRules.set(referenceRule);
+							break;
+						} // else both rules are important and must be kept!
+					}
 				}
 			}
 		}
+
+		int i = 0;
+		for (List<PrioritisedRule> ruleGroup : prioritisedRuleGroups) {
+			table.removeRules(i++, ruleGroup, removedRules);
+		}
 	}
 
 	/**
@@ -229,11 +237,9 @@ public class CleanupBean implements Serializable, ICleanupLocal {
 			List<PrioritisedRule> currentRuleGroup = prioritisedRuleGroups.get(i);
 
 			if (!currentRuleGroup.isEmpty()) {
-				for (int j = 0; j < currentRuleGroup.size(); j++) {
-					PrioritisedRule currentRule = currentRuleGroup.get(j);
+				for (PrioritisedRule currentRule : currentRuleGroup) {
 					// add priorities per policy for every included rule:
 					currentRule.setPriority(currentPriority);
-					currentRuleGroup.set(j, currentRule);
 				}
 				prioritisedRuleGroups.set(i, currentRuleGroup);
 			}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.policyProcessing;
+
+import de.uni_koblenz.aggrimm.icp.policyProcessing.algorithmProcessors.prioritisation.wrappers.PrioritisedRule;
+import de.uni_koblenz.aggrimm.icp.policyProcessing.inFOParser.SharedMethods;
+import de.uni_koblenz.aggrimm.icp.policyProcessing.inFOParser.externTypes.SEFCOURLContentType;
+import de.uni_koblenz.aggrimm.icp.info.model.technical.flow.define.FlowControlPolicyMethod;
+import de.uni_koblenz.aggrimm.icp.info.parser.utils.IExternType;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Compact, read-only view of grouped {@code PrioritisedRule}s for the
+ * processing steps that compare many rules with each other. Every rule gets an
+ * id (its position when iterating over all groups in order) and the
+ * properties that are compared are extracted once into arrays indexed by that
+ * id. Extern types and policies are replaced by small indices so that they can
+ * be compared as {@code int}s.
+ *
+ * <p>Only the first region of each rule will be used!
+ *
+ * @see
+ * SharedMethods#getFlowControlRuleMethodRegion(de.uni_koblenz.aggrimm.icp.info.model.technical.flow.define.FlowControlRuleMethod)
+ *
+ * @author mruster
+ */
+public class CompiledRuleTable {
+
+	private final PrioritisedRule[] rules;
+	private final String[] regions;
+	private final boolean[] webSites;
+	private final int[] externTypes;
+	private final int[] policies;
+	/**
+	 * <p>Id of every group's first rule followed by the number of rules.
+	 */
+	private final int[] groupOffsets;
+	private final int externTypeCount;
+	private final int policyCount;
+
+	/**
+	 * @param groupedRules rules to compile. The table becomes invalid if
+	 *                      the groups are changed other than by
+	 *                      {@link #removeRules(int, java.util.List, java.util.BitSet)}.
+	 *
+	 * @throws IllegalArgumentException if a rule does not belong to a policy.
+	 */
+	public CompiledRuleTable(List<List<PrioritisedRule>> groupedRules) {
+		int size = 0;
+		for (List<PrioritisedRule> group : groupedRules) {
+			size += group.size();
+		}
+		rules = new PrioritisedRule[size];
+		regions = new String[size];
+		webSites = new boolean[size];
+		externTypes = new int[size];
+		policies = new int[size];
+		groupOffsets = new int[groupedRules.size() + 1];
+
+		Map<IExternType, Integer> externTypeIndices = new HashMap<>();
+		Map<FlowControlPolicyMethod, Integer> policyIndices = new HashMap<>();
+		int id = 0;
+		int group = 0;
+		for (List<PrioritisedRule> ruleGroup : groupedRules) {
+			groupOffsets[group++] = id;
+			for (PrioritisedRule rule : ruleGroup) {
+				rules[id] = rule;
+				regions[id] = SharedMethods.getFlowControlRuleMethodRegion(rule);
+				webSites[id] = rule.getContent().getInformationObject().getExternType().equals(SEFCOURLContentType.WEB_SITE);
+				externTypes[id] = indexOf(externTypeIndices, rule.getExternType());
+				if (rule.getControlPolicy() == null) {
+					throw new IllegalArgumentException("Rule " + rule.getUri() + " does not belong to any policy.");
+				}
+				policies[id] = indexOf(policyIndices, rule.getControlPolicy().getControlMethod());
+				id++;
+			}
+		}
+		groupOffsets[group] = id;
+		externTypeCount = externTypeIndices.size();
+		policyCount = policyIndices.size();
+	}
+
+	private static <K> int indexOf(Map<K, Integer> indices, K key) {
+		Integer index = indices.get(key);
+		if (index == null) {
+			index = indices.size();
+			indices.put(key, index);
+		}
+		return index;
+	}
+
+	/**
+	 * @return number of rules.
+	 */
+	public int size() {
+		return rules.length;
+	}
+
+	public int getGroupCount() {
+		return groupOffsets.length - 1;
+	}
+
+	/**
+	 * @return id of the first rule of {@code group}.
+	 */
+	public int getGroupStart(int group) {
+		return groupOffsets[group];
+	}
+
+	/**
+	 * @return id after the last rule of {@code group}.
+	 */
+	public int getGroupEnd(int group) {
+		return groupOffsets[group + 1];
+	}
+
+	public PrioritisedRule getRule(int id) {
+		return rules[id];
+	}
+
+	public String getRegion(int id) {
+		return regions[id];
+	}
+
+	/**
+	 * @return true if the rule's {@code Content} is a {@code WEB_SITE}.
+	 */
+	public boolean isWebSite(int id) {
+		return webSites[id];
+	}
+
+	/**
+	 * @return index of the rule's {@code IExternType}. Rules with equal extern
+	 *          types have the same index.
+	 */
+	public int getExternType(int id) {
+		return externTypes[id];
+	}
+
+	public int getExternTypeCount() {
+		return externTypeCount;
+	}
+
+	/**
+	 * @return index of the rule's policy. Rules of equal policies have the
+	 *          same index.
+	 */
+	public int getPolicy(int id) {
+		return policies[id];
+	}
+
+	public int getPolicyCount() {
+		return policyCount;
+	}
+
+	/**
+	 * <p>Removes the rules whose ids are set in {@code removedRules} from
+	 * {@code ruleGroup} while keeping the order of the remaining rules.
+	 *
+	 * @param group        index of {@code ruleGroup} when this table was
+	 *                      compiled.
+	 * @param ruleGroup    the unchanged group.
+	 * @param removedRules ids of rules to remove.
+	 */
+	public void removeRules(int group, List<PrioritisedRule> ruleGroup, BitSet removedRules) {
+		int id = getGroupStart(group);
+		int end = getGroupEnd(group);
+		int firstRemovedRule = removedRules.nextSetBit(id);
+		if (firstRemovedRule < 0 || firstRemovedRule >= end) {
+			return;
+		}
+		Iterator<PrioritisedRule> iterator = ruleGroup.iterator();
+		while (iterator.hasNext()) {
+			iterator.next();
+			if (removedRules.get(id++)) {
+				iterator.remove();
+			}
+		}
+	}
+}
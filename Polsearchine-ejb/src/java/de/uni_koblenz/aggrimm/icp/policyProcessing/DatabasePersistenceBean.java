@@ -23,10 +23,16 @@ import de.uni_koblenz.aggrimm.icp.entities.info.PolicyEntity;
 import de.uni_koblenz.aggrimm.icp.entities.info.AbstractRuleEntity;
 import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.ControlledTopicEntity;
 import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.LegalAuthorizationEntity;
+import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.OrganizationalMotivationEntity;
 import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.RuleDataProviderEntity;
 import de.uni_koblenz.aggrimm.icp.info.model.technical.control.entity.OrganizationalMotivation;
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.ejb.LocalBean;
@@ -45,6 +51,12 @@ import javax.persistence.PersistenceContext;
 public class DatabasePersistenceBean implements Serializable, IDatabasePersistenceLocal {
 
 	private static final long serialVersionUID = 2329482671874153574L;
+	private static final int DEFAULT_PERSISTENCE_BATCH_SIZE = 500;
+	/**
+	 * <p>Property of the persistence unit that sets the JDBC batch size. It
+	 * sets the chunk size too, so that both are configured in one place.
+	 */
+	private static final String BATCH_SIZE_PROPERTY = "eclipselink.jdbc.batch-writing.size";
 	@PersistenceContext(unitName = "Polsearchine-ejbPU")
 	private EntityManager entityManager;
 	private final static Logger LOGGER = Logger.getLogger(DatabasePersistenceBean.class.getCanonicalName());
@@ -65,6 +77,139 @@ public class DatabasePersistenceBean implements Serializable, IDatabasePersisten
 		}
 	}
 
+	/**
+	 * <p>Persists {@code rules} together with their policies and meta
+	 * information in chunks of as many rules as a JDBC batch holds. After every
+	 * chunk, the persistence context is flushed, so that EclipseLink writes the
+	 * chunk with JDBC batches, and cleared, so that it does not grow with the
+	 * amount of rules.
+	 *
+	 * <p>Every policy is persisted once, no matter how many rules reference it.
+	 * Rules of the same policy must therefore reference the same
+	 * {@code PolicyEntity} object. The same applies to meta information, which
+	 * is interned by its URI. Policies and meta information that have been
+	 * persisted before are referenced by their id.
+	 *
+	 * <p>All entities are detached afterwards.
+	 *
+	 * @see #getBatchSize()
+	 *
+	 * @param rules with their policies set.
+	 *
+	 * @return amount of inserted rows (without join table rows).
+	 */
+	@Override
+	public int persistRulesInBatches(List<AbstractRuleEntity> rules) {
+		long start = System.currentTimeMillis();
+		int batchSize = getBatchSize();
+		Map<PolicyEntity, Long> policyIds = new IdentityHashMap<>();
+		Set<Object> insertedMetaInformation = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+		int insertedRows = 0;
+		int chunkSize = 0;
+
+		for (AbstractRuleEntity rule : rules) {
+			PolicyEntity policy = rule.getPolicy();
+			if (policy != null) {
+				Long policyId = policyIds.get(policy);
+				if (policyId == null) {
+					if (policy.getId() == null) {
+						referenceAll(policy.getLegalAuthorizations(), LegalAuthorizationEntity.class, insertedMetaInformation);
+						referenceAll(policy.getOrganizationalMotivations(), OrganizationalMotivationEntity.class, insertedMetaInformation);
+						entityManager.persist(policy);
+						insertedRows++;
+					}
+					policyId = policy.getId();
+					policyIds.put(policy, policyId);
+				}
+				if (!entityManager.contains(policy)) { // detached by an earlier chunk
+					rule.setPolicy(entityManager.getReference(PolicyEntity.class, policyId));
+				}
+			}
+			if (rule.getControlledTopics() != null) {
+				referenceAll(rule.getControlledTopics(), ControlledTopicEntity.class, insertedMetaInformation);
+			}
+			rule.setRuleDataProvider(reference(rule.getRuleDataProvider(), RuleDataProviderEntity.class, insertedMetaInformation));
+
+			entityManager.persist(rule);
+			insertedRows++;
+
+			if (++chunkSize == batchSize) {
+				entityManager.flush();
+				entityManager.clear();
+				chunkSize = 0;
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+		insertedRows += insertedMetaInformation.size();
+
+		long duration = Math.max(1, System.currentTimeMillis() - start);
+		LOGGER.log(Level.INFO, "Persisted {0} rules of {1} policies as {2} rows in {3} ms ({4} rows/s).",
+							 new Object[]{rules.size(), policyIds.size(), insertedRows, duration, insertedRows * 1000L / duration});
+		return insertedRows;
+	}
+
+	/**
+	 * <p>Reads the JDBC batch size from the persistence unit's
+	 * {@code BATCH_SIZE_PROPERTY}.
+	 *
+	 * @return the batch size or {@code DEFAULT_PERSISTENCE_BATCH_SIZE} if it is
+	 *          not set to a positive number.
+	 */
+	private int getBatchSize() {
+		Object batchSize = entityManager.getEntityManagerFactory().getProperties().get(BATCH_SIZE_PROPERTY);
+		if (batchSize != null) {
+			try {
+				int size = Integer.parseInt(batchSize.toString().trim());
+				if (size > 0) {
+					return size;
+				}
+			} catch (NumberFormatException ex) {
+				LOGGER.log(Level.WARNING, "{0} is not a number: {1}", new Object[]{BATCH_SIZE_PROPERTY, batchSize});
+			}
+		}
+		return DEFAULT_PERSISTENCE_BATCH_SIZE;
+	}
+
+	/**
+	 * <p>Replaces {@code entities} that have been persisted before but are not
+	 * managed anymore by references.
+	 *
+	 * @see #reference(java.lang.Object, java.lang.Class, java.util.Set)
+	 */
+	private <T> void referenceAll(List<T> entities, Class<T> type, Set<Object> insertedEntities) {
+		for (ListIterator<T> iterator = entities.listIterator(); iterator.hasNext();) {
+			T entity = iterator.next();
+			T reference = reference(entity, type, insertedEntities);
+			if (reference != entity) {
+				iterator.set(reference);
+			}
+		}
+	}
+
+	/**
+	 * <p>Shared entities that have been persisted by an earlier chunk or by an
+	 * earlier transaction must not be persisted again. Therefore, they are
+	 * replaced by a reference to their row.
+	 *
+	 * @param entity           to check.
+	 * @param type             of {@code entity}.
+	 * @param insertedEntities collects entities that will be inserted.
+	 *
+	 * @return {@code entity} if it is managed or new; a reference else.
+	 */
+	private <T> T reference(T entity, Class<T> type, Set<Object> insertedEntities) {
+		if (entity == null || entityManager.contains(entity)) {
+			return entity;
+		}
+		Object id = entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
+		if (id == null) { // persisted along with the rule or policy
+			insertedEntities.add(entity);
+			return entity;
+		}
+		return entityManager.getReference(type, id);
+	}
+
 	/**
 	 * <p>Persist a {@code rule}. If you have set all relations set before calling
 	 * this method and are using cascade-persist as persistence strategy, you
@@ -214,6 +359,104 @@ public class DatabasePersistenceBean implements Serializable, IDatabasePersisten
 		return entityManager.createQuery("DELETE FROM PolsearchineUserEntity").executeUpdate();
 	}
 
+	/**
+	 * <p>Removes a single rule. Its policy and meta information are kept.
+	 *
+	 * @param rule the rule to remove.
+	 */
+	@Override
+	public void removeRule(AbstractRuleEntity rule) {
+		entityManager.remove(entityManager.contains(rule) ? rule : entityManager.merge(rule));
+	}
+
+	/**
+	 * <p>Marks a single rule as not being part of {@code generation} and its
+	 * successors anymore. Until {@code generation} has been published, the
+	 * rule stays visible. Its policy and meta information are kept.
+	 *
+	 * @param rule       the rule to retire.
+	 * @param generation number of the first generation without {@code rule}.
+	 */
+	@Override
+	public void retireRule(AbstractRuleEntity rule, long generation) {
+		AbstractRuleEntity managedRule = entityManager.contains(rule) ? rule : entityManager.merge(rule);
+		managedRule.setRetiredInGeneration(generation);
+	}
+
+	/**
+	 * <p>Deletes all rules and default rules that are not part of
+	 * {@code generation} or of a later one. Afterwards, policies and meta
+	 * information that are not referenced anymore are deleted as well.
+	 *
+	 * <p>It must never run concurrently to a reload. A reload references
+	 * persisted policies and meta information that may only be used by outdated
+	 * generations, and the rules referencing them have not been committed yet.
+	 * Therefore, only {@code PolicyProcessingBean} calls this under its write
+	 * lock.
+	 *
+	 * @param generation the generation that has been published last.
+	 *
+	 * @return amount of deleted entries.
+	 */
+	@Override
+	public int deleteOutdatedGenerations(PolicyGeneration generation) {
+		long start = System.currentTimeMillis();
+		int deletedRules = entityManager.createQuery(
+						"DELETE FROM URLRuleEntity ure"
+						+ " WHERE ure.generation < :baseGeneration OR ure.retiredInGeneration <= :generation").
+						setParameter("baseGeneration", generation.getBaseNumber()).
+						setParameter("generation", generation.getNumber()).
+						executeUpdate();
+		int deletedEntries = deletedRules + entityManager.createQuery(
+						"DELETE FROM DefaultRuleEntity dre WHERE dre.generation < :generation").
+						setParameter("generation", generation.getNumber()).
+						executeUpdate();
+		if (deletedRules > 0) {
+			deletedEntries += deleteUnreferencedPolicies() + deleteUnreferencedMetaInformation();
+		}
+		LOGGER.log(Level.INFO, "Deleted {0} entries of generations before {1} in {2} ms.",
+							 new Object[]{deletedEntries, generation.getNumber(), System.currentTimeMillis() - start});
+		return deletedEntries;
+	}
+
+	/**
+	 * <p>Deletes policies that are not referenced by any rule anymore. They are
+	 * removed one by one so that their relations are removed as well.
+	 *
+	 * @return amount of deleted entries.
+	 */
+	@Override
+	public int deleteUnreferencedPolicies() {
+		List<PolicyEntity> policies = entityManager.createQuery(
+						"SELECT p FROM PolicyEntity p"
+						+ " WHERE NOT EXISTS (SELECT ure FROM URLRuleEntity ure WHERE ure.policy = p)", PolicyEntity.class).
+						getResultList();
+		for (PolicyEntity policy : policies) {
+			entityManager.remove(policy);
+		}
+		return policies.size();
+	}
+
+	/**
+	 * <p>Deletes controlled topics and rule data providers that are not
+	 * referenced by any rule anymore as well as legal authorizations and
+	 * organizational motivations that are not referenced by any policy anymore.
+	 *
+	 * @return amount of deleted entries.
+	 */
+	@Override
+	public int deleteUnreferencedMetaInformation() {
+		entityManager.flush();
+		return entityManager.createQuery("DELETE FROM ControlledTopicEntity cte"
+																		 + " WHERE NOT EXISTS (SELECT ure FROM URLRuleEntity ure WHERE cte MEMBER OF ure.controlledTopics)").executeUpdate()
+					 + entityManager.createQuery("DELETE FROM RuleDataProviderEntity rdpe"
+																			 + " WHERE NOT EXISTS (SELECT ure FROM URLRuleEntity ure WHERE ure.ruleDataProvider = rdpe)").executeUpdate()
+					 + entityManager.createQuery("DELETE FROM LegalAuthorizationEntity lae"
+																			 + " WHERE NOT EXISTS (SELECT p FROM PolicyEntity p WHERE lae MEMBER OF p.legalAuthorizations)").executeUpdate()
+					 + entityManager.createQuery("DELETE FROM OrganizationalMotivationEntity ome"
+																			 + " WHERE NOT EXISTS (SELECT p FROM PolicyEntity p WHERE ome MEMBER OF p.organizationalMotivations)").executeUpdate();
+	}
+
 	/**
 	 * @return amount of deleted entries.
 	 */
@@ -17,20 +17,30 @@
  */
 package de.uni_koblenz.aggrimm.icp.policyProcessing;
 
+import de.uni_koblenz.aggrimm.icp.facades.local.IPolicyGenerationLocal;
 import de.uni_koblenz.aggrimm.icp.facades.local.database.IDatabaseQueryLocal;
 import de.uni_koblenz.aggrimm.icp.entities.info.AbstractRuleEntity;
-import de.uni_koblenz.aggrimm.icp.entities.info.DefaultRuleEntity;
+import de.uni_koblenz.aggrimm.icp.entities.info.URLRuleEntity;
+import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.ControlledTopicEntity;
+import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.LegalAuthorizationEntity;
+import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.OrganizationalMotivationEntity;
+import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.RuleDataProviderEntity;
 import de.uni_koblenz.aggrimm.icp.policyProcessing.inFOParser.externTypes.SEFCOURLContentType;
 import java.io.Serializable;
+import java.util.List;
 import java.util.logging.Logger;
+import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
 
 /**
- * <p>This bean reads from the database.
+ * <p>This bean reads from the database. Rules are only read from the
+ * {@code PolicyGeneration} that is currently published. Therefore, reads never
+ * see (or wait for) a generation that is being written.
  *
  * @author mruster
  */
@@ -41,19 +51,10 @@ public class DatabaseQueryBean implements Serializable, IDatabaseQueryLocal {
 	private static final long serialVersionUID = -7059641486997748225L;
 	@PersistenceContext(unitName = "Polsearchine-ejbPU")
 	private EntityManager entityManager;
+	@EJB
+	private IPolicyGenerationLocal policyGenerationHelper;
 	private final static Logger LOGGER = Logger.getLogger(DatabaseQueryBean.class.getCanonicalName());
 
-	/**
-	 * @return {@code true} if default rule allows informations flows;
-	 *          {@code false} else.
-	 */
-	@Override
-	public boolean doesDefaultRuleAllowInformationFlows() {
-		DefaultRuleEntity dre = entityManager.createQuery("SELECT dre FROM DefaultRuleEntity dre", DefaultRuleEntity.class).
-						getSingleResult();
-		return dre.isIsAllowingDefaultRule();
-	}
-
 	/**
 	 * <p>If a {@code WEB_PAGE} is an exact match to the {@code url} then it must
 	 * be the most concrete (and highest prioritised) matching rule. There also
@@ -61,6 +62,10 @@ public class DatabaseQueryBean implements Serializable, IDatabaseQueryLocal {
 	 * highest priority. If you cannot guarantee these two assumptions, you have
 	 * created the database wrong.
 	 *
+	 * <p>The rule is returned together with its policy and all meta information
+	 * in one query, so that rendering a regulated result does not cause a query
+	 * per relationship. Results are cached and must not be modified.
+	 *
 	 * @param url which is used to find a matching regulating rule.
 	 *
 	 * @return matching regulating rule. If none is found {@code null} is
@@ -68,24 +73,36 @@ public class DatabaseQueryBean implements Serializable, IDatabaseQueryLocal {
 	 */
 	@Override
 	public AbstractRuleEntity getRegulatingRule(String url) throws NoResultException {
+		return getRegulatingRule(url, policyGenerationHelper.getCurrentGeneration());
+	}
+
+	/**
+	 * @see #getRegulatingRule(java.lang.String)
+	 * @param url        which is used to find a matching regulating rule.
+	 * @param generation to read the rules from.
+	 *
+	 * @return matching regulating rule of {@code generation}. If none is found,
+	 *          {@code null} is returned.
+	 */
+	@Override
+	public AbstractRuleEntity getRegulatingRule(String url, PolicyGeneration generation) {
 		try {
-			return entityManager.createQuery(
-							"SELECT ure FROM URLRuleEntity ure"
-							+ " WHERE ure.contentURI = :contentType AND  ure.regionURL = :url", AbstractRuleEntity.class).
+			return restrictToGeneration(entityManager.createNamedQuery(URLRuleEntity.FIND_WEB_PAGE_RULE, AbstractRuleEntity.class), generation).
 							setParameter("contentType", SEFCOURLContentType.WEB_PAGE.getValue()).
 							setParameter("url", url).
 							getSingleResult();
 		} catch (NoResultException ne1) {
 			try {
-				return entityManager.createQuery(
-								"SELECT ure FROM URLRuleEntity ure"
-								+ " WHERE ure.contentURI = :contentType AND  :currentURL LIKE CONCAT(ure.regionURL, '%')"
-								+ " AND LENGTH(ure.regionURL) <= LENGTH(:currentURL)"
-								+ " ORDER BY ure.priority DESC", AbstractRuleEntity.class).
+				// Fetching collections by joins and limiting the rows would cut
+				// the collections off. Therefore, the rule is looked up first:
+				Long ruleId = restrictToGeneration(entityManager.createNamedQuery(URLRuleEntity.FIND_WEB_SITE_RULE_ID, Long.class), generation).
 								setParameter("contentType", SEFCOURLContentType.WEB_SITE.getValue()).
 								setParameter("currentURL", url).
 								setMaxResults(1).
 								getSingleResult();
+				return entityManager.createNamedQuery(URLRuleEntity.FIND_RULE, AbstractRuleEntity.class).
+								setParameter("id", ruleId).
+								getSingleResult();
 			} catch (NoResultException ne2) {
 				// Throwing a NoResultException here would seem quite reasonable.
 				// The problem with this approach is that this would cause a
@@ -94,4 +111,88 @@ public class DatabaseQueryBean implements Serializable, IDatabaseQueryLocal {
 			}
 		}
 	}
+
+	/**
+	 * @return all URL rules of the current generation.
+	 */
+	@Override
+	public List<URLRuleEntity> getURLRules() {
+		PolicyGeneration generation = policyGenerationHelper.getCurrentGeneration();
+		return restrictToGeneration(entityManager.createQuery(
+						"SELECT ure FROM URLRuleEntity ure WHERE " + URLRuleEntity.GENERATION_CONDITION, URLRuleEntity.class), generation).
+						getResultList();
+	}
+
+	/**
+	 * <p>This includes generations that have not been published yet.
+	 *
+	 * @return highest generation number any persisted rule or default rule
+	 *          refers to; 0 if there are none.
+	 */
+	@Override
+	public long getLatestPersistedGeneration() {
+		Long latestRule = entityManager.createQuery(
+						"SELECT MAX(ure.generation) FROM URLRuleEntity ure", Long.class).
+						getSingleResult();
+		Long latestRetirement = entityManager.createQuery(
+						"SELECT MAX(ure.retiredInGeneration) FROM URLRuleEntity ure", Long.class).
+						getSingleResult();
+		Long latestDefaultRule = entityManager.createQuery(
+						"SELECT MAX(dre.generation) FROM DefaultRuleEntity dre", Long.class).
+						getSingleResult();
+		long latest = 0;
+		for (Long generation : new Long[]{latestRule, latestRetirement, latestDefaultRule}) {
+			if (generation != null && generation > latest) {
+				latest = generation;
+			}
+		}
+		return latest;
+	}
+
+	/**
+	 * @return all persisted controlled topics.
+	 */
+	@Override
+	public List<ControlledTopicEntity> getControlledTopics() {
+		return entityManager.createQuery("SELECT cte FROM ControlledTopicEntity cte", ControlledTopicEntity.class).
+						getResultList();
+	}
+
+	/**
+	 * @return all persisted rule data providers.
+	 */
+	@Override
+	public List<RuleDataProviderEntity> getRuleDataProviders() {
+		return entityManager.createQuery("SELECT rdpe FROM RuleDataProviderEntity rdpe", RuleDataProviderEntity.class).
+						getResultList();
+	}
+
+	/**
+	 * @return all persisted legal authorizations.
+	 */
+	@Override
+	public List<LegalAuthorizationEntity> getLegalAuthorizations() {
+		return entityManager.createQuery("SELECT lae FROM LegalAuthorizationEntity lae", LegalAuthorizationEntity.class).
+						getResultList();
+	}
+
+	/**
+	 * @return all persisted organizational motivations.
+	 */
+	@Override
+	public List<OrganizationalMotivationEntity> getOrganizationalMotivations() {
+		return entityManager.createQuery("SELECT ome FROM OrganizationalMotivationEntity ome", OrganizationalMotivationEntity.class).
+						getResultList();
+	}
+
+	/**
+	 * @param query      containing {@link URLRuleEntity#GENERATION_CONDITION}.
+	 * @param generation to read from.
+	 *
+	 * @return {@code query} restricted to {@code generation}.
+	 */
+	private <T> TypedQuery<T> restrictToGeneration(TypedQuery<T> query, PolicyGeneration generation) {
+		return query.setParameter("baseGeneration", generation.getBaseNumber()).
+						setParameter("generation", generation.getNumber());
+	}
 }
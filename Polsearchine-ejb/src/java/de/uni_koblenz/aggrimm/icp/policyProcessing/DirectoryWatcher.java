@@ -0,0 +1,169 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.policyProcessing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>Watches a directory and notifies its listeners when files within it have
+ * been created, modified or deleted. It does not start any thread. Instead,
+ * {@link #poll()} has to be called periodically, e.g. by a timer of the
+ * container.
+ *
+ * <p>Events are debounced: listeners are only notified once the directory has
+ * been quiet for {@code quietPeriod} milliseconds. Writing a large file or
+ * copying several files therefore results in a single notification.
+ *
+ * <p>Files ending with an ignored suffix (e.g. temporary files that are moved
+ * to their final name once complete) do not cause notifications.
+ *
+ * @author mruster
+ */
+public class DirectoryWatcher implements Closeable {
+
+	private final static Logger LOGGER = Logger.getLogger(DirectoryWatcher.class.getCanonicalName());
+	private final Path directory;
+	private final long quietPeriod;
+	private final String ignoredSuffix;
+	private final WatchService watchService;
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+	private boolean isChangePending;
+	private long lastChange;
+
+	/**
+	 * <p>Starts watching {@code directory}.
+	 *
+	 * @param directory     the directory to watch.
+	 * @param quietPeriod   milliseconds without further events before the
+	 *                       listeners are notified.
+	 * @param ignoredSuffix changes of files whose names end with it are
+	 *                       ignored. May be {@code null}.
+	 *
+	 * @throws IOException if the directory cannot be watched.
+	 */
+	public DirectoryWatcher(Path directory, long quietPeriod, String ignoredSuffix) throws IOException {
+		this.directory = directory.toAbsolutePath();
+		this.quietPeriod = quietPeriod;
+		this.ignoredSuffix = ignoredSuffix;
+		watchService = this.directory.getFileSystem().newWatchService();
+		this.directory.register(watchService,
+														StandardWatchEventKinds.ENTRY_CREATE,
+														StandardWatchEventKinds.ENTRY_MODIFY,
+														StandardWatchEventKinds.ENTRY_DELETE);
+	}
+
+	/**
+	 * @param listener to notify about changes from now on.
+	 */
+	public void addListener(Listener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * @param listener to not notify anymore.
+	 */
+	public void removeListener(Listener listener) {
+		listeners.remove(listener);
+	}
+
+	public Path getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * <p>Stops watching the directory.
+	 *
+	 * @throws IOException if closing the {@code WatchService} failed.
+	 */
+	@Override
+	public void close() throws IOException {
+		watchService.close();
+	}
+
+	/**
+	 * <p>Takes all events that have occurred since the last call without
+	 * waiting for further ones. If there have been events but none within the
+	 * last {@code quietPeriod} milliseconds, the listeners are notified on the
+	 * calling thread.
+	 */
+	public synchronized void poll() {
+		try {
+			WatchKey key;
+			while ((key = watchService.poll()) != null) {
+				for (WatchEvent<?> event : key.pollEvents()) {
+					if (!isIgnored(event)) {
+						isChangePending = true;
+						lastChange = System.currentTimeMillis();
+					}
+				}
+				if (!key.reset()) {
+					LOGGER.log(Level.WARNING, "{0} cannot be watched anymore. Changes will not be noticed.", directory);
+				}
+			}
+		} catch (ClosedWatchServiceException e) {
+			return; // closed: stop watching
+		}
+		if (isChangePending && System.currentTimeMillis() - lastChange >= quietPeriod) {
+			isChangePending = false;
+			notifyListeners();
+		}
+	}
+
+	/**
+	 * @return true if {@code event} concerns a file ending with
+	 *          {@code ignoredSuffix}. Overflows are never ignored.
+	 */
+	private boolean isIgnored(WatchEvent<?> event) {
+		Object file = event.context();
+		return ignoredSuffix != null && file instanceof Path
+					 && ((Path) file).getFileName().toString().endsWith(ignoredSuffix);
+	}
+
+	private void notifyListeners() {
+		for (Listener listener : listeners) {
+			try {
+				listener.directoryChanged(directory);
+			} catch (RuntimeException ex) {
+				LOGGER.log(Level.SEVERE, "A listener failed to process changes in " + directory, ex);
+			}
+		}
+	}
+
+	/**
+	 * <p>Is notified on the thread calling {@link DirectoryWatcher#poll()} after
+	 * files have changed.
+	 */
+	public interface Listener {
+
+		/**
+		 * @param directory the watched directory.
+		 */
+		void directoryChanged(Path directory);
+	}
+}
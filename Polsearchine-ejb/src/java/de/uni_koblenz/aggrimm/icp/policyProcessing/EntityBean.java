@@ -87,14 +87,27 @@ public class EntityBean implements Serializable, IEntityLocal {
 	 */
 	@Override
 	public PolicyEntity createPolicyEntityFromControlMethod(FlowControlPolicyMethod policyMethod) {
+		return createPolicyEntityFromControlMethod(policyMethod, new MetaInformationRegistry());
+	}
+
+	/**
+	 * @param policyMethod to turn into an entity.
+	 * @param registry     to intern the meta information with.
+	 *
+	 * @return {@code PolicyEntity} with {@code LegalAuthorizationEntity} and
+	 *          {@code OrganizationalMotivationEntity} taken from
+	 *          {@code registry}.
+	 */
+	@Override
+	public PolicyEntity createPolicyEntityFromControlMethod(FlowControlPolicyMethod policyMethod, MetaInformationRegistry registry) {
 		PolicyEntity policyEntity = new PolicyEntity();
 
 		List<LegalAuthorization> authorizations = policyMethod.getLegalAuthorizations();
-		List<LegalAuthorizationEntity> authorizationEntities = createLegalAuthorizationEntities(authorizations);
+		List<LegalAuthorizationEntity> authorizationEntities = createLegalAuthorizationEntities(authorizations, registry);
 		policyEntity.setLegalAuthorizations(authorizationEntities);
 
 		List<OrganizationalMotivation> motivations = policyMethod.getOrganizationalMotivations();
-		List<OrganizationalMotivationEntity> motivationEntities = createOrganizationalMotivationEntities(motivations);
+		List<OrganizationalMotivationEntity> motivationEntities = createOrganizationalMotivationEntities(motivations, registry);
 		policyEntity.setOrganizationalMotivations(motivationEntities);
 
 		return policyEntity;
@@ -113,7 +126,22 @@ public class EntityBean implements Serializable, IEntityLocal {
 	 */
 	@Override
 	public AbstractRuleEntity createRuleEntityFromPrioritisedRule(PrioritisedRule prioritisedRule) {
-		AbstractRuleEntity entity = createRuleEntityFromControlMethod(prioritisedRule);
+		return createRuleEntityFromPrioritisedRule(prioritisedRule, new MetaInformationRegistry());
+	}
+
+	/**
+	 * @see
+	 * #createRuleEntityFromPrioritisedRule(de.uni_koblenz.aggrimm.icp.policyProcessing.algorithmProcessors.prioritisation.wrappers.PrioritisedRule)
+	 * @param prioritisedRule to turn into an entity.
+	 * @param registry        to intern the meta information with.
+	 *
+	 * @return {@code AbstractRuleEntity} with {@code ControlledTopicEntity} and
+	 *          {@code RuleDataProviderEntity} taken from {@code registry},
+	 *          contentType, URLRegion and priority.
+	 */
+	@Override
+	public AbstractRuleEntity createRuleEntityFromPrioritisedRule(PrioritisedRule prioritisedRule, MetaInformationRegistry registry) {
+		AbstractRuleEntity entity = createRuleEntityFromControlMethod(prioritisedRule, registry);
 
 		int priority = prioritisedRule.getPriority();
 		entity.setPriority(priority);
@@ -139,6 +167,21 @@ public class EntityBean implements Serializable, IEntityLocal {
 	 */
 	@Override
 	public AbstractRuleEntity createRuleEntityFromControlMethod(FlowControlRuleMethod ruleMethod) {
+		return createRuleEntityFromControlMethod(ruleMethod, new MetaInformationRegistry());
+	}
+
+	/**
+	 * @see
+	 * #createRuleEntityFromControlMethod(de.uni_koblenz.aggrimm.icp.info.model.technical.flow.define.FlowControlRuleMethod)
+	 * @param ruleMethod to turn into an entity.
+	 * @param registry   to intern the meta information with.
+	 *
+	 * @return {@code AbstractRuleEntity} with {@code ControlledTopicEntity} and
+	 *          {@code RuleDataProviderEntity} taken from {@code registry},
+	 *          contentType and URLRegion.
+	 */
+	@Override
+	public AbstractRuleEntity createRuleEntityFromControlMethod(FlowControlRuleMethod ruleMethod, MetaInformationRegistry registry) {
 		AbstractRuleEntity entity;
 		String regionURI = SharedMethods.getFlowControlRuleMethodRegion(ruleMethod);
 
@@ -163,11 +206,11 @@ public class EntityBean implements Serializable, IEntityLocal {
 		entity.setContent(contentType);
 
 		List<ControlledTopic> topics = ruleMethod.getControlledTopics();
-		List<ControlledTopicEntity> topicEntities = createControlledTopicEntities(topics);
+		List<ControlledTopicEntity> topicEntities = createControlledTopicEntities(topics, registry);
 		entity.setControlledTopics(topicEntities);
 
 		RuleDataProvider dataProvider = ruleMethod.getRuleDataProvider();
-		RuleDataProviderEntity dataProviderEntitiy = createRuleDataProviderEntity(dataProvider);
+		RuleDataProviderEntity dataProviderEntitiy = registry.getRuleDataProvider(dataProvider.getAgent().getUri());
 		entity.setRuleDataProvider(dataProviderEntitiy);
 
 		/* this part has been removed - see method comment
@@ -199,11 +242,7 @@ public class EntityBean implements Serializable, IEntityLocal {
 	 */
 	@Override
 	public List<ControlledTopicEntity> createControlledTopicEntities(List<ControlledTopic> controlledTopics) {
-		List<ControlledTopicEntity> entities = new LinkedList<>();
-		for (ControlledTopic topic : controlledTopics) {
-			entities.add(createControlledTopicEntity(topic));
-		}
-		return entities;
+		return createControlledTopicEntities(controlledTopics, new MetaInformationRegistry());
 	}
 
 	/**
@@ -214,11 +253,7 @@ public class EntityBean implements Serializable, IEntityLocal {
 	 */
 	@Override
 	public List<LegalAuthorizationEntity> createLegalAuthorizationEntities(List<LegalAuthorization> legalAuthorizations) {
-		List<LegalAuthorizationEntity> entities = new LinkedList<>();
-		for (LegalAuthorization topic : legalAuthorizations) {
-			entities.add(createLegalAuthorizationEntity(topic));
-		}
-		return entities;
+		return createLegalAuthorizationEntities(legalAuthorizations, new MetaInformationRegistry());
 	}
 
 	/**
@@ -230,47 +265,50 @@ public class EntityBean implements Serializable, IEntityLocal {
 	 */
 	@Override
 	public List<OrganizationalMotivationEntity> createOrganizationalMotivationEntities(List<OrganizationalMotivation> organizationalMotivations) {
-		List<OrganizationalMotivationEntity> entities = new LinkedList<>();
-		for (OrganizationalMotivation topic : organizationalMotivations) {
-			entities.add(createOrganizationalMotivationEntity(topic));
-		}
-		return entities;
+		return createOrganizationalMotivationEntities(organizationalMotivations, new MetaInformationRegistry());
 	}
 
 	// non-public methods following - beyond there be dragons™!
 	/**
-	 * @param organizationalMotivation InFO-parser-class.
+	 * @param controlledTopics {@code List} of parsed objects from InFO-parser.
+	 * @param registry         to intern the entities with.
 	 *
-	 * @return JPA-{@code Entity} from InFO-parser-class.
+	 * @return {@code List} of JPA-entities taken from {@code registry}.
 	 */
-	private OrganizationalMotivationEntity createOrganizationalMotivationEntity(OrganizationalMotivation organizationalMotivation) {
-		OrganizationalMotivationEntity entity = new OrganizationalMotivationEntity();
-		String uri = organizationalMotivation.getCodeOfConductDescription().getUri();
-		entity.setUri(uri);
-		return entity;
+	private List<ControlledTopicEntity> createControlledTopicEntities(List<ControlledTopic> controlledTopics, MetaInformationRegistry registry) {
+		List<ControlledTopicEntity> entities = new LinkedList<>();
+		for (ControlledTopic topic : controlledTopics) {
+			entities.add(registry.getControlledTopic(topic.getUri()));
+		}
+		return entities;
 	}
 
 	/**
-	 * @param legalAuthorization InFO-parser-class.
+	 * @param legalAuthorizations {@code List} of parsed objects from InFO-parser.
+	 * @param registry            to intern the entities with.
 	 *
-	 * @return JPA-{@code Entity} from InFO-parser-class.
+	 * @return {@code List} of JPA-entities taken from {@code registry}.
 	 */
-	private LegalAuthorizationEntity createLegalAuthorizationEntity(LegalAuthorization legalAuthorization) {
-		LegalAuthorizationEntity entity = new LegalAuthorizationEntity();
-		String uri = legalAuthorization.getRegulationNorm().getUri();
-		entity.setUri(uri);
-		return entity;
+	private List<LegalAuthorizationEntity> createLegalAuthorizationEntities(List<LegalAuthorization> legalAuthorizations, MetaInformationRegistry registry) {
+		List<LegalAuthorizationEntity> entities = new LinkedList<>();
+		for (LegalAuthorization authorization : legalAuthorizations) {
+			entities.add(registry.getLegalAuthorization(authorization.getRegulationNorm().getUri()));
+		}
+		return entities;
 	}
 
 	/**
-	 * @param controlledTopic InFO-parser-class.
+	 * @param organizationalMotivations {@code List} of parsed objects from
+	 *                                   InFO-parser.
+	 * @param registry                  to intern the entities with.
 	 *
-	 * @return JPA-{@code Entity} from InFO-parser-class.
+	 * @return {@code List} of JPA-entities taken from {@code registry}.
 	 */
-	private ControlledTopicEntity createControlledTopicEntity(ControlledTopic controlledTopic) {
-		ControlledTopicEntity entity = new ControlledTopicEntity();
-		String uri = controlledTopic.getUri();
-		entity.setUri(uri);
-		return entity;
+	private List<OrganizationalMotivationEntity> createOrganizationalMotivationEntities(List<OrganizationalMotivation> organizationalMotivations, MetaInformationRegistry registry) {
+		List<OrganizationalMotivationEntity> entities = new LinkedList<>();
+		for (OrganizationalMotivation motivation : organizationalMotivations) {
+			entities.add(registry.getOrganizationalMotivation(motivation.getCodeOfConductDescription().getUri()));
+		}
+		return entities;
 	}
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.policyProcessing;
+
+import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.AbstractMetaInformationEntity;
+import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.ControlledTopicEntity;
+import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.LegalAuthorizationEntity;
+import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.OrganizationalMotivationEntity;
+import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.RuleDataProviderEntity;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Interns meta information entities by their URI. As long as the same
+ * registry is used, every URI results in exactly one entity object per type,
+ * no matter how many rules or policies reference it. Therefore, it is stored
+ * only once as well.
+ *
+ * <p>A registry is meant to live as long as one policy (re)load. It can be
+ * seeded with persisted entities so that new rules reference the existing rows
+ * instead of inserting duplicates.
+ *
+ * <p>This class is not thread safe.
+ *
+ * @author mruster
+ */
+public class MetaInformationRegistry {
+
+	private final Map<String, ControlledTopicEntity> controlledTopics = new HashMap<>();
+	private final Map<String, RuleDataProviderEntity> ruleDataProviders = new HashMap<>();
+	private final Map<String, LegalAuthorizationEntity> legalAuthorizations = new HashMap<>();
+	private final Map<String, OrganizationalMotivationEntity> organizationalMotivations = new HashMap<>();
+
+	/**
+	 * @param uri of the controlled topic.
+	 *
+	 * @return the interned {@code ControlledTopicEntity} for {@code uri}.
+	 */
+	public ControlledTopicEntity getControlledTopic(String uri) {
+		ControlledTopicEntity entity = controlledTopics.get(uri);
+		if (entity == null) {
+			entity = new ControlledTopicEntity();
+			entity.setUri(uri);
+			controlledTopics.put(uri, entity);
+		}
+		return entity;
+	}
+
+	/**
+	 * @param uri of the rule data provider's agent.
+	 *
+	 * @return the interned {@code RuleDataProviderEntity} for {@code uri}.
+	 */
+	public RuleDataProviderEntity getRuleDataProvider(String uri) {
+		RuleDataProviderEntity entity = ruleDataProviders.get(uri);
+		if (entity == null) {
+			entity = new RuleDataProviderEntity();
+			entity.setUri(uri);
+			ruleDataProviders.put(uri, entity);
+		}
+		return entity;
+	}
+
+	/**
+	 * @param uri of the legal authorization's regulation norm.
+	 *
+	 * @return the interned {@code LegalAuthorizationEntity} for {@code uri}.
+	 */
+	public LegalAuthorizationEntity getLegalAuthorization(String uri) {
+		LegalAuthorizationEntity entity = legalAuthorizations.get(uri);
+		if (entity == null) {
+			entity = new LegalAuthorizationEntity();
+			entity.setUri(uri);
+			legalAuthorizations.put(uri, entity);
+		}
+		return entity;
+	}
+
+	/**
+	 * @param uri of the organizational motivation's code of conduct
+	 *             description.
+	 *
+	 * @return the interned {@code OrganizationalMotivationEntity} for
+	 *          {@code uri}.
+	 */
+	public OrganizationalMotivationEntity getOrganizationalMotivation(String uri) {
+		OrganizationalMotivationEntity entity = organizationalMotivations.get(uri);
+		if (entity == null) {
+			entity = new OrganizationalMotivationEntity();
+			entity.setUri(uri);
+			organizationalMotivations.put(uri, entity);
+		}
+		return entity;
+	}
+
+	/**
+	 * @param entities persisted controlled topics to reuse.
+	 */
+	public void addControlledTopics(List<ControlledTopicEntity> entities) {
+		add(controlledTopics, entities);
+	}
+
+	/**
+	 * @param entities persisted rule data providers to reuse.
+	 */
+	public void addRuleDataProviders(List<RuleDataProviderEntity> entities) {
+		add(ruleDataProviders, entities);
+	}
+
+	/**
+	 * @param entities persisted legal authorizations to reuse.
+	 */
+	public void addLegalAuthorizations(List<LegalAuthorizationEntity> entities) {
+		add(legalAuthorizations, entities);
+	}
+
+	/**
+	 * @param entities persisted organizational motivations to reuse.
+	 */
+	public void addOrganizationalMotivations(List<OrganizationalMotivationEntity> entities) {
+		add(organizationalMotivations, entities);
+	}
+
+	/**
+	 * @return amount of distinct meta information entities.
+	 */
+	public int size() {
+		return controlledTopics.size() + ruleDataProviders.size()
+					 + legalAuthorizations.size() + organizationalMotivations.size();
+	}
+
+	private static <T extends AbstractMetaInformationEntity> void add(Map<String, T> registry, List<T> entities) {
+		for (T entity : entities) {
+			URI uri = entity.getUri();
+			registry.put(uri == null ? null : uri.toString(), entity);
+		}
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.policyProcessing;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.bind.DatatypeConverter;
+
+/**
+ * <p>Tracks SHA-256 hashes of policy files. A file is only read again if its
+ * size or last modification time differs from when it was hashed the last
+ * time.
+ *
+ * <p>This class is not thread safe.
+ *
+ * @author mruster
+ */
+public class PolicyFileHashes implements Serializable {
+
+	private static final long serialVersionUID = 5143208791925816327L;
+	private final Map<String, Entry> entries = new HashMap<>();
+
+	/**
+	 * <p>Hashes {@code files} and forgets about files that are not contained
+	 * anymore.
+	 *
+	 * @param files the current policy files.
+	 *
+	 * @return unmodifiable map of the files' absolute paths to their hashes.
+	 * @throws IOException if a file could not be read.
+	 */
+	public Map<String, String> update(List<File> files) throws IOException {
+		Map<String, Entry> current = new HashMap<>(files.size() * 2);
+		Map<String, String> result = new HashMap<>(files.size() * 2);
+		for (File file : files) {
+			String path = file.getAbsolutePath();
+			long size = file.length();
+			long lastModified = file.lastModified();
+			Entry entry = entries.get(path);
+			if (entry == null || entry.size != size || entry.lastModified != lastModified) {
+				entry = new Entry(size, lastModified, hash(file));
+			}
+			current.put(path, entry);
+			result.put(path, entry.hash);
+		}
+		entries.clear();
+		entries.putAll(current);
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * @param file to hash.
+	 *
+	 * @return the hex encoded SHA-256 hash of {@code file}'s content.
+	 * @throws IOException if the file could not be read.
+	 */
+	public static String hash(File file) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 is not supported by this JVM.", ex);
+		}
+		byte[] buffer = new byte[8192];
+		try (InputStream in = Files.newInputStream(file.toPath())) {
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+		}
+		return DatatypeConverter.printHexBinary(digest.digest());
+	}
+
+	private static class Entry implements Serializable {
+
+		private static final long serialVersionUID = -6318750218304471123L;
+		private final long size;
+		private final long lastModified;
+		private final String hash;
+
+		Entry(long size, long lastModified, String hash) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.hash = hash;
+		}
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.policyProcessing;
+
+import de.uni_koblenz.aggrimm.icp.facades.local.IPolicyFileParserLocal;
+import de.uni_koblenz.aggrimm.icp.policyProcessing.inFOParser.SEFCOParser;
+import de.uni_koblenz.aggrimm.icp.policyProcessing.validators.PolicyFileValidator;
+import java.util.concurrent.Future;
+import javax.ejb.AsyncResult;
+import javax.ejb.Asynchronous;
+import javax.ejb.Stateless;
+
+/**
+ * <p>Parses and validates policy files concurrently. Every call runs
+ * asynchronously on the container's thread pool, so no threads have to be
+ * managed by the callers.
+ *
+ * @author mruster
+ */
+@Stateless
+public class PolicyFileParserBean implements IPolicyFileParserLocal {
+
+	@Override
+	@Asynchronous
+	public Future<SEFCOParser.ParsedControls> parseFile(String fileLocation) {
+		return new AsyncResult<>(SEFCOParser.parseFile(fileLocation));
+	}
+
+	@Override
+	@Asynchronous
+	public Future<String> validateFile(String fileLocation) {
+		try {
+			PolicyFileValidator.validate(fileLocation);
+			return new AsyncResult<>(null);
+		} catch (IllegalArgumentException e) {
+			return new AsyncResult<>(e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.policyProcessing;
+
+import java.io.Serializable;
+
+/**
+ * <p>Immutable snapshot descriptor of the policies currently in use. A new
+ * generation is published every time the policies have been processed and
+ * persisted. Anything derived from the persisted rules (e.g. rendered
+ * regulation information) is only valid for the generation it was derived
+ * from.
+ *
+ * <p>Persisted rules carry the number of the generation they have been
+ * written for. A generation consists of all rules written from its base
+ * generation up to itself that have not been retired since. A full reload
+ * starts a new base generation, an incremental reload adds to the current one.
+ *
+ * <p>A generation also carries the decision of its default rule, so that it
+ * does not have to be queried for every search.
+ *
+ * @author mruster
+ */
+public final class PolicyGeneration implements Serializable {
+
+	private static final long serialVersionUID = 3216503517916297254L;
+	private final long number;
+	private final long baseNumber;
+	private final boolean isAllowingDefaultRule;
+	private final long createdAt;
+
+	/**
+	 * @param number                strictly increasing number of this
+	 *                               generation.
+	 * @param baseNumber            number of the generation of the last full
+	 *                               reload this generation builds upon.
+	 * @param isAllowingDefaultRule {@code true} if the default rule of this
+	 *                               generation allows information flows.
+	 * @param createdAt             time in milliseconds when this generation
+	 *                               was created.
+	 */
+	public PolicyGeneration(long number, long baseNumber, boolean isAllowingDefaultRule, long createdAt) {
+		this.number = number;
+		this.baseNumber = baseNumber;
+		this.isAllowingDefaultRule = isAllowingDefaultRule;
+		this.createdAt = createdAt;
+	}
+
+	public long getNumber() {
+		return number;
+	}
+
+	public long getBaseNumber() {
+		return baseNumber;
+	}
+
+	/**
+	 * @return {@code true} if information flows that are not regulated by any
+	 *          rule are allowed; {@code false} else.
+	 */
+	public boolean isAllowingDefaultRule() {
+		return isAllowingDefaultRule;
+	}
+
+	public long getCreatedAt() {
+		return createdAt;
+	}
+
+	/**
+	 * @param nextNumber            number of the succeeding generation. It must
+	 *                               be greater than any generation number
+	 *                               persisted before.
+	 * @param isAllowingDefaultRule decision of the succeeding generation's
+	 *                               default rule.
+	 *
+	 * @return a new {@code PolicyGeneration} succeeding this one that keeps
+	 *          all rules of this one that are not retired.
+	 */
+	public PolicyGeneration next(long nextNumber, boolean isAllowingDefaultRule) {
+		return new PolicyGeneration(nextNumber, baseNumber, isAllowingDefaultRule, System.currentTimeMillis());
+	}
+
+	/**
+	 * @param nextNumber            number of the succeeding generation. It must
+	 *                               be greater than any generation number
+	 *                               persisted before.
+	 * @param isAllowingDefaultRule decision of the succeeding generation's
+	 *                               default rule.
+	 *
+	 * @return a new {@code PolicyGeneration} succeeding this one that replaces
+	 *          all of its rules.
+	 */
+	public PolicyGeneration nextBase(long nextNumber, boolean isAllowingDefaultRule) {
+		return new PolicyGeneration(nextNumber, nextNumber, isAllowingDefaultRule, System.currentTimeMillis());
+	}
+
+	@Override
+	public String toString() {
+		return "PolicyGeneration{" + "number=" + number + ", baseNumber=" + baseNumber + ", isAllowingDefaultRule=" + isAllowingDefaultRule + ", createdAt=" + createdAt + '}';
+	}
+}
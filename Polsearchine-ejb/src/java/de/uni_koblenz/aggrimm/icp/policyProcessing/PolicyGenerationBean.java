@@ -0,0 +1,126 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.policyProcessing;
+
+import de.uni_koblenz.aggrimm.icp.facades.local.IPolicyGenerationLocal;
+import de.uni_koblenz.aggrimm.icp.facades.local.database.IDatabaseQueryLocal;
+import java.io.Serializable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.EJB;
+import javax.ejb.EJBException;
+import javax.ejb.Singleton;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+/**
+ * <p>Holds the {@code PolicyGeneration} that is currently in use. Reading the
+ * generation must never wait for a running policy reload. Therefore, this
+ * bean manages its concurrency itself and only publishes immutable
+ * generations.
+ *
+ * <p>The current generation is the pointer all database reads are restricted
+ * to. It is only switched after the transaction that wrote the new generation
+ * has been committed. At the same time, the shared cache (including cached
+ * query results) is evicted as a whole. Older generations are deleted
+ * asynchronously afterwards by {@code PolicyProcessingBean}.
+ *
+ * @author mruster
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class PolicyGenerationBean implements Serializable, IPolicyGenerationLocal {
+
+	private static final long serialVersionUID = -2861092730571638904L;
+	private final static Logger LOGGER = Logger.getLogger(PolicyGenerationBean.class.getCanonicalName());
+	/**
+	 * <p>Until the policies have been processed, no information flow is
+	 * allowed.
+	 *
+	 * @see #init()
+	 */
+	private volatile PolicyGeneration currentGeneration = new PolicyGeneration(0, 0, false, System.currentTimeMillis());
+	@Resource
+	private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+	@EJB
+	private IDatabaseQueryLocal databaseQueryHelper;
+	@PersistenceUnit(unitName = "Polsearchine-ejbPU")
+	private EntityManagerFactory entityManagerFactory;
+
+	/**
+	 * <p>Continues numbering after the latest persisted generation so that
+	 * numbers are never reused after a restart. The initial generation starts
+	 * after that one and therefore contains no rule.
+	 */
+	@PostConstruct
+	public void init() {
+		try {
+			long latestGeneration = databaseQueryHelper.getLatestPersistedGeneration();
+			currentGeneration = new PolicyGeneration(latestGeneration, latestGeneration + 1, false, System.currentTimeMillis());
+		} catch (EJBException ex) {
+			LOGGER.log(Level.WARNING, "Could not read the latest persisted generation. Numbering starts at 0.", ex);
+		}
+	}
+
+	@Override
+	public PolicyGeneration getCurrentGeneration() {
+		return currentGeneration;
+	}
+
+	@Override
+	public void publishGeneration(final PolicyGeneration generation) {
+		if (transactionSynchronizationRegistry.getTransactionKey() == null) {
+			publish(generation);
+			return;
+		}
+		transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+			@Override
+			public void beforeCompletion() {
+			}
+
+			@Override
+			public void afterCompletion(int status) {
+				if (status == Status.STATUS_COMMITTED) {
+					publish(generation);
+				} else {
+					LOGGER.log(Level.WARNING, "Discarding {0} because its transaction has not been committed.", generation);
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>Switches to {@code generation} and evicts the shared cache.
+	 */
+	private synchronized void publish(PolicyGeneration generation) {
+		if (generation.getNumber() <= currentGeneration.getNumber()) {
+			LOGGER.log(Level.WARNING, "Not publishing {0} because it is not newer than {1}.", new Object[]{generation, currentGeneration});
+			return;
+		}
+		currentGeneration = generation;
+		entityManagerFactory.getCache().evictAll();
+		LOGGER.log(Level.FINE, "Published {0}", currentGeneration);
+	}
+}
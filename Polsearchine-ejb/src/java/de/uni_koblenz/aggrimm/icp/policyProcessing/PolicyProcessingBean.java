@@ -17,10 +17,13 @@
  */
 package de.uni_koblenz.aggrimm.icp.policyProcessing;
 
+import de.uni_koblenz.aggrimm.icp.facades.local.IPolicyFileParserLocal;
+import de.uni_koblenz.aggrimm.icp.facades.local.IPolicyGenerationLocal;
 import de.uni_koblenz.aggrimm.icp.facades.local.IPolicyProcessingLocal;
 import de.uni_koblenz.aggrimm.icp.entities.info.DefaultRuleEntity;
 import de.uni_koblenz.aggrimm.icp.entities.info.PolicyEntity;
 import de.uni_koblenz.aggrimm.icp.entities.info.AbstractRuleEntity;
+import de.uni_koblenz.aggrimm.icp.entities.info.URLRuleEntity;
 import de.uni_koblenz.aggrimm.icp.policyProcessing.algorithmProcessors.prioritisation.wrappers.PrioritisedRule;
 import de.uni_koblenz.aggrimm.icp.policyProcessing.inFOParser.SEFCOParser;
 import de.uni_koblenz.aggrimm.icp.policyProcessing.inFOParser.SharedMethods;
@@ -39,6 +42,7 @@ import de.uni_koblenz.aggrimm.icp.info.model.technical.flow.define.FlowControlRu
 import de.uni_koblenz.aggrimm.icp.info.parser.utils.IExternType;
 import de.uni_koblenz.aggrimm.icp.facades.local.ICleanupLocal;
 import de.uni_koblenz.aggrimm.icp.facades.local.database.IDatabasePersistenceLocal;
+import de.uni_koblenz.aggrimm.icp.facades.local.database.IDatabaseQueryLocal;
 import de.uni_koblenz.aggrimm.icp.facades.local.database.IEntityLocal;
 import de.uni_koblenz.aggrimm.icp.facades.local.infoAlgorithmProcessors.IGlobalConflictSolutionProcessor;
 import de.uni_koblenz.aggrimm.icp.facades.local.infoAlgorithmProcessors.ILocalConflictSolutionProcessorLocal;
@@ -47,19 +51,33 @@ import de.uni_koblenz.aggrimm.icp.facades.local.infoAlgorithmProcessors.IPriorit
 import de.uni_koblenz.aggrimm.icp.facades.remote.IPolicyIOBeanRemote;
 import de.uni_koblenz.aggrimm.icp.triplestore.jena.JenaStore;
 import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.Resource;
+import javax.ejb.Asynchronous;
 import javax.ejb.ConcurrencyManagement;
 import javax.ejb.ConcurrencyManagementType;
 import javax.ejb.EJB;
 import javax.ejb.Lock;
 import javax.ejb.LockType;
+import javax.ejb.SessionContext;
 import javax.ejb.Singleton;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
 
 /**
  * <p>This class is used for processing the policies. They get parsed,
@@ -77,6 +95,8 @@ public class PolicyProcessingBean implements Serializable, IPolicyProcessingLoca
 	@EJB
 	private IDatabasePersistenceLocal databaseHelper;
 	@EJB
+	private IDatabaseQueryLocal databaseQueryHelper;
+	@EJB
 	private IEntityLocal entityHelper;
 	@EJB
 	private INonApplicabilityProcessorLocal nonApplicabilityProcessor;
@@ -88,132 +108,540 @@ public class PolicyProcessingBean implements Serializable, IPolicyProcessingLoca
 	private ILocalConflictSolutionProcessorLocal localConflictSolutionProcessor;
 	@EJB
 	private ICleanupLocal cleanupHelper;
+	@EJB
+	private IPolicyGenerationLocal policyGenerationHelper;
+	@EJB
+	private IPolicyFileParserLocal policyFileParser;
 	private final static Logger LOGGER = Logger.getLogger(SEFCOParser.class.getCanonicalName());
 
+	/**
+	 * <p>Hashes of the policy files processed last, mapped by their absolute
+	 * path. {@code null} if no policies have been processed yet.
+	 */
+	private Map<String, String> processedPolicyHashes;
+	/**
+	 * <p>How often reloads have been paused and not resumed yet. Like
+	 * {@code isReloadPending}, it is only accessed under the write lock, so
+	 * that checking it and starting a reload are atomic.
+	 */
+	private int reloadPauses;
+	private boolean isReloadPending;
+	@Resource(name = "PARALLEL_POLICY_PARSING")
+	private Boolean PARALLEL_POLICY_PARSING;
+	@Resource
+	private SessionContext sessionContext;
+	@Resource
+	private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+	/**
+	 * <p>Parses and processes all policy files and replaces all persisted rules
+	 * with the result.
+	 *
+	 * <p>The result is written as a new base generation next to the rules in
+	 * use, which are neither modified nor locked. Readers are switched to the
+	 * new generation once it has been committed. The former rules are deleted
+	 * asynchronously afterwards.
+	 */
 	@Override
 	@Lock(LockType.WRITE)
 	public void processOwlFiles() {
+		long start = System.currentTimeMillis();
+		resetPeakHeapUsage();
+		Map<String, String> hashes = rescanPolicyFiles();
+		ArrayList<File> policyFiles = toFiles(hashes);
 
-		SEFCOParser sefcoParser = new SEFCOParser(new JenaStore());
-		ArrayList<File> policyFiles = policyIOBeanFacade.getStoredPolicies();
+		try {
+			FlowControlMetaPolicyMethod metaPolicy = parseMetaPolicy(policyFiles);
+			List<List<PrioritisedRule>> groupedRules = processRules(metaPolicy);
+			DefaultRuleEntity defaultRule = createDefaultRule(metaPolicy);
+			PolicyGeneration generation = policyGenerationHelper.getCurrentGeneration().nextBase(getNextGenerationNumber(), defaultRule.isIsAllowingDefaultRule());
 
-		for (File policy : policyFiles) {
-			String policyURI = policy.toURI().toASCIIString();
-			sefcoParser.addFile(policyURI);
+			if (!groupedRules.isEmpty()) {
+				List<AbstractRuleEntity> ruleEntities = new ArrayList<>(countRules(groupedRules));
+				Map<FlowControlPolicyMethod, PolicyEntity> policyEntities = new HashMap<>();
+				MetaInformationRegistry metaInformation = createMetaInformationRegistry();
+				for (List<PrioritisedRule> group : groupedRules) {
+					for (PrioritisedRule rule : group) {
+						FlowControlPolicyMethod policy = rule.getControlPolicy().getControlMethod();
+						PolicyEntity policyEntity = policyEntities.get(policy);
+						if (policyEntity == null) { // create every policy once
+							policyEntity = entityHelper.createPolicyEntityFromControlMethod(policy, metaInformation);
+							policyEntities.put(policy, policyEntity);
+						}
+						AbstractRuleEntity ruleEntity = entityHelper.createRuleEntityFromPrioritisedRule(rule, metaInformation);
+						ruleEntity.setPolicy(policyEntity);
+						ruleEntity.setGeneration(generation.getNumber());
+						ruleEntities.add(ruleEntity);
+					}
+				}
+				databaseHelper.persistRulesInBatches(ruleEntities);
+			} else {
+				// the new base generation simply does not contain any rules:
+				LOGGER.log(Level.INFO, "No rules found, therefore not using any policies either.");
+			}
+			persistDefaultRule(defaultRule, generation);
+			processedPolicyHashes = hashes;
+			policyGenerationHelper.publishGeneration(generation);
+			deleteOutdatedGenerationsAfterCommit();
+
+			LOGGER.log(Level.INFO, "Processed {0} rules in {1} ms with a peak heap usage of {2} MB.", new Object[]{countRules(groupedRules), System.currentTimeMillis() - start, getPeakHeapUsage() / (1024 * 1024)});
+			LOGGER.log(Level.INFO, "Everything has been persisted as planned. Polsearchine should be fully operational in no time.");
+		} catch (NullPointerException e) {
+			throw new NullPointerException("Parsing failed most likely due to an unknown element within the OWL-files. If so, this log will contain information of the resource's ExternTypes that could not be parsed. Else this error can also be associated with failed resource injection.");
 		}
-		LOGGER.log(Level.FINE, "Started parsing of policy files");
+	}
 
-		try {
-			List<Control<FlowControlMetaPolicyMethod, FlowControlMetaPolicySituation>> metaPolicies = sefcoParser.getMetaPolicies();
-			Iterator<Control<FlowControlMetaPolicyMethod, FlowControlMetaPolicySituation>> iterator = metaPolicies.iterator();
+	/**
+	 * <p>Processes the policy files again if any of them has been added, changed
+	 * or removed since they have been processed the last time.
+	 *
+	 * <p>The policy files are parsed and processed as a whole because meta
+	 * policies, policies and rules may reference each other across files and
+	 * the conflict solution depends on all rules. Afterwards, the result is
+	 * compared to the persisted rules and only rules that have been added or
+	 * removed are written. Unchanged rules keep their rows and identifiers.
+	 * Added rules are written for the next generation and removed rules are
+	 * retired with it, so readers are not affected until it is published.
+	 *
+	 * @return {@code true} if the policies were processed again; {@code false}
+	 *          if no policy file had changed.
+	 */
+	@Override
+	@Lock(LockType.WRITE)
+	public boolean reloadChangedPolicies() {
+		Map<String, String> hashes = rescanPolicyFiles();
+		ArrayList<File> policyFiles = toFiles(hashes);
+		if (hashes.equals(processedPolicyHashes)) {
+			LOGGER.log(Level.FINE, "No policy file has changed. Skipping reload.");
+			return false;
+		}
+		if (processedPolicyHashes == null) {
+			processOwlFiles();
+			return true;
+		}
+		logChangedFiles(processedPolicyHashes, hashes);
 
-			while (iterator.hasNext()) {
-				Control<FlowControlMetaPolicyMethod, FlowControlMetaPolicySituation> controlMetaPolicy = iterator.next();
-				FlowControlMetaPolicyMethod metaPolicy = controlMetaPolicy.getControlMethod();
+		try {
+			long start = System.currentTimeMillis();
+			FlowControlMetaPolicyMethod metaPolicy = parseMetaPolicy(policyFiles);
+			List<List<PrioritisedRule>> groupedRules = processRules(metaPolicy);
+			DefaultRuleEntity defaultRule = createDefaultRule(metaPolicy);
+			PolicyGeneration generation = policyGenerationHelper.getCurrentGeneration().next(getNextGenerationNumber(), defaultRule.isIsAllowingDefaultRule());
 
-				if (!MetaPolicyValidator.isValid(metaPolicy, SEFCOEnforcingSystemType.SEARCH_ENGINE)) {
-					iterator.remove();
+			// index the persisted rules and policies by what they consist of:
+			Map<String, LinkedList<URLRuleEntity>> persistedRules = new HashMap<>();
+			Map<String, PolicyEntity> persistedPolicies = new HashMap<>();
+			for (URLRuleEntity persistedRule : databaseQueryHelper.getURLRules()) {
+				String signature = RuleSignature.of(persistedRule);
+				LinkedList<URLRuleEntity> rules = persistedRules.get(signature);
+				if (rules == null) {
+					rules = new LinkedList<>();
+					persistedRules.put(signature, rules);
+				}
+				rules.add(persistedRule);
+				if (persistedRule.getPolicy() != null) {
+					persistedPolicies.put(RuleSignature.of(persistedRule.getPolicy()), persistedRule.getPolicy());
 				}
 			}
 
-			switch (metaPolicies.size()) {
-				case 0:
-					throw new RuntimeException("No meta policy was found. Polsearchine cannot operate without a meta policy. Aborting.");
-				case 1:
-					LOGGER.log(Level.FINE, "Found exactly one meta policy. Continuing as planned.");
-					break;
-				default:
-					throw new RuntimeException("Multiple meta policies have been found. Polsearchine can only use one policy at once. Aborting.");
-			}
-			// use only one meta policy:
-			FlowControlMetaPolicyMethod metaPolicy = metaPolicies.get(0).getControlMethod();
-			// copy some attributes for easier access (and less loop-redundancy):
-			IExternType enforcingSystem = metaPolicy.getEnforcingSystem().getTechnicalSystem().getExternType();
-			ResponsibleOperator responsibleOperator = metaPolicy.getResponsibleOperator();
-
-			nonApplicabilityProcessor.setNonApplicabilityRoles(metaPolicy.getNonApplicabilityRoles());
-
-			List<List<PrioritisedRule>> groupedRules = new LinkedList<>();
-			for (Control<FlowControlPolicyMethod, FlowControlPolicySituation> controlPolicy : metaPolicy.getControlPolicies()) {
-				FlowControlPolicyMethod policy = controlPolicy.getControlMethod();
-				nonApplicabilityProcessor.setPolicy(policy);
-
-				if (PolicyValidator.isValid(policy, enforcingSystem, responsibleOperator)) {
-					// prevent ConcurrentModificationException:
-					List<Control<? extends FlowControlRuleMethod, ? extends FlowControlRuleSituation>> controlRules = new LinkedList<>();
-					controlRules.addAll(policy.getFlowControlRules());
-
-					for (Control<? extends FlowControlRuleMethod, ? extends FlowControlRuleSituation> controlRule : controlRules) {
-						FlowControlRuleMethod rule = controlRule.getControlMethod();
-
-						if (!RuleValidator.isValid(rule)) {
-							policy = nonApplicabilityProcessor.apply(controlRule);
-							// if the policy was removed, there are no more policyRules:
-							if (policy == null) {
-								break;
-							}
+			MetaInformationRegistry metaInformation = createMetaInformationRegistry();
+
+			int keptRules = 0;
+			List<AbstractRuleEntity> addedRuleEntities = new LinkedList<>();
+			Map<FlowControlPolicyMethod, PolicyEntity> policyEntities = new HashMap<>();
+			for (List<PrioritisedRule> group : groupedRules) {
+				for (PrioritisedRule rule : group) {
+					// resolve the policy per rule just like processOwlFiles does:
+					FlowControlPolicyMethod policy = rule.getControlPolicy().getControlMethod();
+					PolicyEntity policyEntity = policyEntities.get(policy);
+					if (policyEntity == null) {
+						policyEntity = entityHelper.createPolicyEntityFromControlMethod(policy, metaInformation);
+						String policySignature = RuleSignature.of(policyEntity);
+						PolicyEntity persistedPolicy = persistedPolicies.get(policySignature);
+						if (persistedPolicy == null) { // persisted along with its first added rule
+							persistedPolicies.put(policySignature, policyEntity);
+						} else {
+							policyEntity = persistedPolicy;
 						}
+						policyEntities.put(policy, policyEntity);
 					}
-					if (policy != null) {
-						List<PrioritisedRule> policyRules = new LinkedList<>();
-						// we have yet to iterate once again because the policyRules within the
-						// policy might not only have possibly been removed but altered too:
-						for (Control<? extends FlowControlRuleMethod, ? extends FlowControlRuleSituation> controlRule : policy.getFlowControlRules()) {
-							PrioritisedRule currentRule = new PrioritisedRule(controlRule.getControlMethod());
-							List<PrioritisedRule> splitRules = SharedMethods.splitRuleBasedOnContentSpecifiers(currentRule);
-							policyRules.addAll(splitRules);
-						}
-						if (!policyRules.isEmpty()) {
-							groupedRules.add(policyRules);
+
+					AbstractRuleEntity ruleEntity = entityHelper.createRuleEntityFromPrioritisedRule(rule, metaInformation);
+					ruleEntity.setPolicy(policyEntity);
+					if (ruleEntity instanceof URLRuleEntity) {
+						LinkedList<URLRuleEntity> unchangedRules = persistedRules.get(RuleSignature.of((URLRuleEntity) ruleEntity));
+						if (unchangedRules != null && !unchangedRules.isEmpty()) {
+							unchangedRules.removeFirst();
+							keptRules++;
+							continue;
 						}
 					}
+					ruleEntity.setGeneration(generation.getNumber());
+					addedRuleEntities.add(ruleEntity);
 				}
 			}
+			int addedRules = addedRuleEntities.size();
+			if (addedRules > 0) {
+				databaseHelper.persistRulesInBatches(addedRuleEntities);
+			}
 
-			if (!groupedRules.isEmpty()) {
-				priorityProcessor.setGroupedRules(groupedRules);
-				priorityProcessor.setPolicyPriorityRoles(metaPolicy.getPolicyPriorityRoles());
-				priorityProcessor.setRulePriorityRoles(metaPolicy.getRulePriorityRoles());
-				groupedRules = priorityProcessor.apply();
+			int removedRules = 0;
+			for (LinkedList<URLRuleEntity> outdatedRules : persistedRules.values()) {
+				for (URLRuleEntity outdatedRule : outdatedRules) {
+					databaseHelper.retireRule(outdatedRule, generation.getNumber());
+					removedRules++;
+				}
+			}
+			persistDefaultRule(defaultRule, generation);
+			processedPolicyHashes = hashes;
+			policyGenerationHelper.publishGeneration(generation);
+			deleteOutdatedGenerationsAfterCommit();
 
-				localConflictSolutionProcessor.setGroupedRules(groupedRules);
-				groupedRules = localConflictSolutionProcessor.apply();
+			LOGGER.log(Level.INFO, "Reloaded policies in {0} ms: {1} rules kept, {2} added, {3} removed.",
+								 new Object[]{System.currentTimeMillis() - start, keptRules, addedRules, removedRules});
+			return true;
+		} catch (NullPointerException e) {
+			throw new NullPointerException("Parsing failed most likely due to an unknown element within the OWL-files. If so, this log will contain information of the resource's ExternTypes that could not be parsed. Else this error can also be associated with failed resource injection.");
+		}
+	}
 
-				globalConflictSolutionProcessor.setGroupedRules(groupedRules);
-				globalConflictSolutionProcessor.setGlobalConflictSolutionRole(metaPolicy.getGlobalConflictSolutionRoles());
-				groupedRules = globalConflictSolutionProcessor.apply();
+	@Override
+	@Lock(LockType.WRITE)
+	public boolean reloadChangedPoliciesUnlessPaused() {
+		if (reloadPauses > 0) {
+			isReloadPending = true;
+			return false;
+		}
+		return reloadChangedPolicies();
+	}
 
-				cleanupHelper.setPrioritisedRuleGroups(groupedRules);
-				groupedRules = cleanupHelper.removePrioritisationAndOverlappingRules();
+	@Override
+	@Lock(LockType.WRITE)
+	public void pauseReloads() {
+		reloadPauses++;
+	}
 
-				databaseHelper.deleteInFOEntities();
-				for (List<PrioritisedRule> group : groupedRules) {
-					if (!group.isEmpty()) {
-						FlowControlPolicyMethod policy = group.get(0).getControlPolicy().getControlMethod();
-						PolicyEntity policyEntity = entityHelper.createPolicyEntityFromControlMethod(policy);
-						policyEntity = databaseHelper.mergePolicy(policyEntity);
-
-						for (PrioritisedRule rule : group) {
-							AbstractRuleEntity ruleEntity = entityHelper.createRuleEntityFromPrioritisedRule(rule);
-							ruleEntity.setPolicy(policyEntity); //TODO this duplicates the policies
-							databaseHelper.persistRule(ruleEntity);
+	@Override
+	@Lock(LockType.WRITE)
+	public void resumeReloads() {
+		if (reloadPauses > 0) {
+			reloadPauses--;
+		}
+		if (reloadPauses == 0 && isReloadPending) {
+			isReloadPending = false;
+			reloadChangedPolicies();
+		}
+	}
+
+	/**
+	 * <p>Parses {@code policyFiles} and returns the only meta policy that is
+	 * valid for this search engine.
+	 *
+	 * @param policyFiles the files to parse.
+	 *
+	 * @return the meta policy.
+	 * @throws RuntimeException if there is not exactly one valid meta policy.
+	 */
+	private FlowControlMetaPolicyMethod parseMetaPolicy(List<File> policyFiles) {
+		long start = System.currentTimeMillis();
+		List<Control<FlowControlMetaPolicyMethod, FlowControlMetaPolicySituation>> metaPolicies;
+		if (Boolean.TRUE.equals(PARALLEL_POLICY_PARSING)) {
+			LOGGER.log(Level.FINE, "Started parallel parsing of policy files");
+			metaPolicies = SEFCOParser.getMetaPolicies(parseFilesInParallel(policyFiles));
+		} else {
+			SEFCOParser sefcoParser = new SEFCOParser(new JenaStore());
+
+			for (File policy : policyFiles) {
+				String policyURI = policy.toURI().toASCIIString();
+				sefcoParser.addFile(policyURI);
+			}
+			LOGGER.log(Level.FINE, "Started parsing of policy files");
+			metaPolicies = sefcoParser.getMetaPolicies();
+		}
+		LOGGER.log(Level.INFO, "Parsed {0} policy files in {1} ms.", new Object[]{policyFiles.size(), System.currentTimeMillis() - start});
+		Iterator<Control<FlowControlMetaPolicyMethod, FlowControlMetaPolicySituation>> iterator = metaPolicies.iterator();
+
+		while (iterator.hasNext()) {
+			Control<FlowControlMetaPolicyMethod, FlowControlMetaPolicySituation> controlMetaPolicy = iterator.next();
+			FlowControlMetaPolicyMethod metaPolicy = controlMetaPolicy.getControlMethod();
+
+			if (!MetaPolicyValidator.isValid(metaPolicy, SEFCOEnforcingSystemType.SEARCH_ENGINE)) {
+				iterator.remove();
+			}
+		}
+
+		switch (metaPolicies.size()) {
+			case 0:
+				throw new RuntimeException("No meta policy was found. Polsearchine cannot operate without a meta policy. Aborting.");
+			case 1:
+				LOGGER.log(Level.FINE, "Found exactly one meta policy. Continuing as planned.");
+				break;
+			default:
+				throw new RuntimeException("Multiple meta policies have been found. Polsearchine can only use one policy at once. Aborting.");
+		}
+		// use only one meta policy:
+		return metaPolicies.get(0).getControlMethod();
+	}
+
+	/**
+	 * <p>Validates the policies and rules of {@code metaPolicy}, prioritises
+	 * them, solves conflicts and removes unnecessary rules.
+	 *
+	 * @param metaPolicy the meta policy to process.
+	 *
+	 * @return the processed rules grouped by policy. Empty if there are none.
+	 */
+	private List<List<PrioritisedRule>> processRules(FlowControlMetaPolicyMethod metaPolicy) {
+		// copy some attributes for easier access (and less loop-redundancy):
+		IExternType enforcingSystem = metaPolicy.getEnforcingSystem().getTechnicalSystem().getExternType();
+		ResponsibleOperator responsibleOperator = metaPolicy.getResponsibleOperator();
+
+		nonApplicabilityProcessor.setNonApplicabilityRoles(metaPolicy.getNonApplicabilityRoles());
+
+		List<List<PrioritisedRule>> groupedRules = new LinkedList<>();
+		for (Control<FlowControlPolicyMethod, FlowControlPolicySituation> controlPolicy : metaPolicy.getControlPolicies()) {
+			FlowControlPolicyMethod policy = controlPolicy.getControlMethod();
+			nonApplicabilityProcessor.setPolicy(policy);
+
+			if (PolicyValidator.isValid(policy, enforcingSystem, responsibleOperator)) {
+				// prevent ConcurrentModificationException:
+				List<Control<? extends FlowControlRuleMethod, ? extends FlowControlRuleSituation>> controlRules = new LinkedList<>();
+				controlRules.addAll(policy.getFlowControlRules());
+
+				for (Control<? extends FlowControlRuleMethod, ? extends FlowControlRuleSituation> controlRule : controlRules) {
+					FlowControlRuleMethod rule = controlRule.getControlMethod();
+
+					if (!RuleValidator.isValid(rule)) {
+						policy = nonApplicabilityProcessor.apply(controlRule);
+						// if the policy was removed, there are no more policyRules:
+						if (policy == null) {
+							break;
 						}
 					}
 				}
-			} else {
-				LOGGER.log(Level.INFO, "No rules found, therefore not using any policies either.");
-				// clear the db in the if-else-branches individually to make sure the db is only
-				// manipulated when all prior policy processing succeeded:
-				databaseHelper.deleteInFOEntities();
+				if (policy != null) {
+					List<PrioritisedRule> policyRules = new LinkedList<>();
+					// we have yet to iterate once again because the policyRules within the
+					// policy might not only have possibly been removed but altered too:
+					for (Control<? extends FlowControlRuleMethod, ? extends FlowControlRuleSituation> controlRule : policy.getFlowControlRules()) {
+						PrioritisedRule currentRule = new PrioritisedRule(controlRule.getControlMethod());
+						List<PrioritisedRule> splitRules = SharedMethods.splitRuleBasedOnContentSpecifiers(currentRule);
+						policyRules.addAll(splitRules);
+					}
+					if (!policyRules.isEmpty()) {
+						groupedRules.add(policyRules);
+					}
+				}
 			}
-			// persist default rule:
-			FlowControlRuleMethod defaultRuleMethod = metaPolicy.getDefaultRule().getControlMethod();
-			DefaultRuleEntity defaultRuleEntity = entityHelper.createDefaultRuleEntityFromControlMethod(defaultRuleMethod);
-			databaseHelper.persistsDefaultRule(defaultRuleEntity);
+		}
 
-			LOGGER.log(Level.INFO, "Everything has been persisted as planned. Polsearchine should be fully operational in no time.");
-		} catch (NullPointerException e) {
-			throw new NullPointerException("Parsing failed most likely due to an unknown element within the OWL-files. If so, this log will contain information of the resource's ExternTypes that could not be parsed. Else this error can also be associated with failed resource injection.");
+		if (!groupedRules.isEmpty()) {
+			priorityProcessor.setGroupedRules(groupedRules);
+			priorityProcessor.setPolicyPriorityRoles(metaPolicy.getPolicyPriorityRoles());
+			priorityProcessor.setRulePriorityRoles(metaPolicy.getRulePriorityRoles());
+			groupedRules = priorityProcessor.apply();
+
+			localConflictSolutionProcessor.setGroupedRules(groupedRules);
+			groupedRules = localConflictSolutionProcessor.apply();
+
+			globalConflictSolutionProcessor.setGroupedRules(groupedRules);
+			globalConflictSolutionProcessor.setGlobalConflictSolutionRole(metaPolicy.getGlobalConflictSolutionRoles());
+			groupedRules = globalConflictSolutionProcessor.apply();
+
+			cleanupHelper.setPrioritisedRuleGroups(groupedRules);
+			groupedRules = cleanupHelper.removePrioritisationAndOverlappingRules();
+		}
+		return groupedRules;
+	}
+
+	/**
+	 * <p>Deletes the rules of generations before the published one. This bean's
+	 * write lock keeps reloads from running concurrently and from linking to
+	 * policies and meta information that are about to be deleted.
+	 *
+	 * <p>Generations replaced by one that has not been published yet when this
+	 * runs are deleted on the next run.
+	 */
+	@Override
+	@Asynchronous
+	@Lock(LockType.WRITE)
+	public void deleteOutdatedGenerations() {
+		databaseHelper.deleteOutdatedGenerations(policyGenerationHelper.getCurrentGeneration());
+	}
+
+	/**
+	 * <p>Starts {@link #deleteOutdatedGenerations()} once the current
+	 * transaction has been committed, i.e. after the new generation has been
+	 * published.
+	 */
+	private void deleteOutdatedGenerationsAfterCommit() {
+		final IPolicyProcessingLocal asynchronousSelf = sessionContext.getBusinessObject(IPolicyProcessingLocal.class);
+		if (transactionSynchronizationRegistry.getTransactionKey() == null) {
+			asynchronousSelf.deleteOutdatedGenerations();
+			return;
+		}
+		transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+			@Override
+			public void beforeCompletion() {
+			}
+
+			@Override
+			public void afterCompletion(int status) {
+				if (status == Status.STATUS_COMMITTED) {
+					asynchronousSelf.deleteOutdatedGenerations();
+				}
+			}
+		});
+	}
+
+	/**
+	 * @param metaPolicy whose default rule should be created.
+	 *
+	 * @return the not yet persisted default rule of {@code metaPolicy}.
+	 */
+	private DefaultRuleEntity createDefaultRule(FlowControlMetaPolicyMethod metaPolicy) {
+		FlowControlRuleMethod defaultRuleMethod = metaPolicy.getDefaultRule().getControlMethod();
+		return entityHelper.createDefaultRuleEntityFromControlMethod(defaultRuleMethod);
+	}
+
+	/**
+	 * @param defaultRule to persist.
+	 * @param generation  the default rule is part of.
+	 */
+	private void persistDefaultRule(DefaultRuleEntity defaultRule, PolicyGeneration generation) {
+		defaultRule.setGeneration(generation.getNumber());
+		databaseHelper.persistsDefaultRule(defaultRule);
+	}
+
+	/**
+	 * @return a generation number that has not been used by any persisted or
+	 *          published generation.
+	 */
+	private long getNextGenerationNumber() {
+		long current = policyGenerationHelper.getCurrentGeneration().getNumber();
+		return Math.max(current, databaseQueryHelper.getLatestPersistedGeneration()) + 1;
+	}
+
+	/**
+	 * <p>Rules of older generations are kept until they are deleted
+	 * asynchronously. Therefore, new rules have to reference the persisted meta
+	 * information instead of duplicating its URIs. The write lock keeps it from
+	 * being deleted meanwhile.
+	 *
+	 * @see #deleteOutdatedGenerations()
+	 * @return registry seeded with all persisted meta information.
+	 */
+	private MetaInformationRegistry createMetaInformationRegistry() {
+		MetaInformationRegistry metaInformation = new MetaInformationRegistry();
+		metaInformation.addControlledTopics(databaseQueryHelper.getControlledTopics());
+		metaInformation.addRuleDataProviders(databaseQueryHelper.getRuleDataProviders());
+		metaInformation.addLegalAuthorizations(databaseQueryHelper.getLegalAuthorizations());
+		metaInformation.addOrganizationalMotivations(databaseQueryHelper.getOrganizationalMotivations());
+		return metaInformation;
+	}
+
+	/**
+	 * <p>Parses every file asynchronously and collects the results in the order
+	 * of {@code policyFiles}.
+	 *
+	 * @param policyFiles the files to parse.
+	 *
+	 * @return the unlinked results in the order of {@code policyFiles}.
+	 */
+	private List<SEFCOParser.ParsedControls> parseFilesInParallel(List<File> policyFiles) {
+		List<Future<SEFCOParser.ParsedControls>> futures = new ArrayList<>(policyFiles.size());
+		for (File policy : policyFiles) {
+			futures.add(policyFileParser.parseFile(policy.toURI().toASCIIString()));
+		}
+		List<SEFCOParser.ParsedControls> parsedFiles = new ArrayList<>(futures.size());
+		try {
+			for (Future<SEFCOParser.ParsedControls> future : futures) {
+				parsedFiles.add(future.get());
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while parsing the policy files.", ex);
+		} catch (ExecutionException ex) {
+			throw new RuntimeException("A policy file could not be parsed.", ex.getCause());
+		} finally {
+			for (Future<SEFCOParser.ParsedControls> future : futures) {
+				future.cancel(true);
+			}
+		}
+		return parsedFiles;
+	}
+
+	private static int countRules(List<List<PrioritisedRule>> groupedRules) {
+		int ruleCount = 0;
+		for (List<PrioritisedRule> group : groupedRules) {
+			ruleCount += group.size();
+		}
+		return ruleCount;
+	}
+
+	private static void resetPeakHeapUsage() {
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+			}
+		}
+	}
+
+	/**
+	 * @return sum of the heap memory pools' peak usages in bytes since
+	 *          {@link #resetPeakHeapUsage()} was called.
+	 */
+	private static long getPeakHeapUsage() {
+		long peakUsage = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				peakUsage += pool.getPeakUsage().getUsed();
+			}
+		}
+		return peakUsage;
+	}
+
+	/**
+	 * <p>Lets {@code OWL_PATH} be rescanned so that changes are noticed even if
+	 * the directory watcher has not reported them yet.
+	 *
+	 * @return the stored policies' hashes mapped by their absolute path sorted
+	 *          by file name.
+	 */
+	private Map<String, String> rescanPolicyFiles() {
+		try {
+			return policyIOBeanFacade.rescanStoredPolicies();
+		} catch (IOException ex) {
+			throw new RuntimeException("The policy files could not be read.", ex);
+		}
+	}
+
+	/**
+	 * @param hashes of policy files mapped by their absolute path.
+	 *
+	 * @return the policy files in the order of {@code hashes}.
+	 */
+	private static ArrayList<File> toFiles(Map<String, String> hashes) {
+		ArrayList<File> policyFiles = new ArrayList<>(hashes.size());
+		for (String path : hashes.keySet()) {
+			policyFiles.add(new File(path));
+		}
+		return policyFiles;
+	}
+
+	private static void logChangedFiles(Map<String, String> previousHashes, Map<String, String> currentHashes) {
+		for (Map.Entry<String, String> entry : currentHashes.entrySet()) {
+			String previousHash = previousHashes.get(entry.getKey());
+			if (previousHash == null) {
+				LOGGER.log(Level.INFO, "Policy file added: {0}", entry.getKey());
+			} else if (!previousHash.equals(entry.getValue())) {
+				LOGGER.log(Level.INFO, "Policy file changed: {0}", entry.getKey());
+			}
+		}
+		for (String path : previousHashes.keySet()) {
+			if (!currentHashes.containsKey(path)) {
+				LOGGER.log(Level.INFO, "Policy file removed: {0}", path);
+			}
 		}
 	}
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.policyProcessing;
+
+import de.uni_koblenz.aggrimm.icp.facades.local.IPolicyProcessingLocal;
+import de.uni_koblenz.aggrimm.icp.facades.local.IPolicyWatcherLocal;
+import de.uni_koblenz.aggrimm.icp.facades.remote.IPolicyIOBeanRemote;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.Timeout;
+import javax.ejb.Timer;
+import javax.ejb.TimerConfig;
+import javax.ejb.TimerService;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+
+/**
+ * <p>Watches {@code OWL_PATH} for changes of policy files. If
+ * {@code INCREMENTAL_POLICY_RELOAD} is enabled, changed policies are reloaded
+ * automatically; otherwise they are only loaded on the next start. In any
+ * case, the listing of stored policies is kept up to date.
+ *
+ * <p>{@code OWL_PATH} is polled by a timer of the container, so listeners run
+ * on container threads. Polls are skipped while the previous one still
+ * notifies listeners.
+ *
+ * <p>Other beans can register their own listeners, e.g. for caching
+ * information about the stored files.
+ *
+ * @author mruster
+ */
+@Startup
+@Singleton
+@DependsOn("InitialisationBean")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class PolicyWatcherBean implements Serializable, IPolicyWatcherLocal {
+
+	private static final long serialVersionUID = -7470093816128735502L;
+	/**
+	 * <p>Milliseconds without further changes before listeners are notified.
+	 */
+	private static final long QUIET_PERIOD = 1000;
+	/**
+	 * <p>Milliseconds between two polls of {@code OWL_PATH}.
+	 */
+	private static final long POLL_INTERVAL = 250;
+	private final static Logger LOGGER = Logger.getLogger(PolicyWatcherBean.class.getCanonicalName());
+	@Resource(name = "OWL_PATH")
+	private String OWL_PATH;
+	@Resource(name = "INCREMENTAL_POLICY_RELOAD")
+	private Boolean INCREMENTAL_POLICY_RELOAD;
+	@EJB
+	private IPolicyProcessingLocal policyProcessingHelper;
+	@EJB
+	private IPolicyIOBeanRemote policyIOBeanFacade;
+	@Resource
+	private TimerService timerService;
+	private transient DirectoryWatcher watcher;
+	private final AtomicBoolean isPolling = new AtomicBoolean();
+
+	@PostConstruct
+	public void startWatching() {
+		try {
+			// uploads are only complete once moved to a policy file name:
+			watcher = new DirectoryWatcher(Paths.get(OWL_PATH), QUIET_PERIOD, IPolicyIOBeanRemote.UPLOAD_FILE_SUFFIX);
+		} catch (IOException ex) {
+			LOGGER.log(Level.SEVERE, "The OWL path cannot be watched. Changed policies will only be loaded on restart.", ex);
+			return;
+		}
+		watcher.addListener(new DirectoryWatcher.Listener() {
+			@Override
+			public void directoryChanged(Path directory) {
+				try {
+					policyIOBeanFacade.rescanStoredPolicies();
+				} catch (IOException ex) {
+					LOGGER.log(Level.WARNING, "The stored policies could not be rescanned.", ex);
+				}
+			}
+		});
+		if (Boolean.TRUE.equals(INCREMENTAL_POLICY_RELOAD)) {
+			watcher.addListener(new DirectoryWatcher.Listener() {
+				@Override
+				public void directoryChanged(Path directory) {
+					policyProcessingHelper.reloadChangedPoliciesUnlessPaused();
+				}
+			});
+			LOGGER.log(Level.INFO, "Watching {0} for changed policies.", OWL_PATH);
+		}
+		timerService.createIntervalTimer(POLL_INTERVAL, POLL_INTERVAL, new TimerConfig(null, false));
+	}
+
+	/**
+	 * <p>Lets the watcher take the events that occurred since the last poll
+	 * and notify its listeners. No transaction is used, so that every listener
+	 * runs its business methods in their own transactions.
+	 *
+	 * @param timer the polling timer.
+	 */
+	@Timeout
+	@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+	public void poll(Timer timer) {
+		if (!isPolling.compareAndSet(false, true)) {
+			return; // the previous poll is still reloading
+		}
+		try {
+			watcher.poll();
+		} finally {
+			isPolling.set(false);
+		}
+	}
+
+	@PreDestroy
+	public void stopWatching() {
+		for (Timer timer : timerService.getTimers()) {
+			timer.cancel();
+		}
+		if (watcher != null) {
+			try {
+				watcher.close();
+			} catch (IOException ex) {
+				LOGGER.log(Level.WARNING, "The OWL path watcher could not be closed.", ex);
+			}
+		}
+	}
+
+	@Override
+	public void addListener(DirectoryWatcher.Listener listener) {
+		if (watcher != null) {
+			watcher.addListener(listener);
+		}
+	}
+
+	@Override
+	public void removeListener(DirectoryWatcher.Listener listener) {
+		if (watcher != null) {
+			watcher.removeListener(listener);
+		}
+	}
+}
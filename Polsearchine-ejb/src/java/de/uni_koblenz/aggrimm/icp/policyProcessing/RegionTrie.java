@@ -0,0 +1,263 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.policyProcessing;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>Path compressed prefix trie that maps regions (URLs as {@code String}s)
+ * to rule ids of a {@code CompiledRuleTable}. Several ids may be stored for
+ * the same region.
+ *
+ * <p>Besides exact lookups, the trie answers the two questions asked when
+ * looking for overlapping rules in time proportional to the length of the
+ * region: which ids are stored for regions that start with a given region
+ * and which ids are stored for regions that a given region starts with.
+ *
+ * <p>This class is not thread safe.
+ *
+ * @see CompiledRuleTable
+ *
+ * @author mruster
+ */
+public class RegionTrie {
+
+	private static final int[] NO_IDS = new int[0];
+	private final Node root = new Node("");
+
+	/**
+	 * <p>Adds {@code id} for {@code region}.
+	 *
+	 * @param region the rule's region.
+	 * @param id     of the rule to store.
+	 */
+	public void put(String region, int id) {
+		Node node = root;
+		int position = 0;
+
+		while (position < region.length()) {
+			char key = region.charAt(position);
+			Node child = node.getChild(key);
+			if (child == null) {
+				child = new Node(region.substring(position));
+				node.putChild(key, child);
+				node = child;
+				break;
+			}
+
+			int common = commonPrefixLength(child.label, region, position);
+			if (common < child.label.length()) { // split the edge
+				Node intermediate = new Node(child.label.substring(0, common));
+				child.label = child.label.substring(common);
+				intermediate.putChild(child.label.charAt(0), child);
+				node.putChild(key, intermediate);
+				child = intermediate;
+			}
+			node = child;
+			position += common;
+		}
+		node.addId(id);
+	}
+
+	/**
+	 * <p>Removes {@code id} from {@code region}.
+	 *
+	 * @param region the rule's region.
+	 * @param id     of the rule to remove.
+	 *
+	 * @return true if {@code id} was stored for {@code region}.
+	 */
+	public boolean remove(String region, int id) {
+		Node node = findNode(region);
+		return node != null && node.removeId(id);
+	}
+
+	/**
+	 * @param region to look up.
+	 *
+	 * @return the ids stored for exactly {@code region}. The returned array is
+	 *          a copy and may be empty.
+	 */
+	public int[] get(String region) {
+		Node node = findNode(region);
+		if (node == null || node.idCount == 0) {
+			return NO_IDS;
+		}
+		return Arrays.copyOf(node.ids, node.idCount);
+	}
+
+	/**
+	 * <p>Removes all ids whose region starts with {@code prefix} (including
+	 * the ones stored for {@code prefix} itself).
+	 *
+	 * @param prefix  of the regions to remove.
+	 * @param removed will have the removed ids set.
+	 */
+	public void removeStartingWith(String prefix, BitSet removed) {
+		Node node = root;
+		int position = 0;
+
+		while (position < prefix.length()) {
+			char key = prefix.charAt(position);
+			Node child = node.getChild(key);
+			if (child == null) {
+				return;
+			}
+
+			int remaining = prefix.length() - position;
+			if (child.label.length() >= remaining) { // prefix ends on this edge
+				if (!prefix.regionMatches(position, child.label, 0, remaining)) {
+					return;
+				}
+				node.children.remove(key);
+				collectSubtree(child, removed);
+				return;
+			}
+			if (!prefix.startsWith(child.label, position)) {
+				return;
+			}
+			node = child;
+			position += child.label.length();
+		}
+		// only reached for the empty prefix:
+		collectSubtree(node, removed);
+		node.idCount = 0;
+		node.children = null;
+	}
+
+	/**
+	 * <p>Finds all ids whose region is a prefix of {@code region} (including
+	 * the ones stored for {@code region} itself). Ids of shorter regions come
+	 * first.
+	 *
+	 * @param region to find the prefixes of.
+	 *
+	 * @return the found ids. The array may be empty.
+	 */
+	public int[] getPrefixesOf(String region) {
+		int[] prefixing = NO_IDS;
+		int count = 0;
+		Node node = root;
+		int position = 0;
+
+		while (true) {
+			if (node.idCount > 0) {
+				if (count + node.idCount > prefixing.length) {
+					prefixing = Arrays.copyOf(prefixing, Math.max(count + node.idCount, prefixing.length * 2));
+				}
+				System.arraycopy(node.ids, 0, prefixing, count, node.idCount);
+				count += node.idCount;
+			}
+			if (position >= region.length()) {
+				break;
+			}
+			Node child = node.getChild(region.charAt(position));
+			if (child == null || !region.startsWith(child.label, position)) {
+				break;
+			}
+			node = child;
+			position += child.label.length();
+		}
+		return count == prefixing.length ? prefixing : Arrays.copyOf(prefixing, count);
+	}
+
+	private Node findNode(String region) {
+		Node node = root;
+		int position = 0;
+
+		while (position < region.length()) {
+			Node child = node.getChild(region.charAt(position));
+			if (child == null || !region.startsWith(child.label, position)) {
+				return null;
+			}
+			node = child;
+			position += child.label.length();
+		}
+		return node;
+	}
+
+	private static void collectSubtree(Node subtreeRoot, BitSet ids) {
+		Deque<Node> pending = new ArrayDeque<>();
+		pending.push(subtreeRoot);
+		while (!pending.isEmpty()) {
+			Node node = pending.pop();
+			for (int i = 0; i < node.idCount; i++) {
+				ids.set(node.ids[i]);
+			}
+			if (node.children != null) {
+				for (Node child : node.children.values()) {
+					pending.push(child);
+				}
+			}
+		}
+	}
+
+	private static int commonPrefixLength(String label, String region, int offset) {
+		int maximum = Math.min(label.length(), region.length() - offset);
+		int i = 0;
+		while (i < maximum && label.charAt(i) == region.charAt(offset + i)) {
+			i++;
+		}
+		return i;
+	}
+
+	private static class Node {
+
+		private String label;
+		private Map<Character, Node> children;
+		private int[] ids = NO_IDS;
+		private int idCount;
+
+		Node(String label) {
+			this.label = label;
+		}
+
+		Node getChild(char key) {
+			return children == null ? null : children.get(key);
+		}
+
+		void putChild(char key, Node child) {
+			if (children == null) {
+				children = new HashMap<>(4);
+			}
+			children.put(key, child);
+		}
+
+		void addId(int id) {
+			if (idCount == ids.length) {
+				ids = Arrays.copyOf(ids, Math.max(2, idCount * 2));
+			}
+			ids[idCount++] = id;
+		}
+
+		boolean removeId(int id) {
+			for (int i = 0; i < idCount; i++) {
+				if (ids[i] == id) {
+					ids[i] = ids[--idCount];
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.policyProcessing;
+
+import de.uni_koblenz.aggrimm.icp.entities.info.PolicyEntity;
+import de.uni_koblenz.aggrimm.icp.entities.info.URLRuleEntity;
+import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.AbstractMetaInformationEntity;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>Creates signatures of rule and policy entities that contain everything
+ * that is persisted about them except for their identifiers. Two entities
+ * with equal signatures are interchangeable, which allows to compare a newly
+ * processed set of rules with the persisted one.
+ *
+ * @author mruster
+ */
+public final class RuleSignature {
+
+	private static final char SEPARATOR = '\n';
+
+	private RuleSignature() {
+	}
+
+	/**
+	 * @param rule the rule, including its policy.
+	 *
+	 * @return the signature of {@code rule}.
+	 */
+	public static String of(URLRuleEntity rule) {
+		StringBuilder signature = new StringBuilder(256);
+		signature.append(rule.getRegionURI()).append(SEPARATOR)
+						.append(rule.getContentURI()).append(SEPARATOR)
+						.append(rule.isInformationFlowAllowed()).append(SEPARATOR)
+						.append(rule.getPriority()).append(SEPARATOR);
+		if (rule.getRuleDataProvider() != null) {
+			signature.append(rule.getRuleDataProvider().getUri());
+		}
+		signature.append(SEPARATOR);
+		appendSorted(signature, rule.getControlledTopics());
+		signature.append(SEPARATOR);
+		if (rule.getPolicy() != null) {
+			signature.append(of(rule.getPolicy()));
+		}
+		return signature.toString();
+	}
+
+	/**
+	 * @param policy the policy.
+	 *
+	 * @return the signature of {@code policy}.
+	 */
+	public static String of(PolicyEntity policy) {
+		StringBuilder signature = new StringBuilder(128);
+		appendSorted(signature, policy.getLegalAuthorizations());
+		signature.append(SEPARATOR);
+		appendSorted(signature, policy.getOrganizationalMotivations());
+		return signature.toString();
+	}
+
+	private static void appendSorted(StringBuilder signature, List<? extends AbstractMetaInformationEntity> metaInformation) {
+		if (metaInformation == null) {
+			return;
+		}
+		List<String> uris = new ArrayList<>(metaInformation.size());
+		for (AbstractMetaInformationEntity entity : metaInformation) {
+			uris.add(String.valueOf(entity.getUri()));
+		}
+		Collections.sort(uris);
+		for (String uri : uris) {
+			signature.append(uri).append(' ');
+		}
+	}
+}
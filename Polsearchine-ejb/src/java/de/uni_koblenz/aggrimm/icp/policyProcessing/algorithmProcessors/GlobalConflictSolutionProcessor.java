@@ -26,6 +26,7 @@ import de.uni_koblenz.aggrimm.icp.info.parser.utils.AlgorithmType;
 import java.io.Serializable;
 import java.util.LinkedList;
 import java.util.List;
+import javax.annotation.Resource;
 import javax.ejb.LocalBean;
 import javax.ejb.Singleton;
 
@@ -40,6 +41,13 @@ public class GlobalConflictSolutionProcessor implements Serializable, IAlgorithm
 	private static final long serialVersionUID = 1500147692048857394L;
 	private List<GlobalConflictSolutionRole> globalConflictSolutionRoles;
 	private List<List<PrioritisedRule>> groupedRules;
+	/**
+	 * <p>If false, conflict solution algorithms are not executed at all. Before
+	 * conflicts of different {@code IExternType}s were compared correctly, no
+	 * conflict has ever been detected. Therefore, this keeps the former result.
+	 */
+	@Resource(name = "DETECT_RULE_CONFLICTS")
+	private Boolean DETECT_RULE_CONFLICTS;
 
 	public GlobalConflictSolutionProcessor() {
 		this.globalConflictSolutionRoles = new LinkedList<>();
@@ -67,10 +75,14 @@ public class GlobalConflictSolutionProcessor implements Serializable, IAlgorithm
 		for (GlobalConflictSolutionRole role : globalConflictSolutionRoles) {
 			switch ((AlgorithmType) role.getAlgorithm().getExternType()) {
 				case DISCARD_AFFECTED_POLICIES_ALGORITHM:
-					groupedRules = new DiscardAffectedPoliciesAlgorithm().apply(groupedRules, false);
+					if (DETECT_RULE_CONFLICTS) {
+						groupedRules = new DiscardAffectedPoliciesAlgorithm().apply(groupedRules, false);
+					}
 					break;
 				case DISCARD_AFFECTED_RULES_ALGORITHM:
-					groupedRules = new DiscardConflictingRulesAlgorithm().apply(groupedRules, false);
+					if (DETECT_RULE_CONFLICTS) {
+						groupedRules = new DiscardConflictingRulesAlgorithm().apply(groupedRules, false);
+					}
 					break;
 				default:
 					throw new UnsupportedOperationException("An unknown global conflict solution algorithm should have been executed.");
@@ -27,6 +27,7 @@ import de.uni_koblenz.aggrimm.icp.info.parser.utils.AlgorithmType;
 import java.io.Serializable;
 import java.util.LinkedList;
 import java.util.List;
+import javax.annotation.Resource;
 import javax.ejb.LocalBean;
 import javax.ejb.Singleton;
 
@@ -40,6 +41,13 @@ public class LocalConflictSolutionProcessor implements Serializable, IAlgorithmP
 
 	private static final long serialVersionUID = 2852668017510210022L;
 	private List<List<PrioritisedRule>> groupedRules;
+	/**
+	 * <p>If false, conflict solution algorithms are not executed at all. Before
+	 * conflicts of different {@code IExternType}s were compared correctly, no
+	 * conflict has ever been detected. Therefore, this keeps the former result.
+	 */
+	@Resource(name = "DETECT_RULE_CONFLICTS")
+	private Boolean DETECT_RULE_CONFLICTS;
 
 	@Override
 	public void setGroupedRules(List<List<PrioritisedRule>> groupedRules) {
@@ -72,7 +80,9 @@ public class LocalConflictSolutionProcessor implements Serializable, IAlgorithmP
 			for (LocalConflictSolutionRole role : localConflictSolutionRoles) {
 				switch ((AlgorithmType) role.getAlgorithm().getExternType()) {
 					case DISCARD_CONFLICTING_RULES_ALGORITHM:
-						wrappedGroup = new DiscardConflictingRulesAlgorithm().apply(wrappedGroup, true);
+						if (DETECT_RULE_CONFLICTS) {
+							wrappedGroup = new DiscardConflictingRulesAlgorithm().apply(wrappedGroup, true);
+						}
 						break;
 					default:
 						throw new UnsupportedOperationException("An unknown global conflict solution algorithm should have been executed.");
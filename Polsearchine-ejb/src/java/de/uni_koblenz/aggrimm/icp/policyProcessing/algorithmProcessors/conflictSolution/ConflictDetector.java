@@ -0,0 +1,133 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.policyProcessing.algorithmProcessors.conflictSolution;
+
+import de.uni_koblenz.aggrimm.icp.policyProcessing.CompiledRuleTable;
+import de.uni_koblenz.aggrimm.icp.policyProcessing.RegionTrie;
+import de.uni_koblenz.aggrimm.icp.policyProcessing.algorithmProcessors.prioritisation.wrappers.PrioritisedRule;
+import de.uni_koblenz.aggrimm.icp.policyProcessing.inFOParser.SharedMethods;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * <p>Finds all conflicts within a group of rules in a single pass. Two rules
+ * are in conflict if their regions overlap and they are of a different
+ * {@code IExternType}.
+ *
+ * <p>The rules following the currently visited rule are kept in one
+ * {@code RegionTrie} per policy and {@code IExternType}. Therefore, only the
+ * rules along the visited rule's region are looked at and each of them is in
+ * conflict with the visited rule.
+ *
+ * @see CompiledRuleTable
+ *
+ * @author mruster
+ */
+public class ConflictDetector {
+
+	private ConflictDetector() {
+	}
+
+	/**
+	 * <p>Finds all sets of conflicting rules in the order
+	 * {@code ConflictSolutionAlgorithm} would find them one after the other if
+	 * every found set was removed from {@code ruleGroup} before looking for the
+	 * next one. A set contains the rules
+	 * in conflict with a reference rule (in no particular order) followed by the
+	 * reference rule itself. A rule is part of one set at most.
+	 *
+	 * <p>Only the first region will be used!
+	 *
+	 * @see
+	 * SharedMethods#getFlowControlRuleMethodRegion(de.uni_koblenz.aggrimm.icp.info.model.technical.flow.define.FlowControlRuleMethod)
+	 * @param ruleGroup          {@code List} with rules that can be in
+	 *                            conflict with each other. It will not be
+	 *                            modified.
+	 * @param mustBeOfSamePolicy is bool and guarantees that conflicts will only
+	 *                            be detected if two (or more) rules are from
+	 *                            the same policy.
+	 *
+	 * @return all found conflicts. The {@code List} is empty if there are none.
+	 */
+	public static List<List<PrioritisedRule>> findConflictingRules(List<PrioritisedRule> ruleGroup, boolean mustBeOfSamePolicy) {
+		CompiledRuleTable table = new CompiledRuleTable(Collections.singletonList(ruleGroup));
+		int policyCount = mustBeOfSamePolicy ? table.getPolicyCount() : 1;
+		RegionTrie[][] followingRules = new RegionTrie[policyCount][table.getExternTypeCount()];
+		for (int id = 0; id < table.size(); id++) {
+			RegionTrie[] policyRules = followingRules[getPolicy(table, id, mustBeOfSamePolicy)];
+			int externType = table.getExternType(id);
+			if (policyRules[externType] == null) {
+				policyRules[externType] = new RegionTrie();
+			}
+			policyRules[externType].put(table.getRegion(id), id);
+		}
+
+		List<List<PrioritisedRule>> conflicts = new LinkedList<>();
+		BitSet conflictingRules = new BitSet(table.size());
+		BitSet conflict = new BitSet(table.size());
+		for (int referenceRule = 0; referenceRule < table.size(); referenceRule++) {
+			if (conflictingRules.get(referenceRule)) {
+				continue;
+			}
+			String referenceURI = table.getRegion(referenceRule);
+			int referenceExternType = table.getExternType(referenceRule);
+			RegionTrie[] policyRules = followingRules[getPolicy(table, referenceRule, mustBeOfSamePolicy)];
+			policyRules[referenceExternType].remove(referenceURI, referenceRule);
+
+			for (int externType = 0; externType < policyRules.length; externType++) {
+				if (externType == referenceExternType || policyRules[externType] == null) {
+					// ignore non-conflicting (but overlapping) rules
+					continue;
+				}
+				RegionTrie currentRules = policyRules[externType];
+
+				if (table.isWebSite(referenceRule)) {
+					// reference rule contains current rules:
+					currentRules.removeStartingWith(referenceURI, conflict);
+				}
+				for (int currentRule : currentRules.getPrefixesOf(referenceURI)) {
+					String currentURI = table.getRegion(currentRule);
+					// current rule contains reference rule or both rules regulate over the same region:
+					if (table.isWebSite(currentRule) || referenceURI.equals(currentURI)) {
+						currentRules.remove(currentURI, currentRule);
+						conflict.set(currentRule);
+					}
+				}
+			}
+
+			if (!conflict.isEmpty()) {
+				LinkedList<PrioritisedRule> conflictRules = new LinkedList<>();
+				for (int currentRule = conflict.nextSetBit(referenceRule + 1); currentRule >= 0; currentRule = conflict.nextSetBit(currentRule + 1)) {
+					conflictRules.add(table.getRule(currentRule));
+				}
+				conflictRules.add(table.getRule(referenceRule));
+				conflict.set(referenceRule);
+				conflictingRules.or(conflict);
+				conflicts.add(conflictRules);
+				conflict.clear();
+			}
+		}
+		return conflicts;
+	}
+
+	private static int getPolicy(CompiledRuleTable table, int id, boolean mustBeOfSamePolicy) {
+		return mustBeOfSamePolicy ? table.getPolicy(id) : 0;
+	}
+}
@@ -22,8 +22,15 @@ import de.uni_koblenz.aggrimm.icp.policyProcessing.inFOParser.SharedMethods;
 import de.uni_koblenz.aggrimm.icp.policyProcessing.inFOParser.externTypes.SEFCOURLContentType;
 import de.uni_koblenz.aggrimm.icp.info.model.technical.flow.define.FlowControlPolicyMethod;
 import de.uni_koblenz.aggrimm.icp.info.parser.utils.IExternType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * <p>Abstract class to implement the strategy pattern for conflict solution
@@ -48,8 +55,36 @@ public abstract class ConflictSolutionAlgorithm {
 	protected abstract List<List<PrioritisedRule>> executeAlgorithm(List<List<PrioritisedRule>> groupedRules, int affectedGroupIndex, List<PrioritisedRule> conflictingRules);
 
 	/**
-	 * <p>This method iterates over prioritised groups again and again, executing
-	 * this object's algorithm, until all conflicts have been solved.
+	 * <p>This method is called by {@code apply} with all conflicts that were
+	 * found. It executes this object's algorithm for every affected group,
+	 * beginning with the last one so that removing a group does not shift the
+	 * indices of the groups still to be handled.
+	 *
+	 * @param groupedRules            rules that contain conflicts to be solved.
+	 * @param conflictingRulesByGroup all conflicting rules of a group mapped to
+	 *                                 the group's index.
+	 *
+	 * @return rules split up into sorted (prioritised) groups.
+	 */
+	protected List<List<PrioritisedRule>> executeAlgorithm(List<List<PrioritisedRule>> groupedRules, NavigableMap<Integer, List<PrioritisedRule>> conflictingRulesByGroup) {
+		for (Map.Entry<Integer, List<PrioritisedRule>> affectedGroup : conflictingRulesByGroup.descendingMap().entrySet()) {
+			groupedRules = executeAlgorithm(groupedRules, affectedGroup.getKey(), affectedGroup.getValue());
+		}
+		return groupedRules;
+	}
+
+	/**
+	 * <p>This method finds all conflicts of all groups in a single pass and
+	 * executes this object's algorithm on them afterwards.
+	 *
+	 * <p>This gives the same result as solving one conflict after the other
+	 * because conflicts only exist within a group and the algorithms remove all
+	 * rules of a solved conflict. If assertions are enabled, the found conflicts
+	 * are compared with the ones
+	 * {@link #findFirstConflictingRules(java.util.List, boolean)} finds one
+	 * after the other.
+	 *
+	 * @see ConflictDetector#findConflictingRules(java.util.List, boolean)
 	 *
 	 * @param groupedRules                     {@code List} of prioritised
 	 *                                         {@code List} of
@@ -63,17 +98,59 @@ public abstract class ConflictSolutionAlgorithm {
 	 * @return groupedRules
 	 */
 	public List<List<PrioritisedRule>> apply(List<List<PrioritisedRule>> groupedRules, boolean isLocalConflictSolutionAlgorithm) {
-		for (int i = 0; i < groupedRules.size(); i++) {
-			List<PrioritisedRule> group = groupedRules.get(i);
-			List<PrioritisedRule> conflictingRules = findFirstConflictingRules(group, isLocalConflictSolutionAlgorithm);
+		NavigableMap<Integer, List<PrioritisedRule>> conflictingRulesByGroup = new TreeMap<>();
+		int i = 0;
+		for (List<PrioritisedRule> group : groupedRules) {
+			List<List<PrioritisedRule>> conflicts = ConflictDetector.findConflictingRules(group, isLocalConflictSolutionAlgorithm);
+			assert (isFindingSameConflicts(group, isLocalConflictSolutionAlgorithm, conflicts)) : "Single pass conflict detection differs from finding one conflict after the other.";
 
-			if (!conflictingRules.isEmpty()) {
-				groupedRules = executeAlgorithm(groupedRules, i, conflictingRules);
-				i = 0; // algorithms could have modified earlier groups too; therefore reset
+			if (!conflicts.isEmpty()) {
+				List<PrioritisedRule> conflictingRules = new LinkedList<>();
+				for (List<PrioritisedRule> conflict : conflicts) {
+					conflictingRules.addAll(conflict);
+				}
+				conflictingRulesByGroup.put(i, conflictingRules);
 			}
+			i++;
 		}
 
-		return groupedRules;
+		if (conflictingRulesByGroup.isEmpty()) {
+			return groupedRules;
+		}
+		return executeAlgorithm(groupedRules, conflictingRulesByGroup);
+	}
+
+	/**
+	 * <p>Removes every conflict {@code findFirstConflictingRules} finds from a
+	 * copy of {@code ruleGroup} until no conflict is left and compares them with
+	 * {@code conflicts} in the same order. The rules of a conflict are compared
+	 * by identity and in no particular order apart from the reference rule being
+	 * the last one.
+	 *
+	 * @param ruleGroup          group the conflicts were found in.
+	 * @param mustBeOfSamePolicy as passed to {@code ConflictDetector}.
+	 * @param conflicts          conflicts found by {@code ConflictDetector}.
+	 *
+	 * @return true if both ways found the same conflicts.
+	 */
+	private static boolean isFindingSameConflicts(List<PrioritisedRule> ruleGroup, boolean mustBeOfSamePolicy, List<List<PrioritisedRule>> conflicts) {
+		List<PrioritisedRule> remainingRules = new ArrayList<>(ruleGroup);
+		for (List<PrioritisedRule> conflict : conflicts) {
+			LinkedList<PrioritisedRule> expectedConflict = findFirstConflictingRules(remainingRules, mustBeOfSamePolicy);
+			if (expectedConflict.isEmpty()
+					|| expectedConflict.getLast() != conflict.get(conflict.size() - 1)
+					|| !toIdentitySet(expectedConflict).equals(toIdentitySet(conflict))) {
+				return false;
+			}
+			remainingRules.removeAll(toIdentitySet(expectedConflict));
+		}
+		return findFirstConflictingRules(remainingRules, mustBeOfSamePolicy).isEmpty();
+	}
+
+	private static Set<PrioritisedRule> toIdentitySet(List<PrioritisedRule> rules) {
+		Set<PrioritisedRule> set = Collections.newSetFromMap(new IdentityHashMap<PrioritisedRule, Boolean>());
+		set.addAll(rules);
+		return set;
 	}
 
 	/**
@@ -82,12 +159,13 @@ public abstract class ConflictSolutionAlgorithm {
 	 * all overlapping rules. This is because after solving one conflict, the
 	 * others might have disappeared (or at least changed) too.
 	 *
-	 *
-	 * <p>A cleanup of rules is necessary after all the conflicts are being solved
-	 * before persisting.
+	 * <p>It is the reference for {@code ConflictDetector} and only called to
+	 * verify its results if assertions are enabled.
 	 *
 	 * <p>Only the first region will be used!
 	 *
+	 * @see ConflictDetector#findConflictingRules(java.util.List, boolean) for
+	 * finding all conflicts at once.
 	 * @see
 	 * SharedMethods#getFlowControlRuleMethodRegion(de.uni_koblenz.aggrimm.icp.info.model.technical.flow.define.FlowControlRuleMethod)
 	 * @param ruleGroup          {@code List} with rules that can be in
@@ -99,24 +177,24 @@ public abstract class ConflictSolutionAlgorithm {
 	 *
 	 * @return first found conflict as a {@code LinkedList}.
 	 */
-	public LinkedList<PrioritisedRule> findFirstConflictingRules(List<PrioritisedRule> ruleGroup, boolean mustBeOfSamePolicy) {
+	private static LinkedList<PrioritisedRule> findFirstConflictingRules(List<PrioritisedRule> ruleGroup, boolean mustBeOfSamePolicy) {
 		LinkedList<PrioritisedRule> resultRuleGroup = new LinkedList<>();
 		for (int i = 0; i < ruleGroup.size(); i++) {
 			PrioritisedRule referenceRule = ruleGroup.get(i);
 			String referenceURI = SharedMethods.getFlowControlRuleMethodRegion(referenceRule);
 			IExternType referenceContent = referenceRule.getContent().getInformationObject().getExternType();
 			IExternType referenceExternType = referenceRule.getExternType();
-			FlowControlPolicyMethod referencePolicy = referenceRule.getControlPolicy().getControlMethod();
+			FlowControlPolicyMethod referencePolicy = mustBeOfSamePolicy ? referenceRule.getControlPolicy().getControlMethod() : null;
 
 			for (int j = i + 1; j < ruleGroup.size(); j++) {
-				IExternType currentExternType = referenceRule.getExternType();
+				PrioritisedRule currentRule = ruleGroup.get(j);
+				IExternType currentExternType = currentRule.getExternType();
 				if (currentExternType.equals(referenceExternType)) {
 					// ignore non-conflicting (but overlapping) rules. Therefore, skip this round.
 					continue;
 				}
 
 				boolean isInConflict = false;
-				PrioritisedRule currentRule = ruleGroup.get(j);
 
 				if (mustBeOfSamePolicy) {
 					// if both rules must be of same policy but are not, we may ignore
@@ -18,8 +18,11 @@
 package de.uni_koblenz.aggrimm.icp.policyProcessing.algorithmProcessors.conflictSolution;
 
 import de.uni_koblenz.aggrimm.icp.policyProcessing.algorithmProcessors.prioritisation.wrappers.PrioritisedRule;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
 
 /**
  * <p>Affected policies are being deleted from all groups.
@@ -41,11 +44,10 @@ public class DiscardAffectedPoliciesAlgorithm extends ConflictSolutionAlgorithm
 	@Override
 	protected List<List<PrioritisedRule>> executeAlgorithm(List<List<PrioritisedRule>> groupedRules, int affectedGroupIndex, List<PrioritisedRule> conflictingRules) {
 		List<List<PrioritisedRule>> conflictlessGroupedRules = new LinkedList<>();
+		Set<PrioritisedRule> discardedRules = new HashSet<>(conflictingRules);
 
 		for (List<PrioritisedRule> ruleGroup : groupedRules) {
-			for (PrioritisedRule conflictingRule : conflictingRules) {
-				ruleGroup.remove(conflictingRule);
-			}
+			ruleGroup.removeAll(discardedRules);
 
 			if (!ruleGroup.isEmpty()) {
 				conflictlessGroupedRules.add(ruleGroup);
@@ -54,4 +56,25 @@ public class DiscardAffectedPoliciesAlgorithm extends ConflictSolutionAlgorithm
 
 		return conflictlessGroupedRules;
 	}
+
+	/**
+	 * <p>As conflicting rules are deleted from all groups, the conflicts of all
+	 * groups are merged and discarded at once.
+	 *
+	 * @param groupedRules            prioritised rules with at least one
+	 *                                 conflict.
+	 * @param conflictingRulesByGroup all conflicting rules of a group mapped to
+	 *                                 the group's index.
+	 *
+	 * @return rules with all rules from affected policies being removed.
+	 */
+	@Override
+	protected List<List<PrioritisedRule>> executeAlgorithm(List<List<PrioritisedRule>> groupedRules, NavigableMap<Integer, List<PrioritisedRule>> conflictingRulesByGroup) {
+		List<PrioritisedRule> conflictingRules = new LinkedList<>();
+		for (List<PrioritisedRule> groupConflictingRules : conflictingRulesByGroup.values()) {
+			conflictingRules.addAll(groupConflictingRules);
+		}
+
+		return executeAlgorithm(groupedRules, conflictingRulesByGroup.firstKey(), conflictingRules);
+	}
 }
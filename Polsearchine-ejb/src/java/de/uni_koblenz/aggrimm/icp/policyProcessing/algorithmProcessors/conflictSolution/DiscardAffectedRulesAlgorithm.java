@@ -18,6 +18,7 @@
 package de.uni_koblenz.aggrimm.icp.policyProcessing.algorithmProcessors.conflictSolution;
 
 import de.uni_koblenz.aggrimm.icp.policyProcessing.algorithmProcessors.prioritisation.wrappers.PrioritisedRule;
+import java.util.HashSet;
 import java.util.List;
 
 /**
@@ -43,9 +44,7 @@ public class DiscardAffectedRulesAlgorithm extends ConflictSolutionAlgorithm {
 		assert (groupedRules.size() - 1 >= affectedGroupIndex);
 
 		List<PrioritisedRule> affectedGroup = groupedRules.get(affectedGroupIndex);
-		for (PrioritisedRule conflictingRule : conflictingRules) {
-			affectedGroup.remove(conflictingRule);
-		}
+		affectedGroup.removeAll(new HashSet<>(conflictingRules));
 		if (affectedGroup.isEmpty()) {
 			groupedRules.remove(affectedGroupIndex);
 		} else {
@@ -19,8 +19,7 @@ package de.uni_koblenz.aggrimm.icp.policyProcessing.algorithmProcessors.prioriti
 
 import de.uni_koblenz.aggrimm.icp.policyProcessing.algorithmProcessors.prioritisation.wrappers.PrioritisedRule;
 import de.uni_koblenz.aggrimm.icp.policyProcessing.inFOParser.externTypes.SEFCOURLContentType;
-import de.uni_koblenz.aggrimm.icp.info.model.technical.flow.entity.ContentSpecifier;
-import de.uni_koblenz.aggrimm.icp.info.model.technical.flow.entity.InformationObject;
+import de.uni_koblenz.aggrimm.icp.info.parser.utils.IExternType;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -47,10 +46,9 @@ public final class PreferSingleFileOrWebSite {
 		List<PrioritisedRule> singleFileRules = new LinkedList<>();
 		List<PrioritisedRule> webSiteRules = new LinkedList<>();
 		for (PrioritisedRule rule : rules) {
-			List<ContentSpecifier> contentSpecifiers = rule.getContentSpecifiers();
-			if (!contentSpecifiers.isEmpty()) {
-				InformationObject informationObject = contentSpecifiers.get(0).getContent().getInformationObject();
-				switch ((SEFCOURLContentType) informationObject.getExternType()) {
+			IExternType regionContentType = rule.getRegionContentType();
+			if (regionContentType != null) {
+				switch ((SEFCOURLContentType) regionContentType) {
 					case WEB_PAGE:
 						singleFileRules.add(rule);
 						break;
@@ -58,7 +56,7 @@ public final class PreferSingleFileOrWebSite {
 						webSiteRules.add(rule);
 						break;
 					default:
-						throw new IllegalArgumentException("Unknown SEFCOURLContentType found as Content. You may add this INFOType to the list of known single-file-types within the source code. Its ExternType was: " + informationObject.getExternType());
+						throw new IllegalArgumentException("Unknown SEFCOURLContentType found as Content. You may add this INFOType to the list of known single-file-types within the source code. Its ExternType was: " + regionContentType);
 				}
 			}
 		}
@@ -18,8 +18,6 @@
 package de.uni_koblenz.aggrimm.icp.policyProcessing.algorithmProcessors.prioritisation.logic;
 
 import de.uni_koblenz.aggrimm.icp.policyProcessing.algorithmProcessors.prioritisation.wrappers.PrioritisedRule;
-import de.uni_koblenz.aggrimm.icp.policyProcessing.inFOParser.SharedMethods;
-import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -42,6 +40,8 @@ public final class PreferXDomainName {
 	 * the amount of '.'-{@code char}s within the domain name {@code String}.
 	 * Priorities within {@code rules} will be overwritten.
 	 *
+	 * @see PrioritisedRule#getHostLabelCount()
+	 *
 	 * @param rules                    {@code List} of
 	 *                                  {@code PrioritisedRule}s
 	 *                                  containing VALID {@code PrioritisedRule}s.
@@ -57,16 +57,7 @@ public final class PreferXDomainName {
 	public static List<List<PrioritisedRule>> apply(List<PrioritisedRule> rules, boolean preferShortestDomainName) throws URISyntaxException {
 		List<PrioritisedRule> sortableRules = new LinkedList<>();
 		for (PrioritisedRule rule : rules) {
-			URI uri = SharedMethods.getURLAsURI(rule);
-			String urlDomainName = uri.getHost();
-			int priority = 0;
-
-			for (int i = 0; i < urlDomainName.length(); i++) {
-				if (urlDomainName.charAt(i) == '.') {
-					priority++;
-				}
-			}
-			rule.setPriority(priority);
+			rule.setPriority(rule.getHostLabelCount());
 			sortableRules.add(rule);
 		}
 
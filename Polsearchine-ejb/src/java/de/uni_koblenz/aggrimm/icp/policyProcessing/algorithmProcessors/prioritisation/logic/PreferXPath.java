@@ -18,8 +18,6 @@
 package de.uni_koblenz.aggrimm.icp.policyProcessing.algorithmProcessors.prioritisation.logic;
 
 import de.uni_koblenz.aggrimm.icp.policyProcessing.algorithmProcessors.prioritisation.wrappers.PrioritisedRule;
-import de.uni_koblenz.aggrimm.icp.policyProcessing.inFOParser.SharedMethods;
-import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -44,6 +42,8 @@ public final class PreferXPath {
 	 * '/'-{@code char} and therefore most probably a file. Prioritisation
 	 * information will be overwritten.
 	 *
+	 * @see PrioritisedRule#getPathDepth()
+	 *
 	 * @param rules              {@code List} of {@code PrioritisedRule}s
 	 *                            containing VALID {@code PrioritisedRule}s.
 	 * @param preferShortestPath {@code true} if shorter paths should be
@@ -58,24 +58,7 @@ public final class PreferXPath {
 	public static List<List<PrioritisedRule>> apply(List<PrioritisedRule> rules, boolean preferShortestPath) throws URISyntaxException {
 		List<PrioritisedRule> sortableRules = new LinkedList<>();
 		for (PrioritisedRule rule : rules) {
-			URI uri = SharedMethods.getURLAsURI(rule);
-			String urlPath = uri.getPath();
-			int priority = 0;
-			if (urlPath.length() > 0) {
-				int i;
-
-				for (i = 0; i < urlPath.length() - 1; i++) {
-					char currentChar = urlPath.charAt(i);
-
-					if (currentChar == '/') {
-						priority++;
-					}
-				}
-				if (urlPath.charAt(i) != '/') {
-					priority++; // this is a file then
-				}
-			}
-			rule.setPriority(priority);
+			rule.setPriority(rule.getPathDepth());
 			sortableRules.add(rule);
 		}
 
@@ -18,8 +18,6 @@
 package de.uni_koblenz.aggrimm.icp.policyProcessing.algorithmProcessors.prioritisation.logic;
 
 import de.uni_koblenz.aggrimm.icp.policyProcessing.algorithmProcessors.prioritisation.wrappers.PrioritisedRule;
-import de.uni_koblenz.aggrimm.icp.policyProcessing.inFOParser.SharedMethods;
-import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -46,6 +44,8 @@ public final class PreferXQueryString {
 	 * <p>This method cannot guarantee correctness as RFC 3986 does not specify
 	 * how parameters in query-strings must be marked.
 	 *
+	 * @see PrioritisedRule#getQueryParameterCount()
+	 *
 	 * @param rules                     {@code List} of
 	 *                                   {@code PrioritisedRule}s
 	 *                                   containing VALID {@code PrioritisedRule}s.
@@ -61,17 +61,7 @@ public final class PreferXQueryString {
 	public static List<List<PrioritisedRule>> apply(List<PrioritisedRule> rules, boolean preferShortestQueryString) throws URISyntaxException {
 		List<PrioritisedRule> sortableRules = new LinkedList<>();
 		for (PrioritisedRule rule : rules) {
-			URI uri = SharedMethods.getURLAsURI(rule);
-			String urlQueryString = uri.getQuery();
-			int priority;
-
-			if (urlQueryString.contains("=")) {
-				priority = prioritiseByKeyValue(urlQueryString);
-			} else {
-				priority = prioritiseByParameter(urlQueryString);
-			}
-
-			rule.setPriority(priority);
+			rule.setPriority(rule.getQueryParameterCount());
 			sortableRules.add(rule);
 		}
 
@@ -82,53 +72,4 @@ public final class PreferXQueryString {
 		}
 		return SharedPrioritisationMethods.createGroupedRulesFromPrioritisation(sortableRules);
 	}
-
-	/**
-	 * @param urlQueryString that should be prioritised.
-	 *
-	 * @return number of found '='.
-	 */
-	private static int prioritiseByKeyValue(String urlQueryString) {
-		int priority = 0;
-
-		for (int i = 0; i < urlQueryString.length(); i++) {
-			// '=' indicates the switch from key to value:
-			if (urlQueryString.charAt(i) == '=') {
-				priority++;
-			}
-		}
-		/* this case was written before the algorithm tested for '=' symbols:
-		 if (urlQueryString.length() > 0 && priority == 0) {
-		 // http://a.de/?b has one parameter
-		 priority = 1;
-		 }
-		 */
-		return priority;
-	}
-
-	/**
-	 * @param urlQueryString that should be prioritised.
-	 *
-	 * @return number of found ';' if any or number of found '&' else.
-	 */
-	private static int prioritiseByParameter(String urlQueryString) {
-		char separator;
-		if (urlQueryString.contains(";")) {
-			separator = ';';
-		} else {
-			separator = '&';
-		}
-		int priority = 1; // priority starts at one so that ?b;a is not 1 but 2
-
-		for (int i = 0; i < urlQueryString.length(); i++) {
-			// '&' or ';' indicates the next parameter:
-			if (urlQueryString.charAt(i) == separator) {
-				priority++;
-			}
-		}
-		if (urlQueryString.length() == 0) {
-			priority = 0;
-		}
-		return priority;
-	}
 }
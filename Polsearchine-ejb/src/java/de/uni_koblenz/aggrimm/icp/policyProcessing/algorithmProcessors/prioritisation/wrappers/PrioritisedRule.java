@@ -17,19 +17,34 @@
  */
 package de.uni_koblenz.aggrimm.icp.policyProcessing.algorithmProcessors.prioritisation.wrappers;
 
+import de.uni_koblenz.aggrimm.icp.policyProcessing.inFOParser.SharedMethods;
 import de.uni_koblenz.aggrimm.icp.info.model.technical.flow.define.FlowControlRuleMethod;
+import de.uni_koblenz.aggrimm.icp.info.model.technical.flow.entity.ContentSpecifier;
+import de.uni_koblenz.aggrimm.icp.info.parser.utils.IExternType;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
 
 /**
  * <p>Makes {@code FlowControlRuleMethod} adds a {@code priority}-field. (In
  * earlier versions it also made {@code FlowControlRuleMethod} serialisable,
  * which was implemented in pphi r293 due to request)
  *
+ * <p>The features of the first region's URL that the prioritisation
+ * algorithms sort by are parsed once and cached. Setting new
+ * {@code ContentSpecifier}s discards them.
+ *
  * @author mruster
  */
 public class PrioritisedRule extends FlowControlRuleMethod implements Comparable<PrioritisedRule> {
 
 	private static final long serialVersionUID = -3175442848526499113L;
 	Integer priority;
+	private boolean areURLFeaturesParsed;
+	private int hostLabelCount;
+	private int pathDepth;
+	private int queryParameterCount;
+	private IExternType regionContentType;
 
 	public PrioritisedRule(int priority) {
 		super();
@@ -76,6 +91,151 @@ public class PrioritisedRule extends FlowControlRuleMethod implements Comparable
 		this.priority = priority;
 	}
 
+	@Override
+	public void setContentSpecifiers(List<ContentSpecifier> contentSpecifiers) {
+		super.setContentSpecifiers(contentSpecifiers);
+		this.areURLFeaturesParsed = false;
+		this.regionContentType = null;
+	}
+
+	/**
+	 * @return the number of '.'-{@code char}s within the first region's host
+	 *          name.
+	 *
+	 * @throws URISyntaxException if the region could not be converted to a URI.
+	 */
+	public int getHostLabelCount() throws URISyntaxException {
+		parseURLFeatures();
+		return hostLabelCount;
+	}
+
+	/**
+	 * @return the number of directories and files within the first region's
+	 *          path.
+	 *
+	 * @throws URISyntaxException if the region could not be converted to a URI.
+	 */
+	public int getPathDepth() throws URISyntaxException {
+		parseURLFeatures();
+		return pathDepth;
+	}
+
+	/**
+	 * @return the number of parameters within the first region's query string.
+	 *
+	 * @throws URISyntaxException if the region could not be converted to a URI.
+	 */
+	public int getQueryParameterCount() throws URISyntaxException {
+		parseURLFeatures();
+		return queryParameterCount;
+	}
+
+	/**
+	 * @return the {@code IExternType} of the first {@code ContentSpecifier}'s
+	 *          {@code Content} or {@code null} if there is no
+	 *          {@code ContentSpecifier}.
+	 */
+	public IExternType getRegionContentType() {
+		List<ContentSpecifier> contentSpecifiers = getContentSpecifiers();
+		if (contentSpecifiers == null || contentSpecifiers.isEmpty()) {
+			return null;
+		}
+		if (regionContentType == null) {
+			regionContentType = contentSpecifiers.get(0).getContent().getInformationObject().getExternType();
+		}
+		return regionContentType;
+	}
+
+	/**
+	 * <p>Parses the first region's URL if this has not been done since the
+	 * {@code ContentSpecifier}s were set. A missing host, path or query string
+	 * counts as zero.
+	 */
+	private void parseURLFeatures() throws URISyntaxException {
+		if (areURLFeaturesParsed) {
+			return;
+		}
+		URI uri = SharedMethods.getURLAsURI(this);
+		hostLabelCount = countHostLabels(uri.getHost());
+		pathDepth = countPathSegments(uri.getPath());
+		queryParameterCount = countQueryParameters(uri.getQuery());
+		areURLFeaturesParsed = true;
+	}
+
+	/**
+	 * @param urlDomainName host name or {@code null}.
+	 *
+	 * @return number of found '.'.
+	 */
+	private static int countHostLabels(String urlDomainName) {
+		int count = 0;
+		if (urlDomainName != null) {
+			for (int i = 0; i < urlDomainName.length(); i++) {
+				if (urlDomainName.charAt(i) == '.') {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * <p>Counts the '/'-{@code char}s within the path. The last char is only
+	 * counted if it isn't a '/'-{@code char} and therefore most probably a file.
+	 *
+	 * @param urlPath path or {@code null}.
+	 *
+	 * @return number of directories and files.
+	 */
+	private static int countPathSegments(String urlPath) {
+		int count = 0;
+		if (urlPath != null && urlPath.length() > 0) {
+			int i;
+
+			for (i = 0; i < urlPath.length() - 1; i++) {
+				if (urlPath.charAt(i) == '/') {
+					count++;
+				}
+			}
+			if (urlPath.charAt(i) != '/') {
+				count++; // this is a file then
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * <p>Counts the '='-{@code char}s within the query string if there are any.
+	 * Else ';' will be counted (if any) and else '&' will be counted.
+	 *
+	 * @param urlQueryString query string or {@code null}.
+	 *
+	 * @return number of parameters.
+	 */
+	private static int countQueryParameters(String urlQueryString) {
+		if (urlQueryString == null || urlQueryString.length() == 0) {
+			return 0;
+		}
+		char separator;
+		int count;
+		if (urlQueryString.indexOf('=') >= 0) {
+			// '=' indicates the switch from key to value:
+			separator = '=';
+			count = 0;
+		} else {
+			// '&' or ';' indicates the next parameter:
+			separator = urlQueryString.indexOf(';') >= 0 ? ';' : '&';
+			count = 1; // count starts at one so that ?b;a is not 1 but 2
+		}
+
+		for (int i = 0; i < urlQueryString.length(); i++) {
+			if (urlQueryString.charAt(i) == separator) {
+				count++;
+			}
+		}
+		return count;
+	}
+
 	/**
 	 * <p>This method allows comparing {@code PrioritisedRule}s by their priority
 	 * and their priority alone. It can be used for sorting by priority.
@@ -21,8 +21,12 @@ import de.uni_koblenz.aggrimm.icp.info.model.technical.control.base.Control;
 import de.uni_koblenz.aggrimm.icp.info.model.technical.flow.define.*;
 import de.uni_koblenz.aggrimm.icp.triplestore.ResourceWrapper;
 import de.uni_koblenz.aggrimm.icp.triplestore.TripleStore;
+import de.uni_koblenz.aggrimm.icp.triplestore.jena.JenaStore;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * <p>This Class is the main-interface to InFO, it provides parsing of the
@@ -71,15 +75,85 @@ public class SEFCOParser {
 		return metaPolicies;
 	}
 
-	private void linkMetaPoliciesToPoliciesToRules(List<Control<FlowControlMetaPolicyMethod, FlowControlMetaPolicySituation>> metaPolicies,
+	/**
+	 * <p>Parses a single file into its own {@code JenaStore} without linking
+	 * anything. Thus, several files can be parsed concurrently.
+	 *
+	 * @param fileLocation as URI or with prefix 'file://'
+	 *
+	 * @return the unlinked meta policies, policies and rules of the file.
+	 */
+	public static ParsedControls parseFile(String fileLocation) {
+		TechnicalSearchEngineParser parser = new TechnicalSearchEngineParser(new JenaStore());
+		parser.getTripleStore().addFile(fileLocation);
+		ParsedControls parsed = new ParsedControls();
+		parsed.metaPolicies.addAll(parser.parseMetaPolicies());
+		parsed.policies.addAll(parser.parsePolicies());
+		parsed.rules.addAll(parser.parseRules());
+		return parsed;
+	}
+
+	/**
+	 * <p>Links files parsed by {@link #parseFile(java.lang.String)}. Their meta
+	 * policies, policies and rules are merged strictly in the order of
+	 * {@code parsedFiles}, so the result does not depend on the order in which
+	 * the files have been parsed.
+	 *
+	 * <p>Linking works across files. However, every resource must be described
+	 * completely within one file, e.g. a rule's content and region must be
+	 * stated in the same file as the rule itself.
+	 *
+	 * @param parsedFiles the parsed files in the order the files were given.
+	 *
+	 * @return List of parsed MetaPolicy Instances.
+	 */
+	public static List<Control<FlowControlMetaPolicyMethod, FlowControlMetaPolicySituation>> getMetaPolicies(List<ParsedControls> parsedFiles) {
+		ParsedControls parsed = new ParsedControls();
+		for (ParsedControls parsedFile : parsedFiles) {
+			parsed.append(parsedFile);
+		}
+		linkMetaPoliciesToPoliciesToRules(parsed.metaPolicies, parsed.policies, parsed.rules);
+		return parsed.metaPolicies;
+	}
+
+	/**
+	 * <p>Links meta policies to the policies and policies to the rules they
+	 * reference in their control method statements. Policies and rules are
+	 * indexed by URI first so that every statement is resolved with a single
+	 * lookup. If several policies or rules share a URI, all of them are linked
+	 * in the order of their lists.
+	 */
+	private static void linkMetaPoliciesToPoliciesToRules(List<Control<FlowControlMetaPolicyMethod, FlowControlMetaPolicySituation>> metaPolicies,
 																								 List<Control<FlowControlPolicyMethod, FlowControlPolicySituation>> policies,
 																								 List<Control<? extends FlowControlRuleMethod, ? extends FlowControlRuleSituation>> rules) {
+		Map<String, List<Control<FlowControlPolicyMethod, FlowControlPolicySituation>>> policiesByURI = new HashMap<>(policies.size() * 2);
+		for (Control<FlowControlPolicyMethod, FlowControlPolicySituation> p : policies) {
+			String uri = p.getControlMethod().getUri();
+			List<Control<FlowControlPolicyMethod, FlowControlPolicySituation>> group = policiesByURI.get(uri);
+			if (group == null) {
+				group = new ArrayList<>(1);
+				policiesByURI.put(uri, group);
+			}
+			group.add(p);
+		}
+		Map<String, List<Control<? extends FlowControlRuleMethod, ? extends FlowControlRuleSituation>>> rulesByURI = new HashMap<>(rules.size() * 2);
+		for (Control<? extends FlowControlRuleMethod, ? extends FlowControlRuleSituation> r : rules) {
+			String uri = r.getControlMethod().getUri();
+			List<Control<? extends FlowControlRuleMethod, ? extends FlowControlRuleSituation>> group = rulesByURI.get(uri);
+			if (group == null) {
+				group = new ArrayList<>(1);
+				rulesByURI.put(uri, group);
+			}
+			group.add(r);
+		}
+
 		//link metapolicies to policies
 		for (Control<FlowControlMetaPolicyMethod, FlowControlMetaPolicySituation> mp : metaPolicies) {
 
 			for (ResourceWrapper metaPolicyMethodStatement : mp.getControlMethod().getControlMethodStatements()) {
-				for (Control<FlowControlPolicyMethod, FlowControlPolicySituation> p : policies) {
-					if (p.getControlMethod().getUri().equals(metaPolicyMethodStatement.getURI())) {
+				List<Control<FlowControlPolicyMethod, FlowControlPolicySituation>> linkedPolicies = policiesByURI.get(metaPolicyMethodStatement.getURI());
+				if (linkedPolicies != null) {
+					for (Control<FlowControlPolicyMethod, FlowControlPolicySituation> p : linkedPolicies) {
 						//found link
 						p.getControlMethod().setMetaPolicy(mp);
 						mp.getControlMethod().getControlPolicies().add(p);
@@ -91,8 +165,9 @@ public class SEFCOParser {
 		for (Control<FlowControlPolicyMethod, FlowControlPolicySituation> p : policies) {
 
 			for (ResourceWrapper policyMethodStatement : p.getControlMethod().getControlMethodStatements()) {
-				for (Control<? extends FlowControlRuleMethod, ? extends FlowControlRuleSituation> r : rules) {
-					if (r.getControlMethod().getUri().equals(policyMethodStatement.getURI())) {
+				List<Control<? extends FlowControlRuleMethod, ? extends FlowControlRuleSituation>> linkedRules = rulesByURI.get(policyMethodStatement.getURI());
+				if (linkedRules != null) {
+					for (Control<? extends FlowControlRuleMethod, ? extends FlowControlRuleSituation> r : linkedRules) {
 						//found link
 						p.getControlMethod().getFlowControlRules().add(r);
 						r.getControlMethod().setControlPolicy(p);
@@ -101,4 +176,20 @@ public class SEFCOParser {
 			}
 		}
 	}
+
+	/**
+	 * <p>Unlinked parsing result of one or more files.
+	 */
+	public static final class ParsedControls {
+
+		private final List<Control<FlowControlMetaPolicyMethod, FlowControlMetaPolicySituation>> metaPolicies = new ArrayList<>();
+		private final List<Control<FlowControlPolicyMethod, FlowControlPolicySituation>> policies = new ArrayList<>();
+		private final List<Control<? extends FlowControlRuleMethod, ? extends FlowControlRuleSituation>> rules = new ArrayList<>();
+
+		void append(ParsedControls other) {
+			metaPolicies.addAll(other.metaPolicies);
+			policies.addAll(other.policies);
+			rules.addAll(other.rules);
+		}
+	}
 }
@@ -39,9 +39,12 @@ import de.uni_koblenz.aggrimm.icp.info.parser.utils.RDFType;
 import de.uni_koblenz.aggrimm.icp.triplestore.ResourceWrapper;
 import de.uni_koblenz.aggrimm.icp.triplestore.StatementWrapper;
 import de.uni_koblenz.aggrimm.icp.triplestore.TripleStore;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -56,10 +59,38 @@ public class TechnicalSearchEngineParser extends TechnicalParser {
 
 	private static final Logger LOGGER = Logger.getLogger(TechnicalSearchEngineParser.class.getCanonicalName());
 
+	/**
+	 * <p>Maps the URI of every known {@code IExternType} to its type. Types are
+	 * added from the most generic to the most specific one so that SEFCO
+	 * overrides the more generic InFO-Parser implementations if URIs
+	 * collide: {@code INFOType}, {@code AlgorithmType},
+	 * {@code SEFCOURLContentType}, {@code SEFCOEnforcingSystemType},
+	 * {@code SEFCOAlgorithmType} and finally {@code SEFCORuleType}.
+	 */
+	private static final Map<String, IExternType> EXTERN_TYPES;
+
+	static {
+		Map<String, IExternType> externTypes = new HashMap<>();
+		putAll(externTypes, INFOType.values());
+		putAll(externTypes, AlgorithmType.values());
+		putAll(externTypes, SEFCOURLContentType.values());
+		putAll(externTypes, SEFCOEnforcingSystemType.values());
+		putAll(externTypes, SEFCOAlgorithmType.values());
+		putAll(externTypes, SEFCORuleType.values());
+		EXTERN_TYPES = Collections.unmodifiableMap(externTypes);
+	}
+
+	private static void putAll(Map<String, IExternType> externTypes, IExternType[] types) {
+		for (IExternType type : types) {
+			externTypes.put(type.getValue(), type);
+		}
+	}
+
 	/**
 	 * <p>This method returns the found and matching {@code IExternType}.
-	 * {@code INFOType} and {@code AlgorithmType} are tested last to make sure
-	 * that SEFCO can override the more generic InFO-Parser implementations.
+	 * SEFCO types take precedence over {@code INFOType} and
+	 * {@code AlgorithmType} to make sure that SEFCO can override the more
+	 * generic InFO-Parser implementations.
 	 *
 	 * @param value an {@code IExternType} {@code enum} value.
 	 *
@@ -67,31 +98,10 @@ public class TechnicalSearchEngineParser extends TechnicalParser {
 	 */
 	@Override
 	protected IExternType getIExternType(String value) {
-		if (SEFCORuleType.fromString(value) == null) {
-			if (SEFCOAlgorithmType.fromString(value) == null) {
-				if (SEFCOEnforcingSystemType.fromString(value) == null) {
-					if (SEFCOURLContentType.fromString(value) == null) {
-						if (AlgorithmType.fromString(value) == null) {
-							if (INFOType.fromString(value) == null) {
-								return null;
-							} else {
-								return INFOType.fromString(value);
-							}
-						} else {
-							return AlgorithmType.fromString(value);
-						}
-					} else {
-						return SEFCOURLContentType.fromString(value);
-					}
-				} else {
-					return SEFCOEnforcingSystemType.fromString(value);
-				}
-			} else {
-				return SEFCOAlgorithmType.fromString(value);
-			}
-		} else {
-			return SEFCORuleType.fromString(value);
+		if (value == null) {
+			return null;
 		}
+		return EXTERN_TYPES.get(value);
 	}
 
 	public TechnicalSearchEngineParser(TripleStore tripleStore) {
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.policyProcessing.validators;
+
+import de.uni_koblenz.aggrimm.icp.policyProcessing.inFOParser.TechnicalSearchEngineParser;
+import de.uni_koblenz.aggrimm.icp.policyProcessing.inFOParser.externTypes.SEFCOEnforcingSystemType;
+import de.uni_koblenz.aggrimm.icp.info.model.technical.control.base.Control;
+import de.uni_koblenz.aggrimm.icp.info.model.technical.control.entity.ResponsibleOperator;
+import de.uni_koblenz.aggrimm.icp.info.model.technical.flow.define.FlowControlMetaPolicyMethod;
+import de.uni_koblenz.aggrimm.icp.info.model.technical.flow.define.FlowControlMetaPolicySituation;
+import de.uni_koblenz.aggrimm.icp.info.model.technical.flow.define.FlowControlPolicyMethod;
+import de.uni_koblenz.aggrimm.icp.info.model.technical.flow.define.FlowControlPolicySituation;
+import de.uni_koblenz.aggrimm.icp.info.model.technical.flow.define.FlowControlRuleMethod;
+import de.uni_koblenz.aggrimm.icp.info.model.technical.flow.define.FlowControlRuleSituation;
+import de.uni_koblenz.aggrimm.icp.triplestore.jena.JenaStore;
+import java.util.List;
+
+/**
+ * <p>Validates a single policy file before it is stored. The file is parsed
+ * into its own {@code JenaStore} and every meta policy, policy and rule it
+ * describes is checked by {@code MetaPolicyValidator}, {@code PolicyValidator}
+ * and {@code RuleValidator}. Thus, several files can be validated in parallel.
+ *
+ * <p>A policy's responsible operator is only compared if the file contains
+ * exactly one meta policy, because the meta policy may be stored in another
+ * file.
+ *
+ * @author mruster
+ */
+public final class PolicyFileValidator {
+
+	private PolicyFileValidator() {
+		throw new AssertionError("Tried instantiating a noninstantiable utility class");
+	}
+
+	/**
+	 * @param fileLocation as URI or with prefix 'file://'
+	 *
+	 * @throws IllegalArgumentException if the file could not be parsed, does not
+	 *                                  contain anything or contains an invalid
+	 *                                  meta policy, policy or rule. The message
+	 *                                  states the reason.
+	 */
+	public static void validate(String fileLocation) {
+		List<Control<FlowControlMetaPolicyMethod, FlowControlMetaPolicySituation>> metaPolicies;
+		List<Control<FlowControlPolicyMethod, FlowControlPolicySituation>> policies;
+		List<Control<? extends FlowControlRuleMethod, ? extends FlowControlRuleSituation>> rules;
+		try {
+			TechnicalSearchEngineParser parser = new TechnicalSearchEngineParser(new JenaStore());
+			parser.getTripleStore().addFile(fileLocation);
+			metaPolicies = parser.parseMetaPolicies();
+			policies = parser.parsePolicies();
+			rules = parser.parseRules();
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("File could not be parsed: " + e.getMessage(), e);
+		}
+		if (metaPolicies.isEmpty() && policies.isEmpty() && rules.isEmpty()) {
+			throw new IllegalArgumentException("File contains neither a meta policy nor a policy nor a rule.");
+		}
+
+		ResponsibleOperator metaPolicyOperator = null;
+		for (Control<FlowControlMetaPolicyMethod, FlowControlMetaPolicySituation> controlMetaPolicy : metaPolicies) {
+			FlowControlMetaPolicyMethod metaPolicy = controlMetaPolicy.getControlMethod();
+			if (!MetaPolicyValidator.isValid(metaPolicy, SEFCOEnforcingSystemType.SEARCH_ENGINE)) {
+				throw new IllegalArgumentException("Invalid meta policy: " + metaPolicy.getUri());
+			}
+			if (metaPolicies.size() == 1) {
+				metaPolicyOperator = metaPolicy.getResponsibleOperator();
+			}
+		}
+		for (Control<FlowControlPolicyMethod, FlowControlPolicySituation> controlPolicy : policies) {
+			FlowControlPolicyMethod policy = controlPolicy.getControlMethod();
+			if (!PolicyValidator.isValid(policy, SEFCOEnforcingSystemType.SEARCH_ENGINE, metaPolicyOperator)) {
+				throw new IllegalArgumentException("Invalid policy: " + policy.getUri());
+			}
+		}
+		for (Control<? extends FlowControlRuleMethod, ? extends FlowControlRuleSituation> controlRule : rules) {
+			FlowControlRuleMethod rule = controlRule.getControlMethod();
+			if (!RuleValidator.isValid(rule)) {
+				throw new IllegalArgumentException("Invalid rule: " + rule.getUri());
+			}
+		}
+	}
+}
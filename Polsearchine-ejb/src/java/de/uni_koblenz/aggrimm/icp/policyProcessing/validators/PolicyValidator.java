@@ -50,6 +50,9 @@ public final class PolicyValidator {
 	 * @param enforcingSystem    {@code IExternType} of system to check for.
 	 * @param metaPolicyOperator {@code ResponsibleOperator} which must be
 	 *                            identical to the one used in {@code policy}.
+	 *                            {@code null} if it is not known yet, e.g.
+	 *                            because the meta policy is stored in another
+	 *                            file. Then, it is not compared.
 	 *
 	 * @return {@code true} if {@code policy} is a valid policy, {@code false}
 	 *          else.
@@ -62,7 +65,7 @@ public final class PolicyValidator {
 			if (!SharedValidator.hasResponsibleOperator(policy)) {
 				throw new IllegalArgumentException("ResponsibleOperator");
 			}
-			if (!SharedValidator.hasMatchingResponsibleOperatorString(policy, metaPolicyOperator)) {
+			if (metaPolicyOperator != null && !SharedValidator.hasMatchingResponsibleOperatorString(policy, metaPolicyOperator)) {
 				throw new IllegalArgumentException("ResponsibleOperator-value");
 			}
 			if (!hasValidLegalAuthorizationAndOrganizationalMotivation(policy.getLegalAuthorizations(), policy.getOrganizationalMotivations())) {
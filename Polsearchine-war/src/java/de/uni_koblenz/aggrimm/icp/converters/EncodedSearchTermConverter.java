@@ -33,12 +33,34 @@ import javax.faces.convert.FacesConverter;
 @FacesConverter(value = "encodedSearchTermConverter")
 public class EncodedSearchTermConverter implements Converter {
 
-	private final String[] RESERVED_CHARS = {"!", "#", "$", "&", "'", "(", ")", "*", "+", ",", "/", ":", ";", "=", "?", "@", "[", "]"};
-	private final String[] ENCODED_CHARS = {"%21", "%23", "%24", "%26", "%27", "%28", "%29", "%2A", "%2B", "%2C", "%2F", "%3A", "%3B", "%3D", "%3F", "%40", "%5B", "%5D"};
+	private final static char[] RESERVED_CHARS = {'!', '#', '$', '&', '\'', '(', ')', '*', '+', ',', '/', ':', ';', '=', '?', '@', '[', ']'};
+	private final static String[] ENCODED_CHARS = {"%21", "%23", "%24", "%26", "%27", "%28", "%29", "%2A", "%2B", "%2C", "%2F", "%3A", "%3B", "%3D", "%3F", "%40", "%5B", "%5D"};
+	/**
+	 * <p>Maps every ASCII character to its encoded form or {@code null} if it
+	 * is not reserved.
+	 */
+	private final static String[] ENCODING_TABLE = new String[128];
+	/**
+	 * <p>Maps the two characters following a '%' to the reserved character
+	 * they encode. The first index is the ASCII value of the first character,
+	 * the second index the one of the second character. Unused entries are 0.
+	 */
+	private final static char[][] DECODING_TABLE = new char[128][128];
+
+	static {
+		for (int i = 0; i < RESERVED_CHARS.length; i++) {
+			ENCODING_TABLE[RESERVED_CHARS[i]] = ENCODED_CHARS[i];
+			DECODING_TABLE[ENCODED_CHARS[i].charAt(1)][ENCODED_CHARS[i].charAt(2)] = RESERVED_CHARS[i];
+		}
+	}
 
 	/**
 	 * <p>Encodes reserved characters to percent encoding according to RFC 3986.
 	 *
+	 * <p>The input is scanned once. An output buffer is only allocated when the
+	 * first reserved character is found; otherwise {@code value} itself is
+	 * returned.
+	 *
 	 * @param context
 	 * @param component
 	 * @param value     the String that should be returned as an encoded String.
@@ -50,17 +72,30 @@ public class EncodedSearchTermConverter implements Converter {
 		if (value == null || ((String) value).isEmpty()) {
 			return null;
 		}
-		for (int i = 0; i < RESERVED_CHARS.length; i++) {
-			value = value.replace(RESERVED_CHARS[i], ENCODED_CHARS[i]);
+		StringBuilder result = null;
+		final int length = value.length();
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			String encoded = c < 128 ? ENCODING_TABLE[c] : null;
+			if (encoded != null) {
+				if (result == null) {
+					result = new StringBuilder(length + 16);
+					result.append(value, 0, i);
+				}
+				result.append(encoded);
+			} else if (result != null) {
+				result.append(c);
+			}
 		}
-		return value;
+		return result == null ? value : result.toString();
 	}
 
 	/**
 	 * <p>Returns search term string encoded to its former state.
 	 *
 	 * <p>Be aware that this function is very basic and pretty easy to manipulate;
-	 * i.e. if you search for "%21" you will see "!" afterwards.
+	 * i.e. if you search for "%21" you will see "!" afterwards. Only the upper
+	 * case encodings listed in {@code ENCODED_CHARS} are decoded.
 	 *
 	 * @param context
 	 * @param component
@@ -70,10 +105,31 @@ public class EncodedSearchTermConverter implements Converter {
 	 */
 	@Override
 	public String getAsString(FacesContext context, UIComponent component, Object value) {
-		String result = value.toString();
-		for (int i = 0; i < RESERVED_CHARS.length; i++) {
-			result = result.replace(ENCODED_CHARS[i], RESERVED_CHARS[i]);
+		String input = value.toString();
+		StringBuilder result = null;
+		final int length = input.length();
+		int i = 0;
+		while (i < length) {
+			char c = input.charAt(i);
+			if (c == '%' && i + 2 < length) {
+				char first = input.charAt(i + 1);
+				char second = input.charAt(i + 2);
+				char decoded = first < 128 && second < 128 ? DECODING_TABLE[first][second] : 0;
+				if (decoded != 0) {
+					if (result == null) {
+						result = new StringBuilder(length);
+						result.append(input, 0, i);
+					}
+					result.append(decoded);
+					i += 3;
+					continue;
+				}
+			}
+			if (result != null) {
+				result.append(c);
+			}
+			i++;
 		}
-		return result;
+		return result == null ? input : result.toString();
 	}
 }
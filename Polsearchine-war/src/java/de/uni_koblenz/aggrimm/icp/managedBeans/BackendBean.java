@@ -18,12 +18,23 @@
 package de.uni_koblenz.aggrimm.icp.managedBeans;
 
 import de.uni_koblenz.aggrimm.icp.facades.remote.IPolicyIOBeanRemote;
+import de.uni_koblenz.aggrimm.icp.facades.remote.IPolicyImportBeanRemote;
+import de.uni_koblenz.aggrimm.icp.logic.resultClasses.PolicyImportResult;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.ZipException;
 import javax.annotation.Resource;
 import javax.ejb.EJB;
 import javax.faces.application.FacesMessage;
@@ -31,7 +42,7 @@ import javax.faces.bean.ManagedBean;
 import javax.faces.bean.ManagedProperty;
 import javax.faces.bean.RequestScoped;
 import javax.faces.context.FacesContext;
-import org.apache.commons.io.IOUtils;
+import javax.xml.bind.DatatypeConverter;
 import org.primefaces.event.FileUploadEvent;
 import org.primefaces.model.UploadedFile;
 
@@ -44,8 +55,11 @@ import org.primefaces.model.UploadedFile;
 public class BackendBean implements Serializable {
 
 	private static final long serialVersionUID = 1526102590035269771L;
+	private static final int UPLOAD_BUFFER_SIZE = 8192;
 	@EJB
 	private IPolicyIOBeanRemote policyIOBeanRemote;
+	@EJB
+	private IPolicyImportBeanRemote policyImportBeanRemote;
 	@Resource(name = "OWL_PATH")
 	private String OWL_PATH;
 	@Resource(name = "POLICY_FILE_EXTENSION")
@@ -71,6 +85,12 @@ public class BackendBean implements Serializable {
 	/**
 	 * <p>Obtains file to upload and lets it be saved.
 	 *
+	 * <p>The file is copied in chunks into a temporary file within
+	 * {@code OWL_PATH} while its SHA-256 is computed. Afterwards, it is moved
+	 * atomically to its final name. Therefore, the memory used does not depend
+	 * on the file's size. If a stored policy has the same SHA-256, the file is
+	 * not stored again.
+	 *
 	 * <p>Primefaces uses Apache Commons FileUpload:
 	 * Apache Commons FileUpload
 	 * Copyright 2002-2010 The Apache Software Foundation
@@ -90,14 +110,16 @@ public class BackendBean implements Serializable {
 	public void handleFileUpload(FileUploadEvent event) {
 		UploadedFile file = event.getFile();
 		String fileName = file.getFileName();
+		Path temporaryFile = null;
 		try {
 			/**
-			 * <p>This conversion to String has to be done due to the fact that
-			 * InputStreams are not serializable.
+			 * <p>InputStreams are not serializable. Therefore, the file is streamed
+			 * to disk here and only its name is handed over.
 			 */
-			String fileContent = IOUtils.toString(file.getInputstream(), "UTF-8");
+			temporaryFile = Files.createTempFile(Paths.get(OWL_PATH), IPolicyIOBeanRemote.UPLOAD_FILE_PREFIX, IPolicyIOBeanRemote.UPLOAD_FILE_SUFFIX);
+			String checksum = copyWithChecksum(file.getInputstream(), temporaryFile);
 			try {
-				byte httpStatusCode = policyIOBeanRemote.uploadFile(fileContent, fileName);
+				byte httpStatusCode = policyIOBeanRemote.storeUploadedFile(temporaryFile.getFileName().toString(), fileName, checksum);
 
 				switch (httpStatusCode) {
 					case ((byte) 400):
@@ -106,6 +128,9 @@ public class BackendBean implements Serializable {
 					case ((byte) 201):
 						this.addMessage(FacesMessage.SEVERITY_INFO, "New file created", "Refresh the page to see changes.");
 						break;
+					case ((byte) 200):
+						this.addMessage(FacesMessage.SEVERITY_INFO, "File already stored", "A stored policy has the same content as " + fileName + ".");
+						break;
 					case ((byte) 404):
 						this.addMessage(FacesMessage.SEVERITY_ERROR, "File not found", "You either did not specify a file to upload or are trying to upload a file to a protected or nonexistent location.");
 						break;
@@ -119,6 +144,85 @@ public class BackendBean implements Serializable {
 			LOGGER.log(Level.WARNING, "There was an IO error while trying to read the file input stream of: {0}", fileName);
 			this.addMessage(FacesMessage.SEVERITY_ERROR, "File could not be read", "The file input stream could not be properly opened/read.");
 
+		} finally { // the temporary file only remains if it has not been stored:
+			deleteQuietly(temporaryFile);
+		}
+	}
+
+	/**
+	 * <p>Obtains a zip archive of policy files and lets them be imported. The
+	 * archive is streamed to disk the same way as a single policy file.
+	 *
+	 * @param event uploading event.
+	 */
+	public void handleArchiveUpload(FileUploadEvent event) {
+		UploadedFile file = event.getFile();
+		String fileName = file.getFileName();
+		Path temporaryFile = null;
+		try {
+			temporaryFile = Files.createTempFile(Paths.get(OWL_PATH), IPolicyIOBeanRemote.UPLOAD_FILE_PREFIX, IPolicyIOBeanRemote.UPLOAD_FILE_SUFFIX);
+			copyWithChecksum(file.getInputstream(), temporaryFile);
+			PolicyImportResult result = policyImportBeanRemote.importPolicyArchive(temporaryFile.getFileName().toString());
+
+			for (PolicyImportResult.FileResult fileResult : result.getFileResults()) {
+				if (!fileResult.isImported()) {
+					this.addMessage(FacesMessage.SEVERITY_WARN, fileResult.getEntryName() + " was not imported", fileResult.getFailure());
+				}
+			}
+			this.addMessage(result.getFailedCount() == 0 ? FacesMessage.SEVERITY_INFO : FacesMessage.SEVERITY_WARN,
+							"Archive imported",
+							result.getImportedCount() + " of " + result.getFileResults().size() + " files imported in " + result.getDurationMillis() + " ms. Refresh the page to see changes.");
+		} catch (ZipException ze) {
+			LOGGER.log(Level.INFO, "Archive {0} rejected: {1}", new Object[]{fileName, ze.getMessage()});
+			this.addMessage(FacesMessage.SEVERITY_ERROR, "Archive rejected", ze.getMessage());
+		} catch (IOException ioe) {
+			LOGGER.log(Level.WARNING, "There was an IO error while trying to import the archive: {0}", fileName);
+			this.addMessage(FacesMessage.SEVERITY_ERROR, "Archive could not be imported", "The archive could not be read or its files could not be written.");
+		} finally { // the archive has been deleted already unless importing failed early:
+			deleteQuietly(temporaryFile);
+		}
+	}
+
+	/**
+	 * <p>Copies {@code content} in chunks to {@code target} and computes its
+	 * SHA-256 on the fly.
+	 *
+	 * @param content to copy. It will be closed.
+	 * @param target  file to write to.
+	 *
+	 * @return hex encoded SHA-256 of {@code content}.
+	 * @throws IOException if {@code content} could not be read or
+	 *                     {@code target} could not be written.
+	 */
+	private static String copyWithChecksum(InputStream content, Path target) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 is not supported by this JVM.", ex);
+		}
+		try (InputStream in = new DigestInputStream(content, digest);
+						OutputStream out = Files.newOutputStream(target)) {
+			final byte[] buffer = new byte[UPLOAD_BUFFER_SIZE];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+		}
+		return DatatypeConverter.printHexBinary(digest.digest());
+	}
+
+	/**
+	 * @param file to delete if it still exists. May be {@code null}.
+	 */
+	private static void deleteQuietly(Path file) {
+		if (file == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException ioe) {
+			LOGGER.log(Level.WARNING, "Temporary upload file could not be deleted: {0}", file);
 		}
 	}
 
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.servlets;
+
+import de.uni_koblenz.aggrimm.icp.facades.local.IPolicyGenerationLocal;
+import de.uni_koblenz.aggrimm.icp.facades.local.resultRetrieval.IDispatcherLocal;
+import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.IResult;
+import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.IResultsContainer;
+import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.filtered.AbstractFilteredResult;
+import de.uni_koblenz.aggrimm.icp.servlets.helper.HttpCachingHelper;
+import de.uni_koblenz.aggrimm.icp.servlets.helper.JSONStreamWriter;
+import de.uni_koblenz.aggrimm.icp.servlets.helper.ResultJSONHelper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Resource;
+import javax.ejb.EJB;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * <p>Servlet used for retrieving results as JSON. It is the counterpart of
+ * {@code ResultsServlet} for rendering the results on the client side.
+ * <p>The response is an object with the following members:
+ * <ul>
+ * <li>{@code results}: array of results. Filtered results only reference
+ * their regulation information by key.</li>
+ * <li>{@code regulations}: object mapping each referenced key to its
+ * regulation information. Every regulation information is sent only once per
+ * response.</li>
+ * <li>{@code endOfResults}: {@code true} if no further results should be
+ * requested.</li>
+ * <li>{@code message}: optional object with {@code level} and {@code text}
+ * to display to the user.</li>
+ * </ul>
+ * <p>Complete responses carry a strong entity tag that depends on the policy
+ * generation, so clients and their private caches can revalidate them.
+ * Responses containing an error are never stored.
+ *
+ * @author mruster
+ */
+@WebServlet(name = "ResultsJSONServlet", urlPatterns = {"/ResultsJSONServlet"})
+public class ResultsJSONServlet extends HttpServlet {
+
+	private static final long serialVersionUID = -3025836497132058427L;
+	/**
+	 * Results depend on the client and may be stored by its own cache only. They
+	 * have to be revalidated as the policies may have changed.
+	 */
+	private static final String RESULTS_CACHE_CONTROL = "private, no-cache";
+	@Resource(name = "IP_RESTRICTION_PATTERN")
+	private String IP_RESTRICTION_PATTERN;
+	private final static Logger LOGGER = Logger.getLogger(ResultsJSONServlet.class.getCanonicalName());
+	@EJB
+	private IDispatcherLocal dispatcher;
+	@EJB
+	private IPolicyGenerationLocal policyGenerationHelper;
+
+	/**
+	 * Processes requests for both HTTP
+	 * <code>GET</code> and
+	 * <code>POST</code> methods.
+	 *
+	 * <p>Streams results specified by {@code top}, {@code skip}, {@code source}
+	 * and {@code encodedSearchTerm} as JSON. Disallows the access to IPs not
+	 * matching the {@code IP_RESTRICTION_PATTERN}.
+	 *
+	 * @param request  servlet request
+	 * @param response servlet response
+	 *
+	 * @throws ServletException if a servlet-specific error occurs
+	 * @throws IOException      if an I/O error occurs
+	 */
+	protected void processRequest(HttpServletRequest request, HttpServletResponse response)
+					throws ServletException, IOException {
+		final String encodedSearchTerm = request.getParameter("searchTerm");
+		final String source = request.getParameter("source");
+		final String ipAddress = request.getRemoteAddr();
+		try {
+			final int top = Integer.parseInt(request.getParameter("top"));
+			final int skip = Integer.parseInt(request.getParameter("skip"));
+
+			if (!"web".equals(source) && !"image".equals(source)) {
+				response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+				LOGGER.log(Level.WARNING, "Unknown source \"{0}\" modified by {1}", new Object[]{source, ipAddress});
+				return;
+			}
+
+			response.setContentType("application/json;charset=UTF-8");
+			final long policyGeneration = policyGenerationHelper.getCurrentGeneration().getNumber();
+			StringWriter body = new StringWriter();
+			boolean isCacheable = false;
+			try (PrintWriter out = new PrintWriter(body)) {
+				JSONStreamWriter json = new JSONStreamWriter(out);
+				json.beginObject();
+				if (IP_RESTRICTION_PATTERN != null
+						&& !ipAddress.startsWith(IP_RESTRICTION_PATTERN)) {
+					json.name("results").beginArray().endArray();
+					writeEndOfResults(json, "warning", String.format("Only users whose IP-address starts with \"%s\" may use this search engine. We are very sorry fot that.", IP_RESTRICTION_PATTERN));
+				} else {
+					IResultsContainer<IResult> results;
+					try {
+						results = dispatcher.doSearch(dispatcher.parseQuery(encodedSearchTerm, "en-US"), source, top, skip);
+					} catch (Exception ex) {
+						json.name("results").beginArray().endArray();
+						writeEndOfResults(json, "danger", "An internal server error occured (500). Most likely, the backend search engine is having problems. Please try again later.");
+						json.endObject();
+						out.flush();
+						LOGGER.log(Level.SEVERE, "An internal server error occured. Most likely, the bing search API gave up returning results.", ex);
+						writeUncacheable(response, body.toString());
+						return;
+					}
+
+					Map<String, AbstractFilteredResult> regulations = new LinkedHashMap<>();
+					json.name("results").beginArray();
+					for (IResult result : results) {
+						ResultJSONHelper.writeResult(json, result);
+						if (result instanceof AbstractFilteredResult) {
+							AbstractFilteredResult filteredResult = (AbstractFilteredResult) result;
+							String key = ResultJSONHelper.getRegulationKey(filteredResult);
+							if (!regulations.containsKey(key)) {
+								regulations.put(key, filteredResult);
+							}
+						}
+					}
+					json.endArray();
+
+					json.name("regulations").beginObject();
+					for (Map.Entry<String, AbstractFilteredResult> regulation : regulations.entrySet()) {
+						json.name(regulation.getKey());
+						ResultJSONHelper.writeRegulation(json, regulation.getValue());
+					}
+					json.endObject();
+
+					if (results.isEmpty()) {
+						writeEndOfResults(json, "info", "There are no more results.");
+					} else {
+						json.name("endOfResults").value(false);
+					}
+					isCacheable = true;
+				}
+				json.endObject();
+			}
+
+			if (!isCacheable) {
+				writeUncacheable(response, body.toString());
+				return;
+			}
+			byte[] content = body.toString().getBytes("UTF-8");
+			String eTag = HttpCachingHelper.createETag(content, Long.toString(policyGeneration));
+			if (!HttpCachingHelper.isNotModified(request, response, eTag, -1, RESULTS_CACHE_CONTROL)) {
+				response.setContentLength(content.length);
+				response.getOutputStream().write(content);
+			}
+		} catch (NumberFormatException e) { // catch JS obvious JS manipulation and don't load any further content.
+			response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+			LOGGER.log(Level.WARNING, "JS manipulation detected.\ntop:\t{0}\nskip:\t{1}\nIP:\t{2}", new Object[]{request.getParameter("top"), request.getParameter("skip"), ipAddress});
+		}
+	}
+
+	/**
+	 * <p>Sends {@code content} and forbids storing it.
+	 *
+	 * @param response the response to write to.
+	 * @param content  the JSON to send.
+	 *
+	 * @throws IOException if writing failed.
+	 */
+	private void writeUncacheable(HttpServletResponse response, String content) throws IOException {
+		response.setHeader("Cache-Control", "no-store");
+		try (PrintWriter out = response.getWriter()) {
+			out.print(content);
+		}
+	}
+
+	/**
+	 * <p>Marks the end of results and attaches a message for the user.
+	 *
+	 * @param json  the {@code JSONStreamWriter} to write to.
+	 * @param level label level of the message ("info", "warning" or "danger").
+	 * @param text  the message to display.
+	 *
+	 * @throws IOException if writing failed.
+	 */
+	private void writeEndOfResults(JSONStreamWriter json, String level, String text) throws IOException {
+		json.name("endOfResults").value(true);
+		json.name("message").beginObject();
+		json.name("level").value(level);
+		json.name("text").value(text);
+		json.endObject();
+	}
+
+	// <editor-fold defaultstate="collapsed" desc="HttpServlet methods. Click on the + sign on the left to edit the code.">
+	/**
+	 * Handles the HTTP
+	 * <code>GET</code> method.
+	 *
+	 * @param request  servlet request
+	 * @param response servlet response
+	 *
+	 * @throws ServletException if a servlet-specific error occurs
+	 * @throws IOException      if an I/O error occurs
+	 */
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response)
+					throws ServletException, IOException {
+		processRequest(request, response);
+	}
+
+	/**
+	 * Handles the HTTP
+	 * <code>POST</code> method.
+	 *
+	 * @param request  servlet request
+	 * @param response servlet response
+	 *
+	 * @throws ServletException if a servlet-specific error occurs
+	 * @throws IOException      if an I/O error occurs
+	 */
+	@Override
+	protected void doPost(HttpServletRequest request, HttpServletResponse response)
+					throws ServletException, IOException {
+		processRequest(request, response);
+	}
+
+	/**
+	 * Returns a short description of the servlet.
+	 *
+	 * @return a String containing servlet description
+	 */
+	@Override
+	public String getServletInfo() {
+		return "Streams results as JSON";
+	}// </editor-fold>
+}
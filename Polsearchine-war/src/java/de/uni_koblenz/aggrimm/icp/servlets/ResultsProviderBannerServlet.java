@@ -17,9 +17,9 @@
  */
 package de.uni_koblenz.aggrimm.icp.servlets;
 
+import de.uni_koblenz.aggrimm.icp.servlets.helper.HttpCachingHelper;
 import de.uni_koblenz.aggrimm.icp.servlets.helper.TagHelper;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Resource;
@@ -38,6 +38,11 @@ import javax.servlet.http.HttpServletResponse;
 public class ResultsProviderBannerServlet extends HttpServlet {
 
 	private static final long serialVersionUID = 1L;
+	/**
+	 * The banner only changes with the configuration. Therefore, it may be
+	 * stored for a day without revalidation.
+	 */
+	private static final String BANNER_CACHE_CONTROL = "public, max-age=86400";
 	@Resource(name = "SEARCH_ENGINE")
 	private String SEARCH_ENGINE;
 	private final static Logger LOGGER = Logger.getLogger(ResultsProviderBannerServlet.class.getCanonicalName());
@@ -60,15 +65,22 @@ public class ResultsProviderBannerServlet extends HttpServlet {
 	protected void processRequest(HttpServletRequest request, HttpServletResponse response)
 					throws ServletException, IOException {
 		response.setContentType("text/html;charset=UTF-8");
-		try (PrintWriter out = response.getWriter()) {
+		try {
+			String banner;
 			switch (SEARCH_ENGINE) {
 				case "bing":
 					String resultsBy = "results by " + TagHelper.createTag("img", "src", "https://www.microsoft.com/maps/images/bing_m1.png");
-					out.println(TagHelper.createTag("a", "id", "bingBanner", resultsBy));
+					banner = TagHelper.createTag("a", "id", "bingBanner", resultsBy) + System.lineSeparator();
 					break;
 				default:
+					banner = "";
 					break;
 			}
+			byte[] content = banner.getBytes("UTF-8");
+			if (!HttpCachingHelper.isNotModified(request, response, HttpCachingHelper.createETag(content, ""), -1, BANNER_CACHE_CONTROL)) {
+				response.setContentLength(content.length);
+				response.getOutputStream().write(content);
+			}
 		} catch (Exception ex) {
 			response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
 			LOGGER.log(Level.SEVERE, null, ex);
@@ -17,9 +17,14 @@
  */
 package de.uni_koblenz.aggrimm.icp.servlets;
 
+import de.uni_koblenz.aggrimm.icp.servlets.helper.CompressionHelper;
+import de.uni_koblenz.aggrimm.icp.servlets.helper.HttpCachingHelper;
+import de.uni_koblenz.aggrimm.icp.servlets.helper.RegulationInfoFragmentCache;
+import de.uni_koblenz.aggrimm.icp.servlets.helper.ResultWindowCache;
 import de.uni_koblenz.aggrimm.icp.servlets.helper.TagHelper;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Resource;
@@ -29,7 +34,9 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.AbstractMetaInformationEntity;
+import de.uni_koblenz.aggrimm.icp.facades.local.IPolicyGenerationLocal;
 import de.uni_koblenz.aggrimm.icp.facades.local.resultRetrieval.IDispatcherLocal;
+import de.uni_koblenz.aggrimm.icp.interfaceAgents.ParsedQuery;
 import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.filtered.FilteredImageResult;
 import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.filtered.FilteredWebResult;
 import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.IResult;
@@ -50,11 +57,41 @@ import javax.ejb.EJB;
 public class ResultsServlet extends HttpServlet {
 
 	private static final long serialVersionUID = 5110370586544559082L;
+	private static final long DEFAULT_RESULT_CACHE_MAX_BYTES = 32 * 1024 * 1024;
+	private static final long DEFAULT_RESULT_CACHE_TTL = 600;
+	private static final String MARKET = "en-US";
+	/**
+	 * Result windows depend on the client and may be stored by its own cache
+	 * only. They have to be revalidated as the policies may have changed.
+	 */
+	private static final String RESULTS_CACHE_CONTROL = "private, no-cache";
 	@Resource(name = "IP_RESTRICTION_PATTERN")
 	private String IP_RESTRICTION_PATTERN;
 	private final static Logger LOGGER = Logger.getLogger(ResultsServlet.class.getCanonicalName());
 	@EJB
 	private IDispatcherLocal dispatcher;
+	@EJB
+	private IPolicyGenerationLocal policyGenerationHelper;
+	private final RegulationInfoFragmentCache fragmentCache = new RegulationInfoFragmentCache();
+	@Resource(name = "RESULT_CACHE_MAX_BYTES")
+	private Long RESULT_CACHE_MAX_BYTES;
+	@Resource(name = "RESULT_CACHE_TTL")
+	private Long RESULT_CACHE_TTL;
+	private ResultWindowCache windowCache;
+
+	/**
+	 * <p>Creates the result window cache as configured by
+	 * {@code RESULT_CACHE_MAX_BYTES} and {@code RESULT_CACHE_TTL}.
+	 *
+	 * @throws ServletException if a servlet-specific error occurs
+	 */
+	@Override
+	public void init() throws ServletException {
+		long maxBytes = (RESULT_CACHE_MAX_BYTES == null) ? DEFAULT_RESULT_CACHE_MAX_BYTES : RESULT_CACHE_MAX_BYTES;
+		long timeToLive = (RESULT_CACHE_TTL == null) ? DEFAULT_RESULT_CACHE_TTL : RESULT_CACHE_TTL;
+		windowCache = new ResultWindowCache(maxBytes, timeToLive * 1000);
+		LOGGER.log(Level.FINE, "Caching result windows with up to {0} bytes for {1} seconds.", new Object[]{maxBytes, timeToLive});
+	}
 
 	/**
 	 * Processes requests for both HTTP
@@ -66,6 +103,9 @@ public class ResultsServlet extends HttpServlet {
 	 * {@code IP_RESTRICTION_PATTERN}. In this case and in the case that there are
 	 * no more results, a div with identifier will be printed. If needed, messages
 	 * are printed.
+	 * <p>Complete result windows are cached gzip-compressed per policy
+	 * generation. Windows containing an error are never cached. Cached windows
+	 * carry a strong entity tag so that clients can revalidate them.
 	 *
 	 * @param request  servlet request
 	 * @param response servlet response
@@ -82,67 +122,48 @@ public class ResultsServlet extends HttpServlet {
 		try {
 			final int top = Integer.parseInt(request.getParameter("top"));
 			final int skip = Integer.parseInt(request.getParameter("skip"));
-			/**
-			 * TODO: this value is NOT unique iff {@code top} is dynamic throughout
-			 * all calls in one session. If you plan to vary {@code top} then you have
-			 * to choose another way of calculating an ID!
-			 */
-			long unusedRegulatedResultCountId = skip + top;
 
-			try (PrintWriter out = response.getWriter()) {
-				if (IP_RESTRICTION_PATTERN != null
-						&& !ipAddress.startsWith(IP_RESTRICTION_PATTERN)) {
+			if (IP_RESTRICTION_PATTERN != null
+					&& !ipAddress.startsWith(IP_RESTRICTION_PATTERN)) {
+				response.setHeader("Cache-Control", "no-store");
+				try (PrintWriter out = response.getWriter()) {
 					out.println(createEORString());
 					out.println(TagHelper.createTag("div",
 																					"class",
 																					new String[]{"label", "label-warning", "infoBanner"},
 																					String.format("Only users whose IP-address starts with \"%s\" may use this search engine. We are very sorry fot that.", IP_RESTRICTION_PATTERN)));
-				} else {
-					try {
-						IResultsContainer<IResult> results = dispatcher.doSearch(encodedSearchTerm, source, "en-US", top, skip);
-						if (!results.isEmpty()) {
-							for (IResult result : results) {
-								switch (source) {
-									case "web":
-										if (result instanceof FilteredWebResult) {
-											processFilteredWebResult(out, (FilteredWebResult) result, unusedRegulatedResultCountId++);
-										} else {
-											processWebResult(out, (IUnfilteredWebResult) result);
-										}
-										break;
-									case "image":
-										if (result instanceof FilteredImageResult) {
-											processFilteredImageResult(out, (FilteredImageResult) result);
-										} else {
-											processImageResult(out, (IUnfilteredImageResult) result);
-										}
-										break;
-									default:
-										throw new IllegalArgumentException(String.format("Unknown source \"%s\" modified by %s", source, ipAddress));
-								}
-							}
-						} else {
-							out.println(createEORString());
-							out.println( // div element marking end of available results
-											TagHelper.createTag("div",
-																					"class",
-																					new String[]{"label", "label-info", "infoBanner"},
-																					"There are no more results."));
-						}
-						// response.setStatus(HttpServletResponse.SC_OK); // this is default
+				}
+				return;
+			}
 
-					} catch (Exception ex) {
-						out.println(createEORString());
-						out.println(
-										TagHelper.createTag("div",
-																				"class",
-																				new String[]{"label", "label-danger", "infoBanner"},
-																				"An internal server error occured (500). Most likely, the backend search engine is having problems. Please try again later."));
-						// response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-						LOGGER.log(Level.SEVERE, "An internal server error occured. Most likely, the bing search API gave up returning results.", ex);
+			final long policyGeneration = policyGenerationHelper.getCurrentGeneration().getNumber();
+			fragmentCache.invalidateIfOutdated(policyGeneration);
+			ResultWindowCache.Key key = new ResultWindowCache.Key(encodedSearchTerm, source, MARKET, top, skip, policyGeneration);
+			ResultWindowCache.Window window = windowCache.get(key);
+			if (window == null) {
+				StringWriter html = new StringWriter();
+				boolean isCacheable;
+				try (PrintWriter out = new PrintWriter(html)) {
+					isCacheable = printResults(out, dispatcher.parseQuery(encodedSearchTerm, MARKET), source, top, skip, ipAddress);
+				}
+				if (!isCacheable) {
+					windowCache.recordBypass();
+					response.setHeader("Cache-Control", "no-store");
+					try (PrintWriter out = response.getWriter()) {
+						out.print(html.toString());
 					}
+					return;
 				}
-				out.close();
+				byte[] content = html.toString().getBytes("UTF-8");
+				window = new ResultWindowCache.Window(CompressionHelper.gzip(content),
+																							HttpCachingHelper.createETag(content, Long.toString(policyGeneration)));
+				windowCache.put(key, window);
+			}
+
+			String eTag = CompressionHelper.acceptsGzip(request) ? HttpCachingHelper.toGzipETag(window.getETag()) : window.getETag();
+			response.addHeader("Vary", "Accept-Encoding");
+			if (!HttpCachingHelper.isNotModified(request, response, eTag, -1, RESULTS_CACHE_CONTROL)) {
+				CompressionHelper.writeGzipped(request, response, window.getContent());
 			}
 		} catch (NumberFormatException e) { // catch JS obvious JS manipulation and don't load any further content.
 			response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
@@ -150,6 +171,72 @@ public class ResultsServlet extends HttpServlet {
 		}
 	}
 
+	/**
+	 * <p>Retrieves the results and prints them. If there are no more results or
+	 * the backend search engine failed, a div with identifier and a message will
+	 * be printed.
+	 *
+	 * @param out               {@code PrintWriter} to print the results to.
+	 * @param parsedQuery       the analysed search term.
+	 * @param source            "web" or "image".
+	 * @param top               amount of results to retrieve.
+	 * @param skip              amount of results to skip.
+	 * @param ipAddress         of the requesting client for logging.
+	 *
+	 * @return {@code true} if the printed window may be cached; {@code false} if
+	 *          an error occurred.
+	 */
+	private boolean printResults(PrintWriter out, ParsedQuery parsedQuery, String source, int top, int skip, String ipAddress) {
+		/**
+		 * TODO: this value is NOT unique iff {@code top} is dynamic throughout
+		 * all calls in one session. If you plan to vary {@code top} then you have
+		 * to choose another way of calculating an ID!
+		 */
+		long unusedRegulatedResultCountId = skip + top;
+		try {
+			IResultsContainer<IResult> results = dispatcher.doSearch(parsedQuery, source, top, skip);
+			if (!results.isEmpty()) {
+				for (IResult result : results) {
+					switch (source) {
+						case "web":
+							if (result instanceof FilteredWebResult) {
+								processFilteredWebResult(out, (FilteredWebResult) result, unusedRegulatedResultCountId++);
+							} else {
+								processWebResult(out, (IUnfilteredWebResult) result);
+							}
+							break;
+						case "image":
+							if (result instanceof FilteredImageResult) {
+								processFilteredImageResult(out, (FilteredImageResult) result);
+							} else {
+								processImageResult(out, (IUnfilteredImageResult) result);
+							}
+							break;
+						default:
+							throw new IllegalArgumentException(String.format("Unknown source \"%s\" modified by %s", source, ipAddress));
+					}
+				}
+			} else {
+				out.println(createEORString());
+				out.println( // div element marking end of available results
+								TagHelper.createTag("div",
+																		"class",
+																		new String[]{"label", "label-info", "infoBanner"},
+																		"There are no more results."));
+			}
+			return true;
+		} catch (Exception ex) {
+			out.println(createEORString());
+			out.println(
+							TagHelper.createTag("div",
+																	"class",
+																	new String[]{"label", "label-danger", "infoBanner"},
+																	"An internal server error occured (500). Most likely, the backend search engine is having problems. Please try again later."));
+			LOGGER.log(Level.SEVERE, "An internal server error occured. Most likely, the bing search API gave up returning results.", ex);
+			return false;
+		}
+	}
+
 	/**
 	 * <p>This container serves as an indicator for the AJAX scroll function to
 	 * stop monitoring scrolling.
@@ -373,12 +460,12 @@ public class ResultsServlet extends HttpServlet {
 
 	/**
 	 * <p>This method processes a {@code AbstractFilteredResult} to display it
-	 * together with its meta-information. Currently InFO only sets URIs for the
-	 * important legal/background information. Therefore only links are being
-	 * created. Every {@code AbstractFilteredResult} gets wrapped into a dl-tag
-	 * with an unique id calculated from {@code freeId}, which should be
-	 * {@code top+skip}.
-	 * TODO: output more information when InFO transmits more information.
+	 * together with its meta-information. The meta-information only depends on
+	 * the regulating rule. It is therefore rendered once per rule and memoized
+	 * in {@code fragmentCache} until the policies are reloaded.
+	 *
+	 * @see #renderFilteredResult(
+	 * de.uni_koblenz.aggrimm.icp.interfaceAgents.results.filtered.AbstractFilteredResult)
 	 *
 	 * @param out    {@code PrintWriter} that is used for displaying filtered web
 	 *                result.
@@ -389,6 +476,30 @@ public class ResultsServlet extends HttpServlet {
 	 * @return {@code PrintWriter} with added {@code result} output.
 	 */
 	private PrintWriter processFilteredResult(PrintWriter out, AbstractFilteredResult result) {
+		String fragment = fragmentCache.get(result.getRegulatingRuleId());
+		if (fragment == null) {
+			fragment = renderFilteredResult(result);
+			fragmentCache.put(result.getRegulatingRuleId(), fragment);
+		}
+		out.print(fragment);
+
+		return out;
+	}
+
+	/**
+	 * <p>Renders the meta-information of a {@code AbstractFilteredResult}.
+	 * Currently InFO only sets URIs for the important legal/background
+	 * information. Therefore only links are being created.
+	 * TODO: output more information when InFO transmits more information.
+	 *
+	 * @param result {@code AbstractFilteredResult} that should be displayed with
+	 *                its meta-information extracted.
+	 *
+	 * @return HTML of {@code result}'s meta-information.
+	 */
+	private String renderFilteredResult(AbstractFilteredResult result) {
+		StringWriter fragment = new StringWriter();
+		PrintWriter out = new PrintWriter(fragment);
 		List<? extends AbstractMetaInformationEntity> l = result.getControlledTopics();
 
 		out.println("<dt>Controlled content:</dt>");
@@ -423,8 +534,9 @@ public class ResultsServlet extends HttpServlet {
 						TagHelper.createTag("dd",
 																createURIHrefString(result.getRuleDataProvider(), "Click for more information.")));
 		out.println("</dl>");
+		out.flush();
 
-		return out;
+		return fragment.toString();
 	}
 
 	/**
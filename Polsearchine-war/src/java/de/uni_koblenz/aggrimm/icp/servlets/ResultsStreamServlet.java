@@ -0,0 +1,164 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.servlets;
+
+import de.uni_koblenz.aggrimm.icp.facades.local.resultRetrieval.IDispatcherLocal;
+import de.uni_koblenz.aggrimm.icp.servlets.helper.ResultStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Resource;
+import javax.ejb.EJB;
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+/**
+ * <p>Servlet streaming results as Server-Sent Events. A <code>GET</code>
+ * request opens a stream and immediately starts sending the first page of
+ * results. The connection is kept open so that further pages can be requested
+ * by a <code>POST</code> request carrying the stream's identifier. The events
+ * are described in {@link ResultStream}.
+ * <p>Streams are bound to the session which opened them. They are kept in
+ * this servlet instead of the session, as they cannot be serialised along
+ * with it.
+ *
+ * @author mruster
+ */
+@WebServlet(name = "ResultsStreamServlet", urlPatterns = {"/ResultsStreamServlet"}, asyncSupported = true)
+public class ResultsStreamServlet extends HttpServlet {
+
+	private static final long serialVersionUID = 8427145129563089310L;
+	/**
+	 * Streams are closed after this many milliseconds at the latest.
+	 */
+	private static final long STREAM_TIMEOUT = 15 * 60 * 1000;
+	@Resource(name = "IP_RESTRICTION_PATTERN")
+	private String IP_RESTRICTION_PATTERN;
+	private final static Logger LOGGER = Logger.getLogger(ResultsStreamServlet.class.getCanonicalName());
+	@EJB
+	private IDispatcherLocal dispatcher;
+	/**
+	 * Open streams of all sessions mapped by their identifier. Streams remove
+	 * themselves when they are closed.
+	 */
+	private final Map<String, ResultStream> streams = new ConcurrentHashMap<>();
+
+	/**
+	 * Handles the HTTP
+	 * <code>GET</code> method.
+	 *
+	 * <p>Opens a stream for the results specified by {@code searchTerm},
+	 * {@code source} and {@code top} (the amount of results per page). Disallows
+	 * the access to IPs not matching the {@code IP_RESTRICTION_PATTERN}.
+	 *
+	 * @param request  servlet request
+	 * @param response servlet response
+	 *
+	 * @throws ServletException if a servlet-specific error occurs
+	 * @throws IOException      if an I/O error occurs
+	 */
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response)
+					throws ServletException, IOException {
+		final String encodedSearchTerm = request.getParameter("searchTerm");
+		final String source = request.getParameter("source");
+		final String ipAddress = request.getRemoteAddr();
+		final int top;
+		try {
+			top = Integer.parseInt(request.getParameter("top"));
+		} catch (NumberFormatException e) { // catch JS obvious JS manipulation and don't load any further content.
+			response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+			LOGGER.log(Level.WARNING, "JS manipulation detected.\ntop:\t{0}\nIP:\t{1}", new Object[]{request.getParameter("top"), ipAddress});
+			return;
+		}
+		if (!"web".equals(source) && !"image".equals(source)) {
+			response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+			LOGGER.log(Level.WARNING, "Unknown source \"{0}\" modified by {1}", new Object[]{source, ipAddress});
+			return;
+		}
+
+		response.setContentType("text/event-stream;charset=UTF-8");
+		response.setHeader("Cache-Control", "no-cache");
+		AsyncContext asyncContext = request.startAsync();
+		asyncContext.setTimeout(STREAM_TIMEOUT);
+		ResultStream stream = new ResultStream(UUID.randomUUID().toString(),
+																					 request.getSession().getId(),
+																					 asyncContext,
+																					 streams,
+																					 dispatcher,
+																					 dispatcher.parseQuery(encodedSearchTerm, "en-US"),
+																					 source,
+																					 top);
+		stream.open();
+
+		if (IP_RESTRICTION_PATTERN != null
+				&& !ipAddress.startsWith(IP_RESTRICTION_PATTERN)) {
+			stream.end("warning", String.format("Only users whose IP-address starts with \"%s\" may use this search engine. We are very sorry fot that.", IP_RESTRICTION_PATTERN));
+		} else {
+			stream.requestPage();
+		}
+	}
+
+	/**
+	 * Handles the HTTP
+	 * <code>POST</code> method.
+	 *
+	 * <p>Requests the next page on the stream identified by {@code streamId}.
+	 * Responds with 202 if the page will be sent, with 409 if a page is still
+	 * being sent and with 404 if there is no such open stream.
+	 *
+	 * @param request  servlet request
+	 * @param response servlet response
+	 *
+	 * @throws ServletException if a servlet-specific error occurs
+	 * @throws IOException      if an I/O error occurs
+	 */
+	@Override
+	protected void doPost(HttpServletRequest request, HttpServletResponse response)
+					throws ServletException, IOException {
+		HttpSession session = request.getSession(false);
+		String streamId = request.getParameter("streamId");
+		ResultStream stream = (session == null || streamId == null) ? null : streams.get(streamId);
+
+		if (stream == null || !stream.isOwnedBy(session.getId())) {
+			response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+		} else if (stream.requestPage()) {
+			response.setStatus(HttpServletResponse.SC_ACCEPTED);
+		} else {
+			response.setStatus(HttpServletResponse.SC_CONFLICT);
+		}
+	}
+
+	/**
+	 * Returns a short description of the servlet.
+	 *
+	 * @return a String containing servlet description
+	 */
+	@Override
+	public String getServletInfo() {
+		return "Streams results as Server-Sent Events";
+	}
+}
@@ -17,13 +17,12 @@
  */
 package de.uni_koblenz.aggrimm.icp.servlets;
 
-import java.io.BufferedReader;
+import de.uni_koblenz.aggrimm.icp.servlets.helper.CompressionHelper;
+import de.uni_koblenz.aggrimm.icp.servlets.helper.HttpCachingHelper;
+import de.uni_koblenz.aggrimm.icp.servlets.helper.WatchedFile;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
-import java.nio.charset.Charset;
+import java.nio.file.Paths;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Resource;
@@ -42,11 +41,38 @@ import javax.servlet.http.HttpServletResponse;
 public class SearchEngineLegalTextServlet extends HttpServlet {
 
 	private static final long serialVersionUID = 5733118404496469565L;
+	/**
+	 * The legal text rarely changes. Clients may use their copy for ten minutes
+	 * and revalidate it afterwards.
+	 */
+	private static final String LEGAL_TEXT_CACHE_CONTROL = "public, max-age=600";
 	@Resource(name = "SEARCH_ENGINE")
 	private String SEARCH_ENGINE;
 	@Resource(name = "LEGAL_TEXT_PATH")
 	private String LEGAL_TEXT_PATH;
 	private final static Logger LOGGER = Logger.getLogger(SearchEngineLegalTextServlet.class.getCanonicalName());
+	private WatchedFile legalText;
+
+	/**
+	 * <p>Loads the legal text of the configured search engine into memory and
+	 * starts watching it for changes. If it cannot be watched, it is read on
+	 * every request instead.
+	 *
+	 * @throws ServletException if a servlet-specific error occurs
+	 */
+	@Override
+	public void init() throws ServletException {
+		legalText = new WatchedFile(Paths.get(LEGAL_TEXT_PATH, SEARCH_ENGINE));
+	}
+
+	@Override
+	public void destroy() {
+		try {
+			legalText.close();
+		} catch (IOException ex) {
+			LOGGER.log(Level.WARNING, null, ex);
+		}
+	}
 
 	/**
 	 * Processes requests for both HTTP
@@ -55,7 +81,8 @@ public class SearchEngineLegalTextServlet extends HttpServlet {
 	 *
 	 * <p>Prints legal text for activated search engine or nothing if no legal
 	 * text is found. In this case, there will also be a message logged on the
-	 * SEVERE level.
+	 * SEVERE level. The legal text is served from memory, gzip-compressed if
+	 * the client accepts it.
 	 *
 	 * @param request  servlet request
 	 * @param response servlet response
@@ -66,37 +93,26 @@ public class SearchEngineLegalTextServlet extends HttpServlet {
 	protected void processRequest(HttpServletRequest request, HttpServletResponse response)
 					throws ServletException, IOException {
 		response.setContentType("text/html;charset=UTF-8");
-		FileInputStream in = null;
-		BufferedReader br = null;
-		InputStreamReader insr = null;
 
-		try (PrintWriter out = response.getWriter()) {
-			File legalText = new File(LEGAL_TEXT_PATH + File.separator + SEARCH_ENGINE);
-			assert (legalText.isFile());
-			if (legalText.isFile()) {
-				in = new FileInputStream(legalText);
-				insr = new InputStreamReader(in, Charset.forName("UTF-8"));
-				br = new BufferedReader(insr);
-				String line;
-				while ((line = br.readLine()) != null) {
-					out.println(line);
-				}
+		WatchedFile.Content content = legalText.getContent();
+		if (content == null) {
+			LOGGER.log(Level.SEVERE, "The legal text for the current search engine could not be found or opened. The missing file is {0}", LEGAL_TEXT_PATH + File.separator + SEARCH_ENGINE);
+			return;
+		}
+
+		final boolean isGzipped = CompressionHelper.acceptsGzip(request);
+		String eTag = isGzipped ? HttpCachingHelper.toGzipETag(content.getETag()) : content.getETag();
+		response.addHeader("Vary", "Accept-Encoding");
+		if (!HttpCachingHelper.isNotModified(request, response, eTag, content.getLastModified(), LEGAL_TEXT_CACHE_CONTROL)) {
+			byte[] bytes;
+			if (isGzipped) {
+				response.setHeader("Content-Encoding", "gzip");
+				bytes = content.getGzippedBytes();
 			} else {
-				LOGGER.log(Level.SEVERE, "The legal text for the current search engine could not be found or opened. The missing file is {0}", legalText);
-			}
-		} catch (IOException ex) {
-			response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-			LOGGER.log(Level.SEVERE, null, ex);
-		} finally {
-			if (in != null) {
-				in.close();
-			}
-			if (insr != null) {
-				insr.close();
-			}
-			if (br != null) {
-				br.close();
+				bytes = content.getBytes();
 			}
+			response.setContentLength(bytes.length);
+			response.getOutputStream().write(bytes);
 		}
 	}
 
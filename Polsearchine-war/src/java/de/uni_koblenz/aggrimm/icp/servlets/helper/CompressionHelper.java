@@ -0,0 +1,91 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.servlets.helper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * <p>A simple helper class for serving pre-compressed content.
+ *
+ * @author mruster
+ */
+public class CompressionHelper {
+
+	/**
+	 * @param content bytes to compress.
+	 *
+	 * @return {@code content} compressed with gzip.
+	 * @throws IOException if compressing failed.
+	 */
+	public static byte[] gzip(byte[] content) throws IOException {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4 + 64);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+			gzip.write(content);
+		}
+		return compressed.toByteArray();
+	}
+
+	/**
+	 * @param request the client's request.
+	 *
+	 * @return {@code true} if the client accepts gzip-compressed responses.
+	 */
+	public static boolean acceptsGzip(HttpServletRequest request) {
+		String acceptEncoding = request.getHeader("Accept-Encoding");
+		return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+	}
+
+	/**
+	 * <p>Writes gzip-compressed content to the response. Clients accepting
+	 * gzip get the bytes as they are, all others get them decompressed.
+	 *
+	 * @param request    the client's request.
+	 * @param response   the response to write to. Its content type must already
+	 *                    be set.
+	 * @param compressed gzip-compressed content.
+	 *
+	 * @throws IOException if writing failed.
+	 */
+	public static void writeGzipped(HttpServletRequest request, HttpServletResponse response, byte[] compressed) throws IOException {
+		if (!response.containsHeader("Vary")) {
+			response.addHeader("Vary", "Accept-Encoding");
+		}
+		OutputStream out = response.getOutputStream();
+		if (acceptsGzip(request)) {
+			response.setHeader("Content-Encoding", "gzip");
+			response.setContentLength(compressed.length);
+			out.write(compressed);
+		} else {
+			try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+				byte[] buffer = new byte[8192];
+				int read;
+				while ((read = gzip.read(buffer)) != -1) {
+					out.write(buffer, 0, read);
+				}
+			}
+		}
+		out.flush();
+	}
+}
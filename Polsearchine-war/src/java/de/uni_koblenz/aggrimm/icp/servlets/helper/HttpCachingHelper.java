@@ -0,0 +1,147 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.servlets.helper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * <p>A simple helper class for answering conditional HTTP requests with
+ * strong entity tags.
+ *
+ * @author mruster
+ */
+public class HttpCachingHelper {
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+	/**
+	 * Entity tags consist of this many hexadecimal digits of the content hash.
+	 */
+	private static final int ETAG_DIGITS = 32;
+
+	/**
+	 * @param content   the bytes sent to the client.
+	 * @param qualifier further information the content depends on, e.g. the
+	 *                   policy generation. May be empty.
+	 *
+	 * @return a quoted strong entity tag derived from the SHA-256 hash of
+	 *          {@code content} and {@code qualifier}.
+	 */
+	public static String createETag(byte[] content, String qualifier) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("Every Java platform has to support SHA-256.", ex);
+		}
+		digest.update(content);
+		byte[] hash = digest.digest();
+
+		StringBuilder eTag = new StringBuilder(ETAG_DIGITS + qualifier.length() + 3);
+		eTag.append('"');
+		if (!qualifier.isEmpty()) {
+			eTag.append(qualifier).append('-');
+		}
+		for (int i = 0; i < ETAG_DIGITS / 2; i++) {
+			eTag.append(HEX_DIGITS[(hash[i] >> 4) & 0xF]);
+			eTag.append(HEX_DIGITS[hash[i] & 0xF]);
+		}
+		return eTag.append('"').toString();
+	}
+
+	/**
+	 * <p>Different content codings of the same resource must not share a strong
+	 * entity tag.
+	 *
+	 * @param eTag quoted entity tag of the uncompressed content.
+	 *
+	 * @return quoted entity tag for the gzip-compressed content.
+	 */
+	public static String toGzipETag(String eTag) {
+		return eTag.substring(0, eTag.length() - 1) + "-gzip\"";
+	}
+
+	/**
+	 * <p>Sets the caching headers and answers with 304 (Not Modified) if the
+	 * client's copy is still valid. {@code If-Modified-Since} is only evaluated
+	 * if there is no {@code If-None-Match} header.
+	 *
+	 * @param request      the client's request.
+	 * @param response     the response to set the headers of.
+	 * @param eTag         quoted strong entity tag of the content.
+	 * @param lastModified time of the last modification in milliseconds or a
+	 *                      negative value if it is unknown.
+	 * @param cacheControl value of the {@code Cache-Control} header.
+	 *
+	 * @return {@code true} if 304 has been set and no content must be sent;
+	 *          {@code false} if the content has to be sent.
+	 */
+	public static boolean isNotModified(HttpServletRequest request, HttpServletResponse response,
+																			String eTag, long lastModified, String cacheControl) {
+		response.setHeader("ETag", eTag);
+		response.setHeader("Cache-Control", cacheControl);
+		if (lastModified >= 0) {
+			response.setDateHeader("Last-Modified", lastModified);
+		}
+
+		boolean isNotModified;
+		String ifNoneMatch = request.getHeader("If-None-Match");
+		if (ifNoneMatch != null) {
+			isNotModified = matches(ifNoneMatch, eTag);
+		} else {
+			long ifModifiedSince = -1;
+			try {
+				ifModifiedSince = request.getDateHeader("If-Modified-Since");
+			} catch (IllegalArgumentException e) { // malformed dates are ignored
+			}
+			// HTTP dates have a precision of seconds:
+			isNotModified = lastModified >= 0 && ifModifiedSince >= 0
+											&& lastModified / 1000 <= ifModifiedSince / 1000;
+		}
+
+		if (isNotModified) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+		}
+		return isNotModified;
+	}
+
+	/**
+	 * <p>{@code If-None-Match} uses the weak comparison. Therefore, a weak
+	 * indicator of the client's entity tags is ignored.
+	 *
+	 * @param ifNoneMatch value of the {@code If-None-Match} header.
+	 * @param eTag        quoted entity tag of the content.
+	 *
+	 * @return {@code true} if {@code ifNoneMatch} contains {@code eTag} or is
+	 *          "*".
+	 */
+	private static boolean matches(String ifNoneMatch, String eTag) {
+		for (String candidate : ifNoneMatch.split(",")) {
+			candidate = candidate.trim();
+			if (candidate.startsWith("W/")) {
+				candidate = candidate.substring(2);
+			}
+			if (candidate.equals("*") || candidate.equals(eTag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.servlets.helper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * <p>A minimal streaming JSON writer. Every token is immediately written to
+ * the underlying {@code Writer} so that no intermediate object tree has to be
+ * built for a response. Separators between members and elements are inserted
+ * automatically. The caller is responsible for a well-formed nesting of
+ * {@code begin}- and {@code end}-calls.
+ *
+ * @author mruster
+ */
+public class JSONStreamWriter {
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+	private final Writer out;
+	/**
+	 * One entry per open object or array. {@code true} iff the container
+	 * already holds at least one member or element.
+	 */
+	private final Deque<Boolean> containers = new ArrayDeque<>();
+	private boolean isAwaitingMemberValue = false;
+
+	/**
+	 * @param out {@code Writer} to stream the JSON tokens to.
+	 */
+	public JSONStreamWriter(Writer out) {
+		this.out = out;
+	}
+
+	public JSONStreamWriter beginObject() throws IOException {
+		beforeValue();
+		out.write('{');
+		containers.push(Boolean.FALSE);
+		return this;
+	}
+
+	public JSONStreamWriter endObject() throws IOException {
+		containers.pop();
+		out.write('}');
+		return this;
+	}
+
+	public JSONStreamWriter beginArray() throws IOException {
+		beforeValue();
+		out.write('[');
+		containers.push(Boolean.FALSE);
+		return this;
+	}
+
+	public JSONStreamWriter endArray() throws IOException {
+		containers.pop();
+		out.write(']');
+		return this;
+	}
+
+	/**
+	 * @param name of the member whose value will be written next.
+	 *
+	 * @return this {@code JSONStreamWriter}.
+	 * @throws IOException if the underlying {@code Writer} failed.
+	 */
+	public JSONStreamWriter name(String name) throws IOException {
+		separate();
+		writeString(name);
+		out.write(':');
+		isAwaitingMemberValue = true;
+		return this;
+	}
+
+	/**
+	 * @param value to write. {@code null} will be written as JSON null.
+	 *
+	 * @return this {@code JSONStreamWriter}.
+	 * @throws IOException if the underlying {@code Writer} failed.
+	 */
+	public JSONStreamWriter value(String value) throws IOException {
+		beforeValue();
+		if (value == null) {
+			out.write("null");
+		} else {
+			writeString(value);
+		}
+		return this;
+	}
+
+	public JSONStreamWriter value(long value) throws IOException {
+		beforeValue();
+		out.write(Long.toString(value));
+		return this;
+	}
+
+	/**
+	 * @param value to write. As JSON does not know NaN and infinity, they will
+	 *               be written as JSON null.
+	 *
+	 * @return this {@code JSONStreamWriter}.
+	 * @throws IOException if the underlying {@code Writer} failed.
+	 */
+	public JSONStreamWriter value(double value) throws IOException {
+		beforeValue();
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			out.write("null");
+		} else {
+			out.write(Double.toString(value));
+		}
+		return this;
+	}
+
+	public JSONStreamWriter value(boolean value) throws IOException {
+		beforeValue();
+		out.write(value ? "true" : "false");
+		return this;
+	}
+
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	private void beforeValue() throws IOException {
+		if (isAwaitingMemberValue) {
+			isAwaitingMemberValue = false;
+		} else {
+			separate();
+		}
+	}
+
+	/**
+	 * <p>Writes a comma if the current container already holds a member or an
+	 * element.
+	 */
+	private void separate() throws IOException {
+		if (!containers.isEmpty()) {
+			if (containers.peek()) {
+				out.write(',');
+			} else {
+				containers.pop();
+				containers.push(Boolean.TRUE);
+			}
+		}
+	}
+
+	/**
+	 * <p>Writes {@code s} as quoted and escaped JSON string. Additionally to
+	 * the mandatory escapes, '&lt;' and the line and paragraph separators are
+	 * escaped so that the output can safely be embedded into HTML and
+	 * JavaScript.
+	 */
+	private void writeString(String s) throws IOException {
+		out.write('"');
+		int unescapedFrom = 0;
+		final int length = s.length();
+		for (int i = 0; i < length; i++) {
+			final char c = s.charAt(i);
+			String replacement;
+			switch (c) {
+				case '"':
+					replacement = "\\\"";
+					break;
+				case '\\':
+					replacement = "\\\\";
+					break;
+				case '\n':
+					replacement = "\\n";
+					break;
+				case '\r':
+					replacement = "\\r";
+					break;
+				case '\t':
+					replacement = "\\t";
+					break;
+				default:
+					if (c < 0x20 || c == '<' || c == '\u2028' || c == '\u2029') {
+						replacement = unicodeEscape(c);
+					} else {
+						continue;
+					}
+			}
+			out.write(s, unescapedFrom, i - unescapedFrom);
+			out.write(replacement);
+			unescapedFrom = i + 1;
+		}
+		out.write(s, unescapedFrom, length - unescapedFrom);
+		out.write('"');
+	}
+
+	private static String unicodeEscape(char c) {
+		return new String(new char[]{'\\', 'u',
+																 HEX_DIGITS[(c >> 12) & 0xF],
+																 HEX_DIGITS[(c >> 8) & 0xF],
+																 HEX_DIGITS[(c >> 4) & 0xF],
+																 HEX_DIGITS[c & 0xF]});
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.servlets.helper;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>Memoizes the rendered regulation information of filtered results. The
+ * block of controlled content, legal authorisations, organisational
+ * motivations and rule data provider only depends on the regulating rule.
+ * Therefore, it is rendered once per rule and copied for every further hit
+ * regulated by the same rule.
+ * <p>Rule identifiers are only meaningful within one policy generation. The
+ * cache must therefore be told the current generation before it is used and
+ * will drop all fragments whenever the policies have been reloaded.
+ *
+ * @author mruster
+ */
+public class RegulationInfoFragmentCache {
+
+	private long generation = -1;
+	private volatile ConcurrentHashMap<Long, String> fragments = new ConcurrentHashMap<>();
+
+	/**
+	 * <p>Drops all fragments if they have been rendered for another policy
+	 * generation than {@code currentGeneration}.
+	 *
+	 * @param currentGeneration number of the policy generation in use.
+	 */
+	public synchronized void invalidateIfOutdated(long currentGeneration) {
+		if (generation != currentGeneration) {
+			fragments = new ConcurrentHashMap<>();
+			generation = currentGeneration;
+		}
+	}
+
+	/**
+	 * @param ruleId identifier of the regulating rule. May be {@code null}.
+	 *
+	 * @return the memoized fragment or {@code null} if there is none yet.
+	 */
+	public String get(Long ruleId) {
+		return (ruleId == null) ? null : fragments.get(ruleId);
+	}
+
+	/**
+	 * @param ruleId   identifier of the regulating rule. Fragments of results
+	 *                  without a regulating rule are not memoized.
+	 * @param fragment rendered regulation information.
+	 */
+	public void put(Long ruleId, String fragment) {
+		if (ruleId != null) {
+			fragments.putIfAbsent(ruleId, fragment);
+		}
+	}
+
+	/**
+	 * @return amount of memoized fragments.
+	 */
+	public int size() {
+		return fragments.size();
+	}
+}
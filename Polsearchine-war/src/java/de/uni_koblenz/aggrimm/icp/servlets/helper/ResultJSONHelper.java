@@ -0,0 +1,127 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.servlets.helper;
+
+import de.uni_koblenz.aggrimm.icp.entities.info.metaInformation.AbstractMetaInformationEntity;
+import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.IResult;
+import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.filtered.AbstractFilteredResult;
+import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.unfiltered.IUnfilteredImageResult;
+import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.unfiltered.IUnfilteredWebResult;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * <p>A simple helper class for writing results and their regulation
+ * information as JSON. Filtered results only reference their regulation
+ * information by a key so that the regulation information has to be written
+ * only once per response.
+ *
+ * @author mruster
+ */
+public class ResultJSONHelper {
+
+	/**
+	 * Key referencing the regulation information of results filtered by the
+	 * default rule.
+	 */
+	public static final String DEFAULT_REGULATION_KEY = "default";
+
+	/**
+	 * @param result filtered result.
+	 *
+	 * @return key under which {@code result}'s regulation information is
+	 *          written.
+	 */
+	public static String getRegulationKey(AbstractFilteredResult result) {
+		Long ruleId = result.getRegulatingRuleId();
+		return (ruleId == null) ? DEFAULT_REGULATION_KEY : ruleId.toString();
+	}
+
+	/**
+	 * <p>Writes {@code result} as JSON object. Filtered results only contain a
+	 * reference to their regulation information.
+	 *
+	 * @param json   the {@code JSONStreamWriter} to write to.
+	 * @param result the result to write.
+	 *
+	 * @throws IOException if writing failed.
+	 */
+	public static void writeResult(JSONStreamWriter json, IResult result) throws IOException {
+		json.beginObject();
+		if (result instanceof AbstractFilteredResult) {
+			json.name("filtered").value(true);
+			json.name("regulation").value(getRegulationKey((AbstractFilteredResult) result));
+		} else if (result instanceof IUnfilteredImageResult) {
+			IUnfilteredImageResult imageResult = (IUnfilteredImageResult) result;
+			json.name("filtered").value(false);
+			json.name("title").value(imageResult.getTitle());
+			json.name("url").value(imageResult.getUrl());
+			json.name("displayURL").value(imageResult.getDisplayURL());
+			json.name("sourceURL").value(imageResult.getSourceURL());
+			json.name("thumbnailURL").value(imageResult.getThumbnail().getUrl());
+			json.name("contentType").value(imageResult.getContentType());
+			json.name("width").value(imageResult.getWidth());
+			json.name("height").value(imageResult.getHeight());
+			json.name("fileSize").value(imageResult.getFileSize());
+		} else {
+			IUnfilteredWebResult webResult = (IUnfilteredWebResult) result;
+			json.name("filtered").value(false);
+			json.name("title").value(webResult.getTitle());
+			json.name("url").value(webResult.getUrl());
+			json.name("displayURL").value(webResult.getDisplayURL());
+			json.name("description").value(webResult.getDescription());
+		}
+		json.endObject();
+	}
+
+	/**
+	 * <p>Writes the regulation information of {@code result} as JSON object.
+	 * Currently InFO only sets URIs for the legal/background information.
+	 * Therefore only URIs are written.
+	 *
+	 * @param json   the {@code JSONStreamWriter} to write to.
+	 * @param result filtered result whose regulation information is written.
+	 *
+	 * @throws IOException if writing failed.
+	 */
+	public static void writeRegulation(JSONStreamWriter json, AbstractFilteredResult result) throws IOException {
+		json.beginObject();
+		json.name("controlledTopics");
+		writeURIs(json, result.getControlledTopics());
+		json.name("legalAuthorizations");
+		writeURIs(json, result.getLegalAuthorizations());
+		json.name("organizationalMotivations");
+		writeURIs(json, result.getOrganizationalMotivations());
+		json.name("ruleDataProvider").value(getURIString(result.getRuleDataProvider()));
+		json.endObject();
+	}
+
+	private static void writeURIs(JSONStreamWriter json, List<? extends AbstractMetaInformationEntity> metaInformation) throws IOException {
+		json.beginArray();
+		if (metaInformation != null) {
+			for (AbstractMetaInformationEntity entity : metaInformation) {
+				json.value(getURIString(entity));
+			}
+		}
+		json.endArray();
+	}
+
+	private static String getURIString(AbstractMetaInformationEntity metaInformation) {
+		return (metaInformation == null) ? null : metaInformation.getUri().toASCIIString();
+	}
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.servlets.helper;
+
+import de.uni_koblenz.aggrimm.icp.facades.local.resultRetrieval.IDispatcherLocal;
+import de.uni_koblenz.aggrimm.icp.interfaceAgents.ParsedQuery;
+import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.IResult;
+import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.IResultsContainer;
+import de.uni_koblenz.aggrimm.icp.interfaceAgents.results.filtered.AbstractFilteredResult;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+
+/**
+ * <p>One open Server-Sent Events connection delivering results page by page.
+ * A page is fetched whenever {@link #requestPage()} is called and its results
+ * are sent as one event each. The regulation information of filtered results
+ * is sent only once per stream.
+ * <p>The following events are sent:
+ * <ul>
+ * <li>{@code stream}: the identifier of this stream for requesting further
+ * pages.</li>
+ * <li>{@code regulation}: {@code key} and {@code regulation} information
+ * referenced by filtered results.</li>
+ * <li>{@code result}: a single result as written by
+ * {@code ResultJSONHelper}.</li>
+ * <li>{@code page}: the current page is complete; {@code skip} is the skip
+ * value of the next page.</li>
+ * <li>{@code end}: there will be no further events. Carries an optional
+ * {@code message} to display.</li>
+ * </ul>
+ *
+ * @author mruster
+ */
+public class ResultStream implements AsyncListener {
+
+	private final static Logger LOGGER = Logger.getLogger(ResultStream.class.getCanonicalName());
+	private final String id;
+	private final String sessionId;
+	private final AsyncContext asyncContext;
+	private final Map<String, ResultStream> registry;
+	private final IDispatcherLocal dispatcher;
+	private final ParsedQuery parsedQuery;
+	private final String source;
+	private final int top;
+	private final Set<String> sentRegulations = new HashSet<>();
+	private int skip = 0;
+	private boolean isFetching = false;
+	private boolean isClosed = false;
+
+	/**
+	 * <p>Creates the stream and registers it in {@code registry} until the
+	 * connection is closed.
+	 *
+	 * @param id                unique identifier of this stream.
+	 * @param sessionId         identifier of the session owning this stream.
+	 * @param asyncContext      the started {@code AsyncContext} of the
+	 *                           connection.
+	 * @param registry          where this stream is registered by {@code id}.
+	 * @param dispatcher        for retrieving the results.
+	 * @param parsedQuery       the search term, analysed once for the stream.
+	 * @param source            "web" or "image".
+	 * @param top               amount of results per page.
+	 */
+	public ResultStream(String id, String sessionId, AsyncContext asyncContext, Map<String, ResultStream> registry,
+											IDispatcherLocal dispatcher, ParsedQuery parsedQuery, String source, int top) {
+		this.id = id;
+		this.sessionId = sessionId;
+		this.asyncContext = asyncContext;
+		this.registry = registry;
+		this.dispatcher = dispatcher;
+		this.parsedQuery = parsedQuery;
+		this.source = source;
+		this.top = top;
+		asyncContext.addListener(this);
+		registry.put(id, this);
+	}
+
+	/**
+	 * @param sessionId identifier of a session.
+	 *
+	 * @return {@code true} if {@code sessionId} identifies the session which
+	 *          opened this stream.
+	 */
+	public boolean isOwnedBy(String sessionId) {
+		return this.sessionId.equals(sessionId);
+	}
+
+	/**
+	 * <p>Sends the {@code stream} event.
+	 *
+	 * @throws IOException if the connection failed.
+	 */
+	public synchronized void open() throws IOException {
+		JSONStreamWriter json = beginEvent("stream");
+		json.beginObject().name("id").value(id).endObject();
+		endEvent();
+	}
+
+	/**
+	 * <p>Starts fetching the next page unless a page is being fetched already
+	 * or the stream has been closed.
+	 *
+	 * @return {@code true} if a page will be sent; {@code false} else.
+	 */
+	public synchronized boolean requestPage() {
+		if (isFetching || isClosed) {
+			return false;
+		}
+		isFetching = true;
+		asyncContext.start(new Runnable() {
+			@Override
+			public void run() {
+				sendPage();
+			}
+		});
+		return true;
+	}
+
+	/**
+	 * <p>Sends the {@code end} event and closes the connection.
+	 *
+	 * @param level label level of the message ("info", "warning" or "danger").
+	 * @param text  the message to display.
+	 */
+	public synchronized void end(String level, String text) {
+		if (isClosed) {
+			return;
+		}
+		try {
+			JSONStreamWriter json = beginEvent("end");
+			json.beginObject();
+			json.name("message").beginObject();
+			json.name("level").value(level);
+			json.name("text").value(text);
+			json.endObject();
+			json.endObject();
+			endEvent();
+		} catch (IOException ex) {
+			LOGGER.log(Level.FINE, "Client disconnected before the end of the stream.", ex);
+		}
+		close();
+		asyncContext.complete();
+	}
+
+	/**
+	 * <p>Fetches and sends one page. Only one page is fetched at a time, which
+	 * is guaranteed by {@code isFetching}. The lock is not held while fetching
+	 * so that requests for further pages never have to wait for the backend.
+	 * It is held while writing, so nothing is written after the stream has been
+	 * ended or has timed out.
+	 */
+	private void sendPage() {
+		IResultsContainer<IResult> results;
+		try {
+			results = dispatcher.doSearch(parsedQuery, source, top, skip);
+		} catch (Exception ex) {
+			LOGGER.log(Level.SEVERE, "An internal server error occured. Most likely, the bing search API gave up returning results.", ex);
+			end("danger", "An internal server error occured (500). Most likely, the backend search engine is having problems. Please try again later.");
+			return;
+		}
+		if (results.isEmpty()) {
+			end("info", "There are no more results.");
+			return;
+		}
+
+		synchronized (this) {
+			if (isClosed) {
+				return;
+			}
+			try {
+				for (IResult result : results) {
+					if (result instanceof AbstractFilteredResult) {
+						sendRegulationIfNeeded((AbstractFilteredResult) result);
+					}
+					JSONStreamWriter json = beginEvent("result");
+					ResultJSONHelper.writeResult(json, result);
+					endEvent();
+				}
+				skip += top;
+				JSONStreamWriter json = beginEvent("page");
+				json.beginObject().name("skip").value(skip).endObject();
+				endEvent();
+				isFetching = false;
+			} catch (IOException ex) {
+				LOGGER.log(Level.FINE, "Client disconnected while streaming results.", ex);
+				close();
+				asyncContext.complete();
+			}
+		}
+	}
+
+	private void sendRegulationIfNeeded(AbstractFilteredResult result) throws IOException {
+		String key = ResultJSONHelper.getRegulationKey(result);
+		if (sentRegulations.add(key)) {
+			JSONStreamWriter json = beginEvent("regulation");
+			json.beginObject();
+			json.name("key").value(key);
+			json.name("regulation");
+			ResultJSONHelper.writeRegulation(json, result);
+			json.endObject();
+			endEvent();
+		}
+	}
+
+	/**
+	 * <p>Every event consists of its name and exactly one line of JSON data.
+	 * This is safe as the {@code JSONStreamWriter} escapes all line breaks.
+	 */
+	private JSONStreamWriter beginEvent(String event) throws IOException {
+		PrintWriter out = asyncContext.getResponse().getWriter();
+		out.write("event: ");
+		out.write(event);
+		out.write("\ndata: ");
+		return new JSONStreamWriter(out);
+	}
+
+	private void endEvent() throws IOException {
+		PrintWriter out = asyncContext.getResponse().getWriter();
+		out.write("\n\n");
+		out.flush();
+		if (out.checkError()) {
+			throw new IOException("The client closed the stream " + id);
+		}
+	}
+
+	private synchronized void close() {
+		isClosed = true;
+		registry.remove(id);
+	}
+
+	@Override
+	public void onComplete(AsyncEvent event) throws IOException {
+		close();
+	}
+
+	@Override
+	public synchronized void onTimeout(AsyncEvent event) throws IOException {
+		if (isClosed) {
+			return;
+		}
+		close();
+		asyncContext.complete();
+	}
+
+	@Override
+	public void onError(AsyncEvent event) throws IOException {
+		close();
+	}
+
+	@Override
+	public void onStartAsync(AsyncEvent event) throws IOException {
+	}
+}
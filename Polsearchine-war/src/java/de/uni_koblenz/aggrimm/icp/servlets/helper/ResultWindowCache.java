@@ -0,0 +1,261 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.servlets.helper;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>Caches the gzip-compressed HTML of complete result windows so that
+ * identical queries do not have to be retrieved, filtered and rendered again.
+ * <p>The cache is bounded by the total amount of bytes it holds. When it is
+ * full, the least recently used windows are evicted first. Every window
+ * expires after a fixed time to live so that changes of the backend search
+ * engine's results become visible eventually. Windows of former policy
+ * generations are never hit again as the generation is part of the key; they
+ * are evicted as they become the least recently used.
+ *
+ * @author mruster
+ */
+public class ResultWindowCache {
+
+	private final static Logger LOGGER = Logger.getLogger(ResultWindowCache.class.getCanonicalName());
+	/**
+	 * Estimated bytes of bookkeeping per entry additionally to its content.
+	 */
+	private static final int ENTRY_OVERHEAD = 128;
+	/**
+	 * Statistics are logged after this many lookups.
+	 */
+	private static final long STATISTICS_INTERVAL = 1000;
+	private final long maxBytes;
+	private final long timeToLive;
+	private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+	private long currentBytes = 0;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong expirations = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+	private final AtomicLong bypasses = new AtomicLong();
+
+	/**
+	 * @param maxBytes   upper bound of bytes held by this cache.
+	 * @param timeToLive milliseconds after which a window expires.
+	 */
+	public ResultWindowCache(long maxBytes, long timeToLive) {
+		this.maxBytes = maxBytes;
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * @param key of the result window.
+	 *
+	 * @return the window or {@code null} if it is not cached or expired.
+	 */
+	public Window get(Key key) {
+		Window content = null;
+		synchronized (this) {
+			Entry entry = entries.get(key);
+			if (entry != null) {
+				if (entry.expiresAt > System.currentTimeMillis()) {
+					content = entry.window;
+				} else {
+					remove(key, entry);
+					expirations.incrementAndGet();
+				}
+			}
+		}
+		long lookups = (content == null) ? misses.incrementAndGet() + hits.get() : hits.incrementAndGet() + misses.get();
+		if (lookups % STATISTICS_INTERVAL == 0) {
+			LOGGER.log(Level.INFO, "Result window cache statistics: {0}", this);
+		}
+		return content;
+	}
+
+	/**
+	 * <p>Caches a window. Windows larger than the whole cache are not cached.
+	 *
+	 * @param key    of the result window.
+	 * @param window the window to cache.
+	 */
+	public synchronized void put(Key key, Window window) {
+		long size = window.getContent().length + ENTRY_OVERHEAD;
+		if (size > maxBytes) {
+			bypasses.incrementAndGet();
+			return;
+		}
+		Entry former = entries.get(key);
+		if (former != null) {
+			remove(key, former);
+		}
+		entries.put(key, new Entry(window, System.currentTimeMillis() + timeToLive));
+		currentBytes += size;
+
+		Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+		while (currentBytes > maxBytes && iterator.hasNext()) {
+			Map.Entry<Key, Entry> eldest = iterator.next();
+			iterator.remove();
+			currentBytes -= eldest.getValue().window.getContent().length + ENTRY_OVERHEAD;
+			evictions.incrementAndGet();
+		}
+	}
+
+	/**
+	 * <p>Counts a window which must not be cached, e.g. because the backend
+	 * search engine returned an error.
+	 */
+	public void recordBypass() {
+		bypasses.incrementAndGet();
+	}
+
+	private void remove(Key key, Entry entry) {
+		entries.remove(key);
+		currentBytes -= entry.window.getContent().length + ENTRY_OVERHEAD;
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public long getExpirations() {
+		return expirations.get();
+	}
+
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	public long getBypasses() {
+		return bypasses.get();
+	}
+
+	public synchronized long getCurrentBytes() {
+		return currentBytes;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	@Override
+	public String toString() {
+		return "ResultWindowCache{" + "windows=" + size() + ", bytes=" + getCurrentBytes() + '/' + maxBytes
+					 + ", hits=" + hits + ", misses=" + misses + ", expirations=" + expirations
+					 + ", evictions=" + evictions + ", bypasses=" + bypasses + '}';
+	}
+
+	private static class Entry {
+
+		private final Window window;
+		private final long expiresAt;
+
+		Entry(Window window, long expiresAt) {
+			this.window = window;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	/**
+	 * <p>A rendered result window together with its entity tag.
+	 */
+	public static class Window {
+
+		private final byte[] content;
+		private final String eTag;
+
+		/**
+		 * @param content the gzip-compressed HTML of the window.
+		 * @param eTag    quoted strong entity tag of the uncompressed HTML.
+		 */
+		public Window(byte[] content, String eTag) {
+			this.content = content;
+			this.eTag = eTag;
+		}
+
+		public byte[] getContent() {
+			return content;
+		}
+
+		public String getETag() {
+			return eTag;
+		}
+	}
+
+	/**
+	 * <p>Identifies a result window. Search terms are compared after
+	 * normalisation, i.e. ignoring leading, trailing and repeated whitespace.
+	 */
+	public static class Key {
+
+		private final String searchTerm;
+		private final String source;
+		private final String market;
+		private final int top;
+		private final int skip;
+		private final long policyGeneration;
+
+		public Key(String encodedSearchTerm, String source, String market, int top, int skip, long policyGeneration) {
+			this.searchTerm = normalise(encodedSearchTerm);
+			this.source = source;
+			this.market = market;
+			this.top = top;
+			this.skip = skip;
+			this.policyGeneration = policyGeneration;
+		}
+
+		private static String normalise(String searchTerm) {
+			return (searchTerm == null) ? "" : searchTerm.trim().replaceAll("\\s+", " ");
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = searchTerm.hashCode();
+			hash = 31 * hash + (source == null ? 0 : source.hashCode());
+			hash = 31 * hash + (market == null ? 0 : market.hashCode());
+			hash = 31 * hash + top;
+			hash = 31 * hash + skip;
+			hash = 31 * hash + (int) (policyGeneration ^ (policyGeneration >>> 32));
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return top == other.top
+						 && skip == other.skip
+						 && policyGeneration == other.policyGeneration
+						 && searchTerm.equals(other.searchTerm)
+						 && (source == null ? other.source == null : source.equals(other.source))
+						 && (market == null ? other.market == null : market.equals(other.market));
+		}
+	}
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.servlets.helper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>Keeps the content of a static file in memory, both as it is and
+ * gzip-compressed, so that it can be served with a single write. The file's
+ * directory is watched and the content is reloaded whenever the file is
+ * created, modified or deleted.
+ *
+ * <p>No thread is started for watching. Instead, pending events are polled
+ * without blocking whenever the content is requested. If the directory cannot
+ * be watched, the file is read on every request.
+ *
+ * @author mruster
+ */
+public class WatchedFile implements Closeable {
+
+	private final static Logger LOGGER = Logger.getLogger(WatchedFile.class.getCanonicalName());
+	private final Path file;
+	/**
+	 * {@code null} if the file's directory is not watched.
+	 */
+	private WatchService watchService;
+	private Content content;
+
+	/**
+	 * <p>Loads {@code file} and starts watching it. If its directory cannot be
+	 * watched, a warning is logged and the file is read on every request.
+	 *
+	 * @param file the file to serve.
+	 */
+	public WatchedFile(Path file) {
+		this.file = file.toAbsolutePath();
+		load();
+		try {
+			watchService = this.file.getFileSystem().newWatchService();
+			this.file.getParent().register(watchService,
+																		 StandardWatchEventKinds.ENTRY_CREATE,
+																		 StandardWatchEventKinds.ENTRY_MODIFY,
+																		 StandardWatchEventKinds.ENTRY_DELETE);
+		} catch (IOException ex) {
+			LOGGER.log(Level.WARNING, "The directory of " + this.file + " cannot be watched. The file will be read on every request.", ex);
+			stopWatching();
+		}
+	}
+
+	/**
+	 * <p>Reloads the file first if it has changed since the last call.
+	 *
+	 * @return the current content or {@code null} if the file does not exist or
+	 *          cannot be read.
+	 */
+	public synchronized Content getContent() {
+		if (watchService == null || hasChanged()) {
+			load();
+		}
+		return content;
+	}
+
+	/**
+	 * <p>Stops watching the file.
+	 *
+	 * @throws IOException if closing the {@code WatchService} failed.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (watchService != null) {
+			watchService.close();
+			watchService = null;
+		}
+	}
+
+	private void load() {
+		if (!Files.isRegularFile(file)) {
+			content = null;
+			return;
+		}
+		try {
+			byte[] bytes = Files.readAllBytes(file);
+			content = new Content(bytes,
+														CompressionHelper.gzip(bytes),
+														HttpCachingHelper.createETag(bytes, ""),
+														Files.getLastModifiedTime(file).toMillis());
+			LOGGER.log(Level.FINE, "Loaded {0} ({1} bytes).", new Object[]{file, bytes.length});
+		} catch (IOException ex) {
+			content = null;
+			LOGGER.log(Level.SEVERE, "The file " + file + " could not be read.", ex);
+		}
+	}
+
+	/**
+	 * <p>Consumes all pending events without blocking. If the directory cannot
+	 * be watched anymore, watching is stopped.
+	 *
+	 * @return {@code true} if the file may have changed.
+	 */
+	private boolean hasChanged() {
+		boolean hasChanged = false;
+		try {
+			WatchKey key;
+			while ((key = watchService.poll()) != null) {
+				for (WatchEvent<?> event : key.pollEvents()) {
+					if (event.kind() == StandardWatchEventKinds.OVERFLOW
+							|| file.getFileName().equals(event.context())) {
+						hasChanged = true;
+					}
+				}
+				if (!key.reset()) {
+					LOGGER.log(Level.WARNING, "The directory of {0} cannot be watched anymore. The file will be read on every request.", file);
+					stopWatching();
+					return true;
+				}
+			}
+		} catch (ClosedWatchServiceException e) {
+			stopWatching();
+			return true;
+		}
+		return hasChanged;
+	}
+
+	private void stopWatching() {
+		try {
+			close();
+		} catch (IOException ex) {
+			LOGGER.log(Level.FINE, "The WatchService could not be closed.", ex);
+		}
+		watchService = null;
+	}
+
+	/**
+	 * <p>Immutable content of the file at one point in time.
+	 */
+	public static class Content {
+
+		private final byte[] bytes;
+		private final byte[] gzippedBytes;
+		private final String eTag;
+		private final long lastModified;
+
+		Content(byte[] bytes, byte[] gzippedBytes, String eTag, long lastModified) {
+			this.bytes = bytes;
+			this.gzippedBytes = gzippedBytes;
+			this.eTag = eTag;
+			this.lastModified = lastModified;
+		}
+
+		public byte[] getBytes() {
+			return bytes;
+		}
+
+		public byte[] getGzippedBytes() {
+			return gzippedBytes;
+		}
+
+		/**
+		 * @return quoted strong entity tag of the uncompressed bytes.
+		 */
+		public String getETag() {
+			return eTag;
+		}
+
+		public long getLastModified() {
+			return lastModified;
+		}
+	}
+}
@@ -59,13 +59,18 @@ function checkForFileTypeSearch(searchTerm) {
 /**
  * Initialisation method that is run once. It stores the search term and
  * calculates the new skip value from the first search results. It also binds
- * the scroll method for dynamic reloading of content.
+ * the scroll method for dynamic reloading of content. Only one page is loaded
+ * at a time; scrolling while a page is loading does not request another one.
  * It loads the API provider's banner and puts up the file type-message if
  * necessary (only available for 'web').
  * @param {string} source Chooses between source to search (e.g. image or web).
  * @param {number} RESULTS_AMOUNT This is the amount of results to fetch.
+ * @param {string} format Optional. If "json", results are fetched as JSON and
+ *                        rendered by the client. If "stream", results are
+ *                        streamed as Server-Sent Events where supported. HTML
+ *                        is fetched else.
  */
-function monitorScrollingForReloading(source, RESULTS_AMOUNT) {
+function monitorScrollingForReloading(source, RESULTS_AMOUNT, format) {
 	var searchTerm = $("#currentSearchTerm").val();
 	insertResultsProviderBanner();
 	if (source === "web") {
@@ -73,10 +78,107 @@ function monitorScrollingForReloading(source, RESULTS_AMOUNT) {
 			checkForFileTypeSearch(searchTerm);
 		}
 	}
-	var skip = loadResults(source, true, searchTerm, RESULTS_AMOUNT, 0);
+	if (format === "stream" && window.EventSource) {
+		streamResults(source, searchTerm, RESULTS_AMOUNT);
+		return;
+	}
+	var load = (format === "json") ? loadJSONResults : loadResults;
+	var isLoading = true;
+	var onLoaded = function() {
+		isLoading = false;
+	};
+	var skip = load(source, searchTerm, RESULTS_AMOUNT, 0, onLoaded);
+	$(window).scroll(function() {
+		if (!isLoading && isScrolledToBottom()) {
+			isLoading = true;
+			skip = load(source, searchTerm, RESULTS_AMOUNT, skip, onLoaded);
+		}
+	});
+}
+
+/**
+ * @return {boolean} true if the user scrolled close to the end of the page.
+ */
+function isScrolledToBottom() {
+	return $(window).scrollTop() + $(window).height() > $(document).height() - 200;
+}
+
+/**
+ * Opens a Server-Sent Events stream of results from the ResultsStreamServlet.
+ * Results are appended to #sourceResults (where source is the parameter) one
+ * by one as soon as they arrive. The connection is kept open and the next page
+ * is requested on the same stream when the user scrolled to the bottom.
+ * @param {string} source Chooses between source to search (e.g. image or web).
+ * @param {string} searchTerm This is the input value to search for.
+ * @param {number} RESULTS_AMOUNT This is the amount of results per page.
+ */
+function streamResults(source, searchTerm, RESULTS_AMOUNT) {
+	if (!isKnownSource(source)) {
+		return;
+	}
+	var placeholder = $("#resultsPlaceholder").get(0);
+	var results = $("#" + source + "Results");
+	var regulations = {};
+	var freeId = RESULTS_AMOUNT;
+	var streamId = null;
+	var isLoading = true;
+	var events = new EventSource("/ResultsStreamServlet?" + $.param({
+		searchTerm: searchTerm,
+		source: source,
+		top: RESULTS_AMOUNT
+	}));
+	var close = function() {
+		events.close();
+		$(window).unbind("scroll");
+		placeholder.style.display = "none";
+	};
+	placeholder.style.display = "inline-block";
+
+	events.addEventListener("stream", function(event) {
+		streamId = JSON.parse(event.data).id;
+	});
+	events.addEventListener("regulation", function(event) {
+		var data = JSON.parse(event.data);
+		regulations[data.key] = renderRegulation(data.regulation);
+	});
+	events.addEventListener("result", function(event) {
+		var result = JSON.parse(event.data);
+		if (result.filtered) {
+			if (source === "web") {
+				results.append(renderFilteredWebResult(regulations[result.regulation], freeId++));
+			} else {
+				results.append(renderFilteredImageResult(regulations[result.regulation]));
+			}
+		} else if (source === "web") {
+			results.append(renderWebResult(result));
+		} else {
+			results.append(renderImageResult(result));
+		}
+	});
+	events.addEventListener("page", function() {
+		isLoading = false;
+	});
+	events.addEventListener("end", function(event) {
+		var message = JSON.parse(event.data).message;
+		if (message) {
+			results.append('<div class="label label-' + escapeHTML(message.level)
+					+ ' infoBanner">' + escapeHTML(message.text) + '</div>');
+		}
+		close();
+	});
+	events.onerror = close;
+
 	$(window).scroll(function() {
-		if ($(window).scrollTop() + $(window).height() > $(document).height() - 200) {
-			skip = loadResults(source, false, searchTerm, RESULTS_AMOUNT, skip);
+		if (!isLoading && streamId !== null && isScrolledToBottom()) {
+			isLoading = true;
+			$.ajax({
+				url: "/ResultsStreamServlet",
+				type: "POST",
+				async: true,
+				data: {
+					streamId: streamId
+				}
+			}).error(close);
 		}
 	});
 }
@@ -87,21 +189,21 @@ function monitorScrollingForReloading(source, RESULTS_AMOUNT) {
  * element with id="endOfResults") the scrolling function will be unbound. The
  * loading notification will be shown throughout the process.
  * @param {string} source Chooses between source to search (e.g. image or web).
- * @param {boolean} async Determines whether the request is asynchronous.
  * @param {string} searchTerm This is the input value to search for.
  * @param {number} amount This is the amount of results to fetch.
  * @param {number} skip This is the amount of results to skip.
+ * @param {function()} onComplete Called when the request has finished.
  * @return {number} Skip value for next loading or empty string if source was
  *                       unknown.
  */
-function loadResults(source, async, searchTerm, amount, skip) {
+function loadResults(source, searchTerm, amount, skip, onComplete) {
 	var placeholder = $("#resultsPlaceholder").get(0);
 	placeholder.style.display = "inline-block";
 	if (isKnownSource(source)) {
 		$.ajax({
 			url: "/ResultsServlet",
-			type: "POST",
-			async: async,
+			type: "GET",
+			async: true,
 			data: {
 				searchTerm: searchTerm,
 				source: source,
@@ -114,12 +216,190 @@ function loadResults(source, async, searchTerm, amount, skip) {
 				$(window).unbind("scroll");
 				placeholder.style.display = "none";
 			}
-		});
+		}).complete(onComplete);
 		return (skip + amount);
 	}
 	return ""; // don't let the user know
 }
 
+/**
+ * Fetches results as JSON from the ResultsJSONServlet, renders and appends
+ * them to #sourceResults (where source is the parameter). If there are no more
+ * results to deliver, the scrolling function will be unbound. The loading
+ * notification will be shown throughout the process.
+ * @param {string} source Chooses between source to search (e.g. image or web).
+ * @param {string} searchTerm This is the input value to search for.
+ * @param {number} amount This is the amount of results to fetch.
+ * @param {number} skip This is the amount of results to skip.
+ * @param {function()} onComplete Called when the request has finished.
+ * @return {number} Skip value for next loading or empty string if source was
+ *                       unknown.
+ */
+function loadJSONResults(source, searchTerm, amount, skip, onComplete) {
+	var placeholder = $("#resultsPlaceholder").get(0);
+	placeholder.style.display = "inline-block";
+	if (isKnownSource(source)) {
+		$.ajax({
+			url: "/ResultsJSONServlet",
+			type: "GET",
+			async: true,
+			dataType: "json",
+			data: {
+				searchTerm: searchTerm,
+				source: source,
+				top: amount,
+				skip: skip
+			}
+		}).success(function(response) {
+			$("#" + source + "Results").append(renderJSONResults(source, response, skip + amount));
+			if (response.endOfResults) {
+				$(window).unbind("scroll");
+				placeholder.style.display = "none";
+			}
+		}).complete(onComplete);
+		return (skip + amount);
+	}
+	return ""; // don't let the user know
+}
+
+/**
+ * Renders a response of the ResultsJSONServlet to HTML. Every regulation
+ * information is rendered only once and reused for all results referencing it.
+ * @param {string} source Chooses between source to search (e.g. image or web).
+ * @param {object} response The parsed JSON response.
+ * @param {number} freeId First id to use for toggling regulation information.
+ * @return {string} HTML of all results and of the message if there is one.
+ */
+function renderJSONResults(source, response, freeId) {
+	var html = [];
+	var renderedRegulations = {};
+	$.each(response.results, function(index, result) {
+		if (result.filtered) {
+			if (!renderedRegulations.hasOwnProperty(result.regulation)) {
+				renderedRegulations[result.regulation] = renderRegulation(response.regulations[result.regulation]);
+			}
+			if (source === "web") {
+				html.push(renderFilteredWebResult(renderedRegulations[result.regulation], freeId++));
+			} else {
+				html.push(renderFilteredImageResult(renderedRegulations[result.regulation]));
+			}
+		} else if (source === "web") {
+			html.push(renderWebResult(result));
+		} else {
+			html.push(renderImageResult(result));
+		}
+	});
+	if (response.message) {
+		html.push('<div class="label label-' + escapeHTML(response.message.level)
+				+ ' infoBanner">' + escapeHTML(response.message.text) + '</div>');
+	}
+	return html.join("\n");
+}
+
+/**
+ * @param {object} result An unfiltered web result.
+ * @return {string} HTML of the web result.
+ */
+function renderWebResult(result) {
+	return '<li>' + createLink(result.url, result.title)
+			+ '<small><div class="displayURL text-muted">' + escapeHTML(result.displayURL) + '</div>'
+			+ '<div class="description">' + escapeHTML(result.description) + '</div></small></li>';
+}
+
+/**
+ * @param {string} regulationHTML The rendered regulation information.
+ * @param {number} freeId Id used for toggling the regulation information.
+ * @return {string} HTML of the filtered web result.
+ */
+function renderFilteredWebResult(regulationHTML, freeId) {
+	return '<li class="regulatedResultBanner" onclick="toggleRegulationBanner(' + freeId + ')">'
+			+ 'Regulated result (click for more information)'
+			+ '<dl class="regulatedWebResult well regulatedResult_' + freeId + '">'
+			+ regulationHTML + '</dl></li>';
+}
+
+/**
+ * @param {object} result An unfiltered image result.
+ * @return {string} HTML of the image result.
+ */
+function renderImageResult(result) {
+	var contentType = result.contentType ? result.contentType : "unknown file type";
+	var resolution = (result.width && result.height) ? result.width + "x" + result.height + "px" : "unknown resolution";
+	var fileSize = result.fileSize ? result.fileSize + "kb" : "unknown file size";
+	return '<div class="imageResult"><dt>'
+			+ '<a href="' + escapeHTML(result.url) + '"><img src="' + escapeHTML(result.thumbnailURL) + '" /></a>'
+			+ '</dt><dd class="popover bottom"><div class="arrow"></div>'
+			+ createLink(result.sourceURL, result.title)
+			+ '<small class="popover-content">'
+			+ '<div class="displayURL text-muted">' + escapeHTML(result.displayURL) + '</div>'
+			+ '<div class="description imageContentType"><i class="glyphicon glyphicon-file"> </i> ' + escapeHTML(contentType) + '</div>'
+			+ '<div class="description imageResolution"><i class="glyphicon glyphicon-resize-full"> </i> ' + resolution + '</div>'
+			+ '<div class="description imageFileSize"><i class="glyphicon glyphicon-tasks"> </i> ' + fileSize + '</div>'
+			+ '</small></dd></div>';
+}
+
+/**
+ * @param {string} regulationHTML The rendered regulation information.
+ * @return {string} HTML of the filtered image result.
+ */
+function renderFilteredImageResult(regulationHTML) {
+	return '<div class="imageResult"><dt><img src="/resources/img/filteredThumbnail.png" /></dt>'
+			+ '<dd class="popover bottom"><div class="arrow"></div>'
+			+ '<small class="popover-content"><dl class="imageRegulationInfo">'
+			+ regulationHTML + '</dl></small></dd></div>';
+}
+
+/**
+ * Renders the regulation information of a filtered result. Currently InFO only
+ * sets URIs for the legal/background information. Therefore only links are
+ * being created.
+ * @param {object} regulation The regulation information.
+ * @return {string} HTML of the regulation information without enclosing dl.
+ */
+function renderRegulation(regulation) {
+	var html = "<dt>Controlled content:</dt>" + renderRegulationLinks(regulation.controlledTopics);
+	if (regulation.legalAuthorizations.length !== 0) {
+		html += "<dt>Legal authorisation:</dt>" + renderRegulationLinks(regulation.legalAuthorizations);
+	}
+	if (regulation.organizationalMotivations.length !== 0) {
+		html += "<dt>Organisational motivation:</dt>" + renderRegulationLinks(regulation.organizationalMotivations);
+	}
+	return html + "<dt>Rule data provider:</dt>" + renderRegulationLinks([regulation.ruleDataProvider]);
+}
+
+/**
+ * @param {Array.<string>} uris URIs to link to.
+ * @return {string} one dd-element per URI linking to it.
+ */
+function renderRegulationLinks(uris) {
+	var html = "";
+	$.each(uris, function(index, uri) {
+		html += "<dd>" + createLink(uri, "Click for more information.") + "</dd>";
+	});
+	return html;
+}
+
+/**
+ * @param {string} url The URL to link to.
+ * @param {string} content The text of the link.
+ * @return {string} a-element linking to url.
+ */
+function createLink(url, content) {
+	return '<a href="' + escapeHTML(url) + '">' + escapeHTML(content) + '</a>';
+}
+
+/**
+ * @param {string} text Text to insert into HTML.
+ * @return {string} text with HTML special characters escaped.
+ */
+function escapeHTML(text) {
+	if (text === null || text === undefined) {
+		return "";
+	}
+	return String(text).replace(/&/g, "&amp;").replace(/</g, "&lt;")
+			.replace(/>/g, "&gt;").replace(/"/g, "&quot;");
+}
+
 /**
  * Sets a button to navigation button to active for styling.
  * @param {string} source Chooses between source to search (e.g. image or web).
@@ -20,6 +20,7 @@ package de.uni_koblenz.aggrimm.icp.facades.remote;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Map;
 import javax.ejb.Remote;
 
 /**
@@ -29,9 +30,60 @@ import javax.ejb.Remote;
 @Remote
 public interface IPolicyIOBeanRemote {
 
+	/**
+	 * <p>Prefix of the temporary files uploads are streamed into. They are
+	 * created within {@code OWL_PATH} so that they can be moved atomically.
+	 */
+	public static final String UPLOAD_FILE_PREFIX = "upload_";
+	/**
+	 * <p>Suffix of the temporary files uploads are streamed into. It differs
+	 * from any policy file extension so that incomplete uploads are never
+	 * processed.
+	 */
+	public static final String UPLOAD_FILE_SUFFIX = ".part";
+
 	public byte uploadFile(String fileContent, String fileName) throws IOException;
 
+	/**
+	 * <p>Moves a completely uploaded temporary file within {@code OWL_PATH}
+	 * atomically to a policy file name derived from {@code fileName}. The
+	 * temporary file is deleted instead if a stored policy has the same
+	 * {@code checksum}.
+	 *
+	 * @param temporaryFileName name of the temporary file within
+	 *                           {@code OWL_PATH}. It must start with
+	 *                           {@link #UPLOAD_FILE_PREFIX} and end with
+	 *                           {@link #UPLOAD_FILE_SUFFIX}.
+	 * @param fileName          the name the file SHOULD have.
+	 * @param checksum          hex encoded SHA-256 of the file's content
+	 *                           computed while uploading. May be {@code null}
+	 *                           to store the file in any case.
+	 *
+	 * @return byte values that represent HTTP status codes. 201 if created
+	 *          successfully, 200 if an identical policy is stored already, 400
+	 *          if a file name could not be read and 404 if the temporary file
+	 *          was not found.
+	 * @throws IOException if the file could not be moved or deleted.
+	 */
+	public byte storeUploadedFile(String temporaryFileName, String fileName, String checksum) throws IOException;
+
+	/**
+	 * <p>Lists the stored policies without accessing the disk. Changes made by
+	 * others than this bean are listed after the next rescan.
+	 *
+	 * @return the stored policies sorted by file name.
+	 */
 	public ArrayList<File> getStoredPolicies();
 
+	/**
+	 * <p>Scans {@code OWL_PATH} for stored policies and updates the listing
+	 * returned by {@link #getStoredPolicies()}.
+	 *
+	 * @return unmodifiable map of the policies' absolute paths to their SHA-256
+	 *          hashes sorted by file name.
+	 * @throws IOException if a policy could not be read.
+	 */
+	public Map<String, String> rescanStoredPolicies() throws IOException;
+
 	public boolean deletePolicy(String policyFileName);
 }
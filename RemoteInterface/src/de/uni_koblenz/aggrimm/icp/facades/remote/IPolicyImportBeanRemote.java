@@ -0,0 +1,53 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.facades.remote;
+
+import de.uni_koblenz.aggrimm.icp.logic.resultClasses.PolicyImportResult;
+import java.io.IOException;
+import java.util.zip.ZipException;
+import javax.ejb.Remote;
+
+/**
+ *
+ * <p>Facelet for importing many policy files at once.
+ *
+ * @author mruster
+ */
+@Remote
+public interface IPolicyImportBeanRemote {
+
+	/**
+	 * <p>Imports all policy files of a zip archive that has been uploaded into
+	 * {@code OWL_PATH}. Every file is validated on its own and only valid files
+	 * are stored. The policies are processed again once afterwards.
+	 *
+	 * @param temporaryFileName name of the uploaded archive within
+	 *                           {@code OWL_PATH}. It must start with
+	 *                           {@link IPolicyIOBeanRemote#UPLOAD_FILE_PREFIX}
+	 *                           and end with
+	 *                           {@link IPolicyIOBeanRemote#UPLOAD_FILE_SUFFIX}.
+	 *                           It is deleted afterwards.
+	 *
+	 * @return per-file outcome and timing of the import. Files that could not
+	 *          be stored are reported there as well.
+	 * @throws ZipException if the archive has too many entries or extracts to
+	 *                      too many bytes. Nothing has been stored then.
+	 * @throws IOException  if the archive could not be read.
+	 */
+	PolicyImportResult importPolicyArchive(String temporaryFileName) throws IOException;
+}
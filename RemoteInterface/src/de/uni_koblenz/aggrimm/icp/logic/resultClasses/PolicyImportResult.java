@@ -0,0 +1,133 @@
+/*
+ * Copyright 2013 Michael Ruster.
+ *
+ * This file is part of Polsearchine.
+ *
+ * Polsearchine is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Polsearchine is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with Polsearchine. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.uni_koblenz.aggrimm.icp.logic.resultClasses;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>Result class for {@code PolicyImportBean}.
+ *
+ * Contains one entry per file of an imported archive stating whether it has
+ * been stored, how long it took and why it failed if so.
+ *
+ * @author mruster
+ */
+final public class PolicyImportResult implements Serializable {
+
+	private static final long serialVersionUID = 4637710530652958143L;
+	private final List<FileResult> fileResults = new ArrayList<>();
+	private boolean isReloaded;
+	private long durationMillis;
+
+	public PolicyImportResult() {
+	}
+
+	public void addFileResult(FileResult fileResult) {
+		fileResults.add(fileResult);
+	}
+
+	public List<FileResult> getFileResults() {
+		return Collections.unmodifiableList(fileResults);
+	}
+
+	/**
+	 * @return number of files that have been stored.
+	 */
+	public int getImportedCount() {
+		int importedCount = 0;
+		for (FileResult fileResult : fileResults) {
+			if (fileResult.isImported()) {
+				importedCount++;
+			}
+		}
+		return importedCount;
+	}
+
+	/**
+	 * @return number of files that have been rejected.
+	 */
+	public int getFailedCount() {
+		return fileResults.size() - getImportedCount();
+	}
+
+	/**
+	 * @return {@code true} if the policies have been processed again after the
+	 *          import, {@code false} if nothing had to be reloaded.
+	 */
+	public boolean isReloaded() {
+		return isReloaded;
+	}
+
+	public void setReloaded(boolean isReloaded) {
+		this.isReloaded = isReloaded;
+	}
+
+	/**
+	 * @return milliseconds the whole import took including the reload.
+	 */
+	public long getDurationMillis() {
+		return durationMillis;
+	}
+
+	public void setDurationMillis(long durationMillis) {
+		this.durationMillis = durationMillis;
+	}
+
+	/**
+	 * <p>Outcome of a single archive entry.
+	 */
+	final public static class FileResult implements Serializable {
+
+		private static final long serialVersionUID = -2104882418675839316L;
+		private final String entryName;
+		private final long durationMillis;
+		private final String failure;
+
+		/**
+		 * @param entryName      name of the entry within the archive.
+		 * @param durationMillis milliseconds it took to extract, validate and
+		 *                        store the entry.
+		 * @param failure        why the entry has not been stored or
+		 *                        {@code null} if it has been.
+		 */
+		public FileResult(String entryName, long durationMillis, String failure) {
+			this.entryName = entryName;
+			this.durationMillis = durationMillis;
+			this.failure = failure;
+		}
+
+		public String getEntryName() {
+			return entryName;
+		}
+
+		public long getDurationMillis() {
+			return durationMillis;
+		}
+
+		public String getFailure() {
+			return failure;
+		}
+
+		public boolean isImported() {
+			return failure == null;
+		}
+	}
+}